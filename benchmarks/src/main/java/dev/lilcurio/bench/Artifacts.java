@@ -0,0 +1,58 @@
+package dev.lilcurio.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command lines that start each built flavor of the CLI, for the benchmarks that time whole processes.
+ * Artifacts are looked up under {@code target/}, so run from the project root, or point
+ * {@code -Dlilcurio.jar}, {@code -Dlilcurio.cds}, {@code -Dlilcurio.native} and
+ * {@code -Dlilcurio.native.pgo} at them.
+ */
+final class Artifacts {
+
+    private Artifacts() {
+    }
+
+    /**
+     * The command starting {@code target}: {@code jar}, {@code jar-cds}, {@code jar-serial} or
+     * {@code jar-g1} (the jar under that collector), {@code native}, or {@code native-pgo}.
+     */
+    static List<String> launcher(String target) {
+        List<String> cmd = new ArrayList<>();
+        if (target.startsWith("jar")) {
+            Path jar = find("lilcurio.jar", "target/lilcurio-0.1.0-SNAPSHOT.jar", "mvn package");
+            cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            switch (target) {
+                case "jar-cds" -> {
+                    // -Xshare:on fails instead of silently falling back when the archive doesn't match
+                    Path archive = find("lilcurio.cds", "target/lilcurio.jsa", "mvn -Pcds package");
+                    cmd.add("-Xshare:on");
+                    cmd.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+                }
+                case "jar-serial" -> cmd.add("-XX:+UseSerialGC");
+                case "jar-g1" -> cmd.add("-XX:+UseG1GC");
+                default -> {
+                }
+            }
+            cmd.add("-jar");
+            cmd.add(jar.toString());
+        } else if (target.equals("native-pgo")) {
+            cmd.add(find("lilcurio.native.pgo", "target/lilcurio-pgo", "./scripts/build-pgo-native.sh").toString());
+        } else {
+            cmd.add(find("lilcurio.native", "target/lilcurio", "mvn -Pnative package").toString());
+        }
+        return cmd;
+    }
+
+    private static Path find(String property, String defaultPath, String buildCommand) {
+        Path path = Path.of(System.getProperty(property, defaultPath));
+        if (!Files.isExecutable(path) && !Files.isRegularFile(path)) {
+            throw new IllegalStateException(path.toAbsolutePath() + " not found; build it with '"
+                    + buildCommand + "' or set -D" + property);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,113 @@
+package dev.lilcurio.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time per check of a long batch run, one {@code pipe} process doing {@value #CHECKS} checks, so
+ * startup is amortized and peak throughput dominates: the JIT-warmed jar under the serial and G1
+ * collectors against the native binary with and without PGO. See {@link Artifacts} for where they
+ * are found; native binaries use the collector they were built with ({@code -Dnative.gc}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(BatchThroughputBenchmark.CHECKS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchThroughputBenchmark {
+
+    static final int CHECKS = 5000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"jar-serial", "jar-g1", "native", "native-pgo"})
+    String target;
+
+    @Param({"validate", "compatibility"})
+    String command;
+
+    private ProcessBuilder process;
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("lilcurio-batch");
+        List<String> versions = new ArrayList<>();
+        List<String> history = SyntheticSchemas.history(10, 50, 2, 5);
+        for (int i = 0; i < history.size(); i++) {
+            Path version = directory.resolve("v" + i + ".json");
+            Files.writeString(version, history.get(i));
+            versions.add(version.toString());
+        }
+
+        Path requests = directory.resolve("requests.ndjson");
+        try (BufferedWriter out = Files.newBufferedWriter(requests)) {
+            for (int i = 0; i < CHECKS; i++) {
+                ObjectNode request = MAPPER.createObjectNode().put("command", command);
+                if (command.equals("validate")) {
+                    request.putObject("schema").put("path", versions.get(i % versions.size()));
+                } else {
+                    // Each request proposes a later version against all earlier ones
+                    int proposed = 1 + i % (versions.size() - 1);
+                    request.put("level", "backward-transitive");
+                    for (String existing : versions.subList(0, proposed)) {
+                        request.withArray("existing").addObject().put("path", existing);
+                    }
+                    request.putObject("schema").put("path", versions.get(proposed));
+                }
+                out.write(MAPPER.writeValueAsString(request));
+                out.newLine();
+            }
+        }
+
+        List<String> cmd = Artifacts.launcher(target);
+        cmd.addAll(List.of("pipe", "--input", requests.toString(), "--type", "json", "--no-cache"));
+        process = new ProcessBuilder(cmd)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        process.environment().put("LILCURIO_NO_DAEMON", "1");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int run() throws Exception {
+        int exitCode = process.start().waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.join(" ", process.command()) + " exited with " + exitCode);
+        }
+        return exitCode;
+    }
+}
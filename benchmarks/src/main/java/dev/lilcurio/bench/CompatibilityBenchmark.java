@@ -0,0 +1,64 @@
+package dev.lilcurio.bench;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.json.rules.compatibility.JsonSchemaCompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompatibilityBenchmark {
+
+    @Param({"BACKWARD", "BACKWARD_TRANSITIVE", "FULL_TRANSITIVE"})
+    CompatibilityLevel level;
+
+    @Param({"2", "10", "50"})
+    int history;
+
+    @Param({"20", "200"})
+    int properties;
+
+    @Param({"1", "3"})
+    int depth;
+
+    @Param({"0", "10"})
+    int refFanout;
+
+    private final CompatibilityChecker checker = new JsonSchemaCompatibilityChecker();
+    private List<TypedContent> existing;
+    private TypedContent proposed;
+
+    @Setup
+    public void setup() {
+        List<TypedContent> versions = SyntheticSchemas.history(history, properties, depth, refFanout).stream()
+                .map(schema -> TypedContent.create(schema, "application/json"))
+                .toList();
+        existing = versions.subList(0, versions.size() - 1);
+        proposed = versions.get(versions.size() - 1);
+    }
+
+    @Benchmark
+    public CompatibilityExecutionResult testCompatibility() {
+        return checker.testCompatibility(level, existing, proposed, Map.of());
+    }
+}
@@ -0,0 +1,73 @@
+package dev.lilcurio.bench;
+
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.output.ResultPrinter;
+import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.compatibility.SimpleCompatibilityDifference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultPrinterBenchmark {
+
+    @Param({"plain", "json", "ndjson"})
+    String format;
+
+    @Param({"1", "1000"})
+    int results;
+
+    @Param({"0", "20"})
+    int violations;
+
+    private final PrintWriter out = new PrintWriter(Writer.nullWriter());
+    private List<CheckResult> report;
+
+    @Setup
+    public void setup() {
+        report = new ArrayList<>(results);
+        for (int i = 0; i < results; i++) {
+            Path file = Path.of("schemas", "schema-" + i + ".json");
+            if (violations == 0) {
+                report.add(CheckResult.compatibilitySuccess(file, CompatibilityLevel.BACKWARD));
+            } else {
+                Set<CompatibilityDifference> differences = new LinkedHashSet<>();
+                for (int v = 0; v < violations; v++) {
+                    differences.add(new SimpleCompatibilityDifference(
+                            "REQUIRED_PROPERTY_ADDED", "/properties/p" + v));
+                }
+                report.add(CheckResult.compatibilityFailure(file, CompatibilityLevel.BACKWARD, differences));
+            }
+        }
+    }
+
+    @Benchmark
+    public void printReport() {
+        ResultPrinter printer = ResultPrinter.create(format, out, out);
+        report.forEach(printer::resultAvailable);
+        printer.printReport(CheckResult.COMPATIBILITY, report);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.lilcurio.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of one CLI invocation, from process start to exit, for the shaded jar, the jar
+ * with its AppCDS archive, and the native binary with and without PGO. See {@link Artifacts} for
+ * where they are found.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"jar", "jar-cds", "native", "native-pgo"})
+    String target;
+
+    @Param({"version", "validate", "compatibility"})
+    String command;
+
+    private ProcessBuilder process;
+    private Path schema;
+    private Path proposed;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> cmd = Artifacts.launcher(target);
+
+        List<String> versions = SyntheticSchemas.history(2, 20, 2, 0);
+        schema = Files.createTempFile("lilcurio-startup", ".json");
+        Files.writeString(schema, versions.get(0));
+        proposed = Files.createTempFile("lilcurio-startup", ".json");
+        Files.writeString(proposed, versions.get(1));
+        switch (command) {
+            case "version" -> cmd.add("--version");
+            case "validate" -> cmd.addAll(List.of("validate", schema.toString(), "--type", "json", "--no-cache"));
+            default -> cmd.addAll(List.of("compatibility", schema.toString(), proposed.toString(),
+                    "--type", "json", "--level", "backward", "--no-cache"));
+        }
+
+        process = new ProcessBuilder(cmd)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        process.environment().put("LILCURIO_NO_DAEMON", "1");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(schema);
+        Files.deleteIfExists(proposed);
+    }
+
+    @Benchmark
+    public int run() throws Exception {
+        int exitCode = process.start().waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.join(" ", process.command()) + " exited with " + exitCode);
+        }
+        return exitCode;
+    }
+}
@@ -0,0 +1,79 @@
+package dev.lilcurio.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates JSON Schemas of a chosen shape, so benchmarks can scale one dimension at a time.
+ */
+public final class SyntheticSchemas {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] SCALAR_TYPES = {"string", "integer", "number", "boolean"};
+
+    private SyntheticSchemas() {
+    }
+
+    /**
+     * An object schema with {@code properties} scalar properties (half of them required) on each of
+     * {@code depth} nested levels, plus {@code refFanout} properties that each {@code $ref} their own
+     * entry under {@code $defs}.
+     */
+    public static String jsonSchema(int properties, int depth, int refFanout) {
+        return jsonSchema(properties, depth, refFanout, 0);
+    }
+
+    /**
+     * {@code length} successive versions of {@link #jsonSchema}, oldest first, each adding one
+     * optional property so that every version is backward compatible with all earlier ones.
+     */
+    public static List<String> history(int length, int properties, int depth, int refFanout) {
+        List<String> versions = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            versions.add(jsonSchema(properties, depth, refFanout, i));
+        }
+        return versions;
+    }
+
+    private static String jsonSchema(int properties, int depth, int refFanout, int added) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("$schema", "https://json-schema.org/draft/2020-12/schema");
+        root.setAll(object(properties, depth));
+        ObjectNode rootProperties = (ObjectNode) root.get("properties");
+        for (int i = 0; i < added; i++) {
+            rootProperties.putObject("added" + i).put("type", "string");
+        }
+        if (refFanout > 0) {
+            ObjectNode defs = root.putObject("$defs");
+            for (int i = 0; i < refFanout; i++) {
+                defs.set("def" + i, object(Math.max(1, properties / 4), 1));
+                rootProperties.putObject("ref" + i).put("$ref", "#/$defs/def" + i);
+            }
+        }
+        try {
+            return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ObjectNode object(int properties, int depth) {
+        ObjectNode node = MAPPER.createObjectNode().put("type", "object");
+        ObjectNode props = node.putObject("properties");
+        ArrayNode required = node.putArray("required");
+        for (int i = 0; i < properties; i++) {
+            props.putObject("p" + i).put("type", SCALAR_TYPES[i % SCALAR_TYPES.length]);
+            if (i % 2 == 0) {
+                required.add("p" + i);
+            }
+        }
+        if (depth > 1) {
+            props.set("nested", object(properties, depth - 1));
+        }
+        return node;
+    }
+}
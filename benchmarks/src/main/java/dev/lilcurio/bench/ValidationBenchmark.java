@@ -0,0 +1,54 @@
+package dev.lilcurio.bench;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.json.rules.validity.JsonSchemaContentValidator;
+import io.apicurio.registry.rules.validity.ContentValidator;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int properties;
+
+    @Param({"1", "5"})
+    int depth;
+
+    @Param({"0", "10"})
+    int refFanout;
+
+    @Param({"SYNTAX_ONLY", "FULL"})
+    ValidityLevel level;
+
+    private final ContentValidator validator = new JsonSchemaContentValidator();
+    private TypedContent schema;
+
+    @Setup
+    public void setup() {
+        schema = TypedContent.create(SyntheticSchemas.jsonSchema(properties, depth, refFanout), "application/json");
+    }
+
+    @Benchmark
+    public void validate() throws Exception {
+        validator.validate(level, schema, Map.of());
+    }
+}
@@ -0,0 +1,253 @@
+package dev.lilcurio.maven;
+
+import dev.lilcurio.BuildInfo;
+import dev.lilcurio.api.DiffOptions;
+import dev.lilcurio.api.GitDiff;
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.cache.ResultCache;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckLimits;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.io.SchemaFileCollector;
+import dev.lilcurio.schema.SchemaType;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the configured schema checks inside the build JVM, all of them at once. A check whose schemas,
+ * the files they reference, configuration and git base are unchanged since it last passed is skipped.
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class CheckMojo extends AbstractMojo {
+
+    private static final long CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
+    @Parameter(required = true)
+    private List<SchemaCheck> checks;
+
+    /**
+     * Files checked concurrently within each check. Default: number of available processors.
+     */
+    @Parameter(property = "lilcurio.parallelism", defaultValue = "0")
+    private int parallelism;
+
+    /**
+     * Re-run every check, even those up to date.
+     */
+    @Parameter(property = "lilcurio.force", defaultValue = "false")
+    private boolean force;
+
+    @Parameter(property = "lilcurio.skip", defaultValue = "false")
+    private boolean skip;
+
+    /**
+     * Holds the up-to-date stamps and the result cache.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/lilcurio")
+    private File workDirectory;
+
+    @Parameter(defaultValue = "${project.basedir}", readonly = true, required = true)
+    private File basedir;
+
+    /**
+     * What one check found, or null results if it was up to date.
+     */
+    private record Outcome(String id, List<Path> files, List<CheckResult> results) {
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping lilcurio checks");
+            return;
+        }
+        int threads = parallelism > 0 ? parallelism : BatchExecutor.defaultParallelism();
+        ResultCache cache = new ResultCache(workDirectory.toPath().resolve("cache"), CACHE_MAX_BYTES);
+
+        List<Outcome> outcomes;
+        try {
+            // The files of every check share the threads of this one pool
+            outcomes = BatchExecutor.map(IntStream.range(0, checks.size()).boxed().toList(), threads, i -> {
+                try {
+                    return run(id(i), checks.get(i), threads, cache);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted", e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new MojoExecutionException(e.getCause().getMessage(), e.getCause());
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted", e);
+        } finally {
+            cache.evict();
+        }
+
+        int failed = 0;
+        for (Outcome outcome : outcomes) {
+            if (outcome.results() == null) {
+                getLog().info(outcome.id() + ": up to date");
+                continue;
+            }
+            int checkFailed = 0;
+            for (CheckResult result : outcome.results()) {
+                if (result.status() != CheckStatus.PASS) {
+                    checkFailed++;
+                    log(result);
+                }
+            }
+            getLog().info(outcome.id() + ": " + outcome.files().size() + " file(s), "
+                    + (checkFailed == 0 ? "all checks passed" : checkFailed + " check(s) failed"));
+            failed += checkFailed;
+        }
+        if (failed > 0) {
+            throw new MojoFailureException(failed + " schema check(s) failed");
+        }
+    }
+
+    private String id(int index) {
+        SchemaCheck check = checks.get(index);
+        return check.getId() != null ? check.getId() : check.getType() + "-" + (index + 1);
+    }
+
+    private Outcome run(String id, SchemaCheck check, int threads, ResultCache cache)
+            throws IOException, InterruptedException {
+        if (check.getType() == null || check.getSchemas() == null || check.getSchemas().isEmpty()) {
+            throw new IllegalArgumentException(id + ": <type> and <schemas> are required");
+        }
+        if (check.getChangedSince() != null && check.getCompatibility() == null) {
+            throw new IllegalArgumentException(id + ": <changedSince> needs a <compatibility> level");
+        }
+        SchemaType type = SchemaType.fromCliName(check.getType());
+        ValidityLevel validity = SchemaChecker.parseValidityLevel(check.getValidity());
+        List<CompatibilityLevel> levels = check.getCompatibility() != null
+                ? SchemaChecker.parseCompatibilityLevels(check.getCompatibility()) : List.of();
+        List<String> inputs = check.getSchemas().stream().map(this::resolve).toList();
+        SchemaChecker checker = new SchemaChecker(type, CheckLimits.defaults(), cache, threads);
+
+        GitDiff diff = levels.isEmpty() ? null : checker.diff(basedir.toPath(), new DiffOptions(check.getRef(),
+                check.getHistory(), check.getSince(), check.getChangedSince(), check.isFailFast()));
+        try {
+            String base = diff != null ? diff.pinBase() : null;
+            List<Path> files = check.getChangedSince() != null
+                    ? diff.changedFiles(inputs) : SchemaFileCollector.collect(inputs, type.getFileExtension());
+            if (files.isEmpty() && check.getChangedSince() == null) {
+                throw new IOException(id + ": no " + type.getFileExtension() + " files matched "
+                        + String.join(", ", check.getSchemas()));
+            }
+
+            Path stampFile = workDirectory.toPath().resolve("stamps").resolve(id + ".sha256");
+            String stamp = stamp(check, base, files, checker, threads);
+            if (!force && stamp != null && Files.isRegularFile(stampFile)
+                    && Files.readString(stampFile).equals(stamp)) {
+                return new Outcome(id, files, null);
+            }
+
+            List<CheckResult> results = new ArrayList<>();
+            if (validity != ValidityLevel.NONE) {
+                results.addAll(checker.validate(files, validity));
+            }
+            if (diff != null) {
+                results.addAll(diff.check(files, levels));
+            }
+            if (stamp != null && results.stream().allMatch(result -> result.status() == CheckStatus.PASS)) {
+                Files.createDirectories(stampFile.getParent());
+                Files.writeString(stampFile, stamp);
+            } else {
+                Files.deleteIfExists(stampFile);
+            }
+            return new Outcome(id, files, results);
+        } finally {
+            if (diff != null) {
+                diff.close();
+            }
+        }
+    }
+
+    /**
+     * A SHA-256 of everything a check's outcome depends on: the lilcurio and Apicurio versions, its
+     * configuration, the commit its git base points to, and the path and content of each schema and
+     * of each file it references. Null if a file cannot be read, so the check runs and reports why.
+     */
+    private static String stamp(SchemaCheck check, String base, List<Path> files, SchemaChecker checker,
+                                int threads) throws InterruptedException {
+        List<byte[]> digests;
+        try {
+            digests = BatchExecutor.map(files, threads, file -> {
+                try {
+                    MessageDigest digest = sha256();
+                    for (Path input : checker.inputs(file)) {
+                        update(digest, input.toString().getBytes(StandardCharsets.UTF_8));
+                        update(digest, Files.readAllBytes(input));
+                    }
+                    return digest.digest();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        update(digest, (BuildInfo.fullVersion() + " " + BuildInfo.apicurioVersion()).getBytes(StandardCharsets.UTF_8));
+        update(digest, check.toString().getBytes(StandardCharsets.UTF_8));
+        update(digest, String.valueOf(base).getBytes(StandardCharsets.UTF_8));
+        digests.forEach(fileDigest -> update(digest, fileDigest));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String resolve(String input) {
+        return new File(input).isAbsolute() ? input : new File(basedir, input).getPath();
+    }
+
+    private void log(CheckResult result) {
+        getLog().error(result.file() + " [" + result.level() + "] " + result.status());
+        for (RuleViolation violation : result.violations()) {
+            String context = violation.getContext() != null && !violation.getContext().isEmpty()
+                    ? " [at: " + violation.getContext() + "]" : "";
+            getLog().error("  - " + violation.getDescription() + context);
+        }
+    }
+
+    private static void update(MessageDigest digest, byte[] bytes) {
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.lilcurio.maven;
+
+import java.util.List;
+
+/**
+ * One {@code <check>} of the plugin configuration: schema files of one type, validated and optionally
+ * checked for compatibility with their committed versions, like the {@code validate} and {@code diff}
+ * commands.
+ */
+public class SchemaCheck {
+
+    /**
+     * Names the check in the log and its up-to-date stamp. Default: {@code <type>-<position>}.
+     */
+    private String id;
+
+    /**
+     * Schema type: json, avro, protobuf.
+     */
+    private String type;
+
+    /**
+     * Schema files, directories or glob patterns, relative to the project directory.
+     */
+    private List<String> schemas;
+
+    /**
+     * Validity level: none, syntax_only, full.
+     */
+    private String validity = "full";
+
+    /**
+     * Compatibility levels to check the schemas at against git, comma-separated; none if unset.
+     */
+    private String compatibility;
+
+    private String ref = "HEAD";
+
+    private Integer history;
+
+    private String since;
+
+    private String changedSince;
+
+    private boolean failFast;
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<String> getSchemas() {
+        return schemas;
+    }
+
+    public String getValidity() {
+        return validity;
+    }
+
+    public String getCompatibility() {
+        return compatibility;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public Integer getHistory() {
+        return history;
+    }
+
+    public String getSince() {
+        return since;
+    }
+
+    public String getChangedSince() {
+        return changedSince;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Everything that decides the outcome apart from the files themselves, for the up-to-date stamp.
+     */
+    @Override
+    public String toString() {
+        return "type=" + type + " schemas=" + schemas + " validity=" + validity + " compatibility=" + compatibility
+                + " ref=" + ref + " history=" + history + " since=" + since + " changedSince=" + changedSince
+                + " failFast=" + failFast;
+    }
+}
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive for the fat JAR from a training run over the test schemas.
+# The archive is only valid for the JDK that created it and for the JAR at the same path.
+# Usage: ./scripts/build-cds-archive.sh [jar] [archive]
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+PROJECT_DIR="$(cd "$SCRIPT_DIR/.." && pwd)"
+SCHEMAS="$PROJECT_DIR/src/test/resources/schemas"
+
+JAR="${1:-$PROJECT_DIR/target/lilcurio-0.1.0-SNAPSHOT.jar}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+if [ ! -f "$JAR" ]; then
+  echo "$JAR not found; build it with 'mvn package'" >&2
+  exit 1
+fi
+# The runtime class path must match the dump-time one, so always record an absolute path.
+JAR="$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")"
+ARCHIVE="${2:-$(dirname "$JAR")/lilcurio.jsa}"
+
+# Train in-process against an empty result cache so every code path loads its classes.
+export LILCURIO_NO_DAEMON=1
+export XDG_CACHE_HOME="$(mktemp -d)"
+LISTS="$(mktemp -d)"
+trap 'rm -rf "$XDG_CACHE_HOME" "$LISTS"' EXIT
+
+run=0
+train() {
+  run=$((run + 1))
+  "$JAVA" -Xshare:off -XX:DumpLoadedClassList="$LISTS/$run.classlist" -jar "$JAR" "$@" >/dev/null 2>&1 || true
+}
+
+echo "==> Training run..."
+train validate "$SCHEMAS/json/valid-schema.json" --type json --level full
+train validate "$SCHEMAS/json/invalid-syntax.json" "$SCHEMAS/json-refs/customer.json" --type json --json
+train compatibility "$SCHEMAS/json/schema-v1.json" "$SCHEMAS/json/schema-v2-compatible.json" \
+  "$SCHEMAS/json/schema-v2-incompatible.json" --type json --level full-transitive
+train compatibility "$SCHEMAS/json/schema-v1.json" "$SCHEMAS/json/schema-v2-incompatible.json" \
+  --type json --level backward --format ndjson
+train validate "$SCHEMAS/avro/user-v1.avsc" "$SCHEMAS/avro/invalid-syntax.avsc" --type avro
+train compatibility "$SCHEMAS/avro/user-v1.avsc" "$SCHEMAS/avro/user-v2-compatible.avsc" \
+  "$SCHEMAS/avro/user-v2-incompatible.avsc" --type avro --level full-transitive --json
+train --help
+
+echo "==> Dumping archive..."
+sort -u "$LISTS"/*.classlist > "$LISTS/merged.classlist"
+"$JAVA" -Xshare:dump -XX:SharedClassListFile="$LISTS/merged.classlist" \
+  -XX:SharedArchiveFile="$ARCHIVE" -cp "$JAR" >/dev/null
+
+echo "==> Archive written to: $ARCHIVE"
+echo "    java -XX:SharedArchiveFile=$ARCHIVE -jar $JAR <command>"
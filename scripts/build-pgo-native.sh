@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Builds a profile-guided optimized native binary: an instrumented image first, then a training
+# workload over the test schemas to collect profiles, then the optimized image.
+# Requires: Oracle GraalVM with native-image (GraalVM Community has no PGO).
+# Usage: ./scripts/build-pgo-native.sh [serial|G1]
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+PROJECT_DIR="$(cd "$SCRIPT_DIR/.." && pwd)"
+SCHEMAS="$PROJECT_DIR/src/test/resources/schemas"
+TARGET="$PROJECT_DIR/target"
+PROFILES="$TARGET/pgo"
+GC="${1:-serial}"
+
+if ! native-image --help 2>&1 | grep -q -- '--pgo'; then
+  echo "native-image does not support --pgo; PGO needs Oracle GraalVM" >&2
+  exit 1
+fi
+
+echo "==> Building instrumented native binary (gc: $GC)..."
+mvn -f "$PROJECT_DIR/pom.xml" -Pnative,pgo-instrument package -DskipTests -Dnative.gc="$GC" -q
+INSTRUMENTED="$TARGET/lilcurio-instrumented"
+
+# Train in-process against an empty result cache so every check actually runs.
+export LILCURIO_NO_DAEMON=1
+export XDG_CACHE_HOME="$(mktemp -d)"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$XDG_CACHE_HOME" "$WORK"' EXIT
+rm -rf "$PROFILES"
+mkdir -p "$PROFILES"
+
+run=0
+train() {
+  run=$((run + 1))
+  "$INSTRUMENTED" -XX:ProfilesDumpFile="$PROFILES/$run.iprof" "$@" >/dev/null 2>&1 || true
+}
+
+# Batch runs dominate production use, so most of the profile comes from one long pipe run that
+# repeats validate and transitive compatibility checks of every type until the hot paths are warm.
+echo "==> Training run..."
+REQUESTS="$WORK/requests.ndjson"
+for i in $(seq 1 200); do
+  for schema in "$SCHEMAS"/json/*.json "$SCHEMAS"/json-refs/*.json; do
+    echo "{\"command\":\"validate\",\"type\":\"json\",\"schema\":{\"path\":\"$schema\"}}"
+  done
+  for schema in "$SCHEMAS"/avro/*.avsc; do
+    echo "{\"command\":\"validate\",\"type\":\"avro\",\"schema\":{\"path\":\"$schema\"}}"
+  done
+  for schema in "$SCHEMAS"/protobuf/shop/*.proto; do
+    echo "{\"command\":\"validate\",\"type\":\"protobuf\",\"schema\":{\"path\":\"$schema\"}}"
+  done
+  echo "{\"command\":\"compatibility\",\"type\":\"json\",\"level\":\"full-transitive\",\"existing\":[{\"path\":\"$SCHEMAS/json/schema-v1.json\"},{\"path\":\"$SCHEMAS/json/schema-v2-compatible.json\"}],\"schema\":{\"path\":\"$SCHEMAS/json/schema-v2-incompatible.json\"}}"
+  echo "{\"command\":\"compatibility\",\"type\":\"avro\",\"level\":\"full-transitive\",\"existing\":[{\"path\":\"$SCHEMAS/avro/user-v1.avsc\"},{\"path\":\"$SCHEMAS/avro/user-v2-compatible.avsc\"}],\"schema\":{\"path\":\"$SCHEMAS/avro/user-v2-incompatible.avsc\"}}"
+  echo "{\"command\":\"compatibility\",\"type\":\"protobuf\",\"level\":\"backward-transitive\",\"existing\":[{\"path\":\"$SCHEMAS/protobuf/shop/order-v1.proto\"},{\"path\":\"$SCHEMAS/protobuf/shop/order-v2-compatible.proto\"}],\"schema\":{\"path\":\"$SCHEMAS/protobuf/shop/order-v2-incompatible.proto\"}}"
+done > "$REQUESTS"
+train pipe --input "$REQUESTS" --no-cache
+
+train validate "$SCHEMAS/json" "$SCHEMAS/json-refs" --type json --no-cache --json
+train validate "$SCHEMAS/avro" --type avro --no-cache --format ndjson
+train validate "$SCHEMAS/protobuf" --type protobuf --no-cache
+train compatibility "$SCHEMAS/json/schema-v1.json" "$SCHEMAS/json/schema-v2-compatible.json" \
+  "$SCHEMAS/json/schema-v2-incompatible.json" --type json --level backward-transitive,full-transitive --no-cache
+train compatibility "$SCHEMAS/avro/user-v1.avsc" "$SCHEMAS/avro/user-v2-compatible.avsc" \
+  "$SCHEMAS/avro/user-v2-incompatible.avsc" --type avro --level full-transitive --matrix all --no-cache
+
+# diff reads committed versions through git, so it needs the project's history
+if git -C "$PROJECT_DIR" rev-parse --is-inside-work-tree &>/dev/null; then
+  cd "$PROJECT_DIR"
+  train diff src/test/resources/schemas/json --type json --level backward --no-cache
+  train diff src/test/resources/schemas/avro --type avro --level backward-transitive --history 10 --no-cache
+fi
+
+PROFILE_LIST="$(find "$PROFILES" -name '*.iprof' | sort | paste -sd, -)"
+if [ -z "$PROFILE_LIST" ]; then
+  echo "The training run wrote no profiles to $PROFILES" >&2
+  exit 1
+fi
+
+echo "==> Building optimized native binary..."
+mvn -f "$PROJECT_DIR/pom.xml" -Pnative,pgo package -DskipTests -Dnative.gc="$GC" \
+  -Dnative.pgo.profiles="$PROFILE_LIST" -q
+
+echo "==> Binary written to: $TARGET/lilcurio-pgo"
@@ -16,6 +16,11 @@ AGENT_OPTS="-agentlib:native-image-agent=config-merge-dir=$CONFIG_DIR"
 
 mkdir -p "$CONFIG_DIR"
 
+# Run every command in-process against an empty result cache so no code path is short-circuited.
+export LILCURIO_NO_DAEMON=1
+export XDG_CACHE_HOME="$(mktemp -d)"
+trap 'rm -rf "$XDG_CACHE_HOME"' EXIT
+
 echo "==> Running tracing agent — exercising all code paths..."
 
 # validate: valid schema, full level
@@ -51,6 +56,21 @@ java $AGENT_OPTS -jar "$JAR" compatibility \
   "$PROJECT_DIR/src/test/resources/schemas/json/schema-v2-incompatible.json" \
   --type json --level full --json || true
 
+# avro: validate, invalid syntax, transitive compatibility
+java $AGENT_OPTS -jar "$JAR" validate \
+  "$PROJECT_DIR/src/test/resources/schemas/avro/user-v1.avsc" \
+  --type avro --level full || true
+
+java $AGENT_OPTS -jar "$JAR" validate \
+  "$PROJECT_DIR/src/test/resources/schemas/avro/invalid-syntax.avsc" \
+  --type avro --level syntax_only || true
+
+java $AGENT_OPTS -jar "$JAR" compatibility \
+  "$PROJECT_DIR/src/test/resources/schemas/avro/user-v1.avsc" \
+  "$PROJECT_DIR/src/test/resources/schemas/avro/user-v2-compatible.avsc" \
+  "$PROJECT_DIR/src/test/resources/schemas/avro/user-v2-incompatible.avsc" \
+  --type avro --level full-transitive --json || true
+
 # diff: exercise git integration (only if project is a git repo)
 if git -C "$PROJECT_DIR" rev-parse --is-inside-work-tree &>/dev/null; then
   # Use a test schema that's tracked in git
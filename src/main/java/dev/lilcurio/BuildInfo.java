@@ -0,0 +1,72 @@
+package dev.lilcurio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.Properties;
+
+/**
+ * Versions stamped into {@code lilcurio.properties} at build time.
+ */
+public final class BuildInfo {
+
+    private static final Properties PROPERTIES = load();
+    private static final String BUILD_ID = buildId(PROPERTIES.getProperty("build.id"));
+
+    private BuildInfo() {
+    }
+
+    public static String version() {
+        return PROPERTIES.getProperty("version", "unknown");
+    }
+
+    public static String apicurioVersion() {
+        return PROPERTIES.getProperty("apicurio.version", "unknown");
+    }
+
+    /**
+     * Tells apart builds of the same version, such as successive snapshots: when it was built, or,
+     * run from resources the build did not stamp, the size and modification time of the jar.
+     */
+    public static String buildId() {
+        return BUILD_ID;
+    }
+
+    /**
+     * The version and build, which a daemon and its client must share.
+     */
+    public static String fullVersion() {
+        return version() + "+" + buildId();
+    }
+
+    private static String buildId(String stamped) {
+        if (stamped != null && !stamped.isEmpty() && !stamped.startsWith("${")) {
+            return stamped;
+        }
+        try {
+            CodeSource source = BuildInfo.class.getProtectionDomain().getCodeSource();
+            Path location = source != null ? Path.of(source.getLocation().toURI()) : null;
+            if (location != null && Files.isRegularFile(location)) {
+                return Files.size(location) + "-" + Files.getLastModifiedTime(location).toMillis();
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // Fall through to "unknown"
+        }
+        return "unknown";
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = BuildInfo.class.getResourceAsStream("/lilcurio.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            // Fall back to "unknown"; only cache keys depend on these values
+        }
+        return properties;
+    }
+}
@@ -1,8 +1,14 @@
 package dev.lilcurio;
 
+import dev.lilcurio.command.AuditCommand;
 import dev.lilcurio.command.CompatibilityCommand;
+import dev.lilcurio.command.DaemonCommand;
 import dev.lilcurio.command.DiffCommand;
+import dev.lilcurio.command.MergeReportsCommand;
+import dev.lilcurio.command.PipeCommand;
 import dev.lilcurio.command.ValidateCommand;
+import dev.lilcurio.command.ValidateDataCommand;
+import dev.lilcurio.daemon.DaemonClient;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 
@@ -14,8 +20,13 @@ import picocli.CommandLine.Command;
                 "using Apicurio Registry internals.",
         subcommands = {
                 ValidateCommand.class,
+                ValidateDataCommand.class,
                 CompatibilityCommand.class,
-                DiffCommand.class
+                DiffCommand.class,
+                AuditCommand.class,
+                PipeCommand.class,
+                MergeReportsCommand.class,
+                DaemonCommand.class
         }
 )
 public class LilCurio implements Runnable {
@@ -25,10 +36,16 @@ public class LilCurio implements Runnable {
         CommandLine.usage(this, System.out);
     }
 
+    public static CommandLine commandLine() {
+        return new CommandLine(new LilCurio())
+                .setExitCodeExceptionMapper(exception -> 2);
+    }
+
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new LilCurio())
-                .setExitCodeExceptionMapper(exception -> 2)
-                .execute(args);
+        Integer exitCode = DaemonClient.tryForward(args, commandLine(), System.out, System.err);
+        if (exitCode == null) {
+            exitCode = commandLine().execute(args);
+        }
         System.exit(exitCode);
     }
 }
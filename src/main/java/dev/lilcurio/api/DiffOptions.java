@@ -0,0 +1,49 @@
+package dev.lilcurio.api;
+
+/**
+ * What a {@link GitDiff} compares schema files with.
+ *
+ * @param ref          the git ref holding the versions to compare with, e.g. {@code HEAD}
+ * @param history      with a transitive level, compare with the last {@code history} committed versions
+ *                     of each file up to {@code ref}; null if not
+ * @param since        with a transitive level, compare with every committed version of each file from
+ *                     {@code since} up to {@code ref}; null if not
+ * @param changedSince check the files changed in {@code changedSince...HEAD}, each against its version
+ *                     at {@code changedSince} rather than at {@code ref}; null if not
+ * @param failFast     with {@code history} or {@code since}, stop at the first incompatible version
+ */
+public record DiffOptions(String ref, Integer history, String since, String changedSince, boolean failFast) {
+
+    public DiffOptions {
+        if (ref == null) {
+            throw new IllegalArgumentException("Missing git ref");
+        }
+        if (history != null && since != null) {
+            throw new IllegalArgumentException("--history and --since cannot be combined");
+        }
+        if (history != null && history < 1) {
+            throw new IllegalArgumentException("--history must be at least 1");
+        }
+        if (changedSince != null && (history != null || since != null)) {
+            throw new IllegalArgumentException("--changed-since cannot be combined with --history or --since");
+        }
+    }
+
+    /**
+     * Compares each file with its version at {@code ref}.
+     */
+    public static DiffOptions against(String ref) {
+        return new DiffOptions(ref, null, null, null, false);
+    }
+
+    /**
+     * The ref the compared versions are read at, or end at.
+     */
+    public String baseRef() {
+        return changedSince != null ? changedSince : ref;
+    }
+
+    boolean comparesHistory() {
+        return history != null || since != null;
+    }
+}
@@ -0,0 +1,386 @@
+package dev.lilcurio.api;
+
+import dev.lilcurio.cache.CacheKey;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CompatibilityLevels;
+import dev.lilcurio.check.TransitiveCompatibility;
+import dev.lilcurio.git.GitChanges;
+import dev.lilcurio.git.GitChanges.Change;
+import dev.lilcurio.git.GitHistory;
+import dev.lilcurio.git.GitHistory.Revision;
+import dev.lilcurio.git.GitObjectReader;
+import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.Phase;
+import dev.lilcurio.refs.ReferenceSource;
+import dev.lilcurio.schema.SchemaFingerprint;
+import dev.lilcurio.schema.SchemaSupport;
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compatibility checks of schema files against their committed versions, read through a single
+ * {@code git cat-file} process for all of them. Thread-safe; {@link #close()} stops the process.
+ */
+public final class GitDiff implements AutoCloseable {
+
+    private final SchemaChecker checker;
+    private final DiffOptions options;
+    private final GitObjectReader git;
+
+    /**
+     * With {@link DiffOptions#changedSince()}, the repo-relative path of each changed file at the base
+     * ref, or null if added, as of the last {@link #changedFiles(List)}.
+     */
+    private volatile Map<Path, String> basePaths;
+
+    /**
+     * Once pinned, the commit the base ref pointed to, and what was read from git at it.
+     */
+    private volatile String baseCommit;
+    private final Map<String, byte[]> committed = new ConcurrentHashMap<>();
+    private final Map<Path, List<Revision>> histories = new ConcurrentHashMap<>();
+
+    GitDiff(SchemaChecker checker, Path location, DiffOptions options) throws IOException, InterruptedException {
+        this.checker = checker;
+        this.options = options;
+        Path absolute = location.toAbsolutePath();
+        this.git = GitObjectReader.open(Files.isDirectory(absolute) ? absolute : absolute.getParent());
+    }
+
+    public DiffOptions options() {
+        return options;
+    }
+
+    /**
+     * Lists the schema files changed since {@link DiffOptions#changedSince()} under {@code roots}, and
+     * remembers their paths at that ref for the checks that follow. Files are reported relative to the
+     * working directory when they are below it.
+     */
+    public List<Path> changedFiles(List<String> roots) throws IOException, InterruptedException {
+        if (options.changedSince() == null) {
+            throw new IllegalStateException("No changedSince ref to list changes since");
+        }
+        List<String> pathspecs = new ArrayList<>();
+        for (String root : roots) {
+            String relative = git.relativize(Path.of(root));
+            pathspecs.add(relative.isEmpty() ? "." : relative);
+        }
+
+        String extension = checker.type().getFileExtension();
+        Path cwd = Path.of("").toAbsolutePath().toRealPath();
+        Map<Path, String> changed = new LinkedHashMap<>();
+        for (Change change : GitChanges.since(git.getRepoRoot(), options.changedSince(), pathspecs)) {
+            if (!change.path().endsWith(extension)) {
+                continue;
+            }
+            Path file = git.getRepoRoot().resolve(change.path());
+            changed.put(file.startsWith(cwd) ? cwd.relativize(file) : file, change.previousPath());
+        }
+        basePaths = changed;
+        return new ArrayList<>(changed.keySet());
+    }
+
+    /**
+     * Pins the base ref to the commit it points to now. Committed versions read at a commit never
+     * change, so they are kept until a later call finds the ref moved. Without pinning, each check
+     * reads the ref afresh.
+     *
+     * @return the commit the base ref points to
+     */
+    public String pinBase() throws IOException {
+        String ref = options.baseRef();
+        String commit = git.resolve(ref + "^{commit}");
+        if (commit == null) {
+            throw new IOException("Cannot resolve " + ref + " to a commit");
+        }
+        if (!commit.equals(baseCommit)) {
+            committed.clear();
+            histories.clear();
+            baseCommit = commit;
+        }
+        return commit;
+    }
+
+    /**
+     * Checks each of {@code files} concurrently, returning the results of each at every level, in order.
+     */
+    public List<CheckResult> check(List<Path> files, List<CompatibilityLevel> levels) throws InterruptedException {
+        List<CheckResult> results = BatchExecutor.map(files, checker.parallelism(),
+                file -> check(file, levels, Metrics.disabled())).stream().flatMap(List::stream).toList();
+        checker.cache().evict();
+        return results;
+    }
+
+    /**
+     * Checks {@code schemaFile} at each of {@code levels}, reading and resolving it and the versions
+     * it is compared with once for all of them. Failures are reported as error results.
+     */
+    public List<CheckResult> check(Path schemaFile, List<CompatibilityLevel> levels, Metrics metrics) {
+        SchemaSupport support = checker.support();
+        try {
+            String contentType = support.getContentType();
+            TypedContent proposed;
+            try (Metrics.Span span = metrics.span(Phase.READ, schemaFile)) {
+                proposed = SchemaFileReader.read(schemaFile, contentType, checker.limits());
+                span.schemaBytes(proposed.getContent().bytes().length);
+            }
+            // One reference map serves all versions: the working tree's, completed with references that
+            // exist only in the compared version, as of the base ref or of each commit in the history
+            Map<String, TypedContent> references;
+            try (Metrics.Span span = metrics.span(Phase.RESOLVE, schemaFile)) {
+                references = checker.resolver().resolve(ReferenceSource.files(), schemaFile.toString(), proposed);
+            }
+
+            // Resolve what to compare against first, so the cache can be consulted before any check runs
+            Compared compared = new Compared(schemaFile, proposed, references);
+            String baseRef = options.baseRef();
+            String base = baseCommit != null ? baseCommit : baseRef;
+            if (!options.comparesHistory()) {
+                Map<Path, String> changed = basePaths;
+                String basePath = options.changedSince() != null && changed != null && changed.containsKey(schemaFile)
+                        ? changed.get(schemaFile) : git.relativize(schemaFile);
+                if (basePath == null) {
+                    // Added since the base ref: there is no earlier version to be incompatible with
+                    return levels.stream().map(level -> CheckResult.compatibilitySuccess(schemaFile, level))
+                            .toList();
+                }
+                byte[] previousContent;
+                try (Metrics.Span span = metrics.span(Phase.GIT, schemaFile)) {
+                    previousContent = readCommitted(base + ":" + basePath);
+                }
+                if (previousContent == null) {
+                    throw new IOException("File not found in git at " + baseRef + ":" + basePath
+                            + ". Is this file tracked by git?");
+                }
+                compared.existing = TypedContent.create(ContentHandle.create(previousContent), contentType);
+                checker.limits().checkContent(compared.existing);
+                try (Metrics.Span span = metrics.span(Phase.RESOLVE, schemaFile)) {
+                    checker.resolver().resolveMissing(ReferenceSource.git(git, base), basePath, compared.existing,
+                            references);
+                }
+            } else {
+                boolean transitive = levels.stream().anyMatch(TransitiveCompatibility::isTransitive);
+                try (Metrics.Span span = metrics.span(Phase.GIT, schemaFile)) {
+                    List<Revision> revisions = baseCommit != null ? histories.get(schemaFile) : null;
+                    if (revisions == null) {
+                        revisions = committedRevisions(schemaFile, transitive);
+                        if (baseCommit != null) {
+                            histories.put(schemaFile, revisions);
+                        }
+                    }
+                    compared.revisions = revisions;
+                }
+                // Versions read for one level are kept for the next, instead of being read from git again
+                if (levels.size() > 1) {
+                    compared.versions = new TypedContent[compared.revisions.size()];
+                }
+            }
+            compared.fingerprints = new OptionalLong[(compared.existing != null ? 1 : compared.revisions.size()) + 1];
+
+            return CompatibilityLevels.check(levels, CompatibilityLevels.derivesFull(support.getCompatibilityChecker()),
+                    level -> {
+                        try {
+                            return check(compared, level, metrics);
+                        } catch (Exception e) {
+                            return CheckResult.error(CheckResult.COMPATIBILITY, schemaFile, level.toString(), e);
+                        }
+                    });
+        } catch (Exception e) {
+            return levels.stream()
+                    .map(level -> CheckResult.error(CheckResult.COMPATIBILITY, schemaFile, level.toString(), e))
+                    .toList();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        git.close();
+    }
+
+    /**
+     * What a schema file is compared with: its version at the base ref, or its committed history
+     * (newest first, for the most transitive level asked for), along with what is known about each.
+     */
+    private static final class Compared {
+        final Path schemaFile;
+        final TypedContent proposed;
+        final Map<String, TypedContent> references;
+        TypedContent existing;
+        List<Revision> revisions;
+        /**
+         * With several levels, the committed versions read so far, or null where not read yet.
+         */
+        TypedContent[] versions;
+        /**
+         * The fingerprints of the versions compared with and, last, of the proposed one, as far as known.
+         */
+        OptionalLong[] fingerprints;
+
+        Compared(Path schemaFile, TypedContent proposed, Map<String, TypedContent> references) {
+            this.schemaFile = schemaFile;
+            this.proposed = proposed;
+            this.references = references;
+        }
+    }
+
+    private CheckResult check(Compared compared, CompatibilityLevel level, Metrics metrics) throws Exception {
+        Path schemaFile = compared.schemaFile;
+        if (compared.existing != null) {
+            return checker.compatibility(schemaFile, List.of(compared.existing), List.of(options.baseRef()),
+                    compared.proposed, compared.references, level, options.failFast(), compared.fingerprints, metrics);
+        }
+
+        // Non-transitive levels only compare against the newest version
+        List<Revision> revisions = TransitiveCompatibility.isTransitive(level)
+                ? compared.revisions : compared.revisions.subList(0, 1);
+        return checker.cached(schemaFile, CheckResult.COMPATIBILITY, level.toString(), metrics, () -> {
+            CacheKey key = checker.compatibilityKey(level, options.failFast());
+            // Blob ids are git's own content hashes, and commits fix the references resolved at them,
+            // so the history need not be read to build the key
+            for (Revision revision : revisions) {
+                key.add(revision.blob()).add(revision.commit());
+            }
+            return key.add(compared.proposed.getContent().bytes()).add(compared.references);
+        }, () -> {
+            // Versions equivalent to the proposed schema are trivially compatible and skipped
+            OptionalLong proposedFingerprint = OptionalLong.empty();
+            if (level != CompatibilityLevel.NONE) {
+                try (Metrics.Span span = metrics.span(Phase.FINGERPRINT, schemaFile)) {
+                    proposedFingerprint = checker.fingerprint(compared.fingerprints, compared.revisions.size(),
+                            compared.proposed);
+                }
+            }
+            List<String> skipped = new ArrayList<>();
+            // Completed as each version is loaded, without changing the map the next level starts from
+            Map<String, TypedContent> references = new LinkedHashMap<>(compared.references);
+            CompatibilityExecutionResult result;
+            try (Metrics.Span span = metrics.span(Phase.CHECK, schemaFile)) {
+                result = TransitiveCompatibility.test(checker.compatibilityChecker(), level,
+                        loadVersions(compared, revisions, proposedFingerprint, references, skipped, metrics),
+                        compared.proposed, references, options.failFast());
+            }
+            return SchemaChecker.compatibilityResult(schemaFile, level, result, skipped);
+        });
+    }
+
+    /**
+     * Reads a committed object, through the cache once the base is pinned.
+     */
+    private byte[] readCommitted(String spec) throws IOException {
+        if (baseCommit == null) {
+            return git.readObject(spec);
+        }
+        byte[] content = committed.get(spec);
+        if (content == null) {
+            content = git.readObject(spec);
+            if (content != null) {
+                committed.put(spec, content);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Lists the committed versions to check against, newest first.
+     */
+    private List<Revision> committedRevisions(Path schemaFile, boolean transitive)
+            throws IOException, InterruptedException {
+        String path = git.relativize(schemaFile);
+        String since = options.since();
+        String range = since != null ? since + ".." + options.ref() : options.ref();
+        List<Revision> revisions = new ArrayList<>(GitHistory.log(git.getRepoRoot(), path, range,
+                options.history() != null ? options.history() : 0));
+        if (since != null) {
+            // The version as of <since> is the last change at or before it, under its name at that time
+            String pathAtSince = revisions.isEmpty() ? path : revisions.get(revisions.size() - 1).previousPath();
+            for (Revision baseline : GitHistory.log(git.getRepoRoot(), pathAtSince, since, 1)) {
+                if (revisions.stream().noneMatch(r -> r.blob().equals(baseline.blob()))) {
+                    revisions.add(baseline);
+                }
+            }
+        }
+
+        if (revisions.isEmpty()) {
+            throw new IOException("No committed history in git at " + range + " for " + schemaFile
+                    + ". Is this file tracked by git?");
+        }
+        // Non-transitive levels only compare against the newest version
+        return transitive ? revisions : revisions.subList(0, 1);
+    }
+
+    /**
+     * Lazily loads committed versions. Only the revision list is held in memory; each version's
+     * content is read from git when the stream reaches it, unless it was kept from an earlier level.
+     * Versions equivalent to the proposed schema are dropped from the stream and their commits
+     * recorded in {@code skipped}. The others have their references resolved as of their own commit,
+     * adding those missing from {@code references}. A version that cannot be read fails the stream.
+     */
+    private Stream<TypedContent> loadVersions(Compared compared, List<Revision> revisions,
+                                              OptionalLong proposedFingerprint, Map<String, TypedContent> references,
+                                              List<String> skipped, Metrics metrics) {
+        Path schemaFile = compared.schemaFile;
+        SchemaSupport support = checker.support();
+        return IntStream.range(0, revisions.size())
+                .mapToObj(i -> {
+                    Revision revision = revisions.get(i);
+                    TypedContent version = compared.versions != null ? compared.versions[i] : null;
+                    if (version == null) {
+                        byte[] content;
+                        try (Metrics.Span span = metrics.span(Phase.GIT, schemaFile)) {
+                            content = readCommitted(revision.blob());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e.getMessage(), e);
+                        }
+                        if (content == null) {
+                            String message = "Cannot read " + revision.path() + " at commit "
+                                    + shortCommit(revision) + " (blob " + revision.blob() + ") from git";
+                            throw new UncheckedIOException(message, new IOException(message));
+                        }
+                        version = TypedContent.create(ContentHandle.create(content), support.getContentType());
+                        checker.limits().checkContent(version);
+                        if (compared.versions != null) {
+                            compared.versions[i] = version;
+                        }
+                    }
+                    boolean equivalent;
+                    try (Metrics.Span span = metrics.span(Phase.FINGERPRINT, schemaFile)) {
+                        equivalent = SchemaFingerprint.equivalent(proposedFingerprint,
+                                checker.fingerprint(compared.fingerprints, i, version));
+                    }
+                    if (equivalent) {
+                        skipped.add(shortCommit(revision));
+                        return null;
+                    }
+                    try (Metrics.Span span = metrics.span(Phase.RESOLVE, schemaFile)) {
+                        checker.resolver().resolveMissing(ReferenceSource.git(git, revision.commit()), revision.path(),
+                                version, references);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("At commit " + shortCommit(revision) + ": " + e.getMessage(), e);
+                    }
+                    return version;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    private static String shortCommit(Revision revision) {
+        return revision.commit().substring(0, Math.min(12, revision.commit().length()));
+    }
+}
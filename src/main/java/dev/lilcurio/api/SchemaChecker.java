@@ -0,0 +1,510 @@
+package dev.lilcurio.api;
+
+import dev.lilcurio.cache.CacheKey;
+import dev.lilcurio.cache.ResultCache;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckLimits;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.check.CompatibilityLevels;
+import dev.lilcurio.check.CompatibilityMatrix;
+import dev.lilcurio.check.LimitExceededException;
+import dev.lilcurio.check.TransitiveCompatibility;
+import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.Phase;
+import dev.lilcurio.refs.ReferenceCache;
+import dev.lilcurio.refs.ReferenceResolver;
+import dev.lilcurio.refs.ReferenceSource;
+import dev.lilcurio.schema.RecordValidator;
+import dev.lilcurio.schema.SchemaFingerprint;
+import dev.lilcurio.schema.SchemaSupport;
+import dev.lilcurio.schema.SchemaType;
+import dev.lilcurio.schema.SchemaTypeRegistry;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.validity.ContentValidator;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolationException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Validity and compatibility checks of schema files of one type, run in-process and returned as
+ * {@link CheckResult}s rather than printed. This is what the {@code validate}, {@code compatibility}
+ * and {@code diff} commands run, and what build tools embed instead of starting the CLI per file.
+ * Schemas that are not files, as in the {@code pipe} and {@code audit} commands, are checked through
+ * the overloads that take their content.
+ * <p>
+ * A checker is thread-safe and meant to be shared: files referenced by several schemas are read
+ * once for all of them, and parsed schemas are shared through the type's {@link SchemaSupport}.
+ * Checks failing on a schema produce a result with the {@link CheckStatus#ERROR} or
+ * {@link CheckStatus#LIMIT} status rather than an exception.
+ */
+public final class SchemaChecker {
+
+    private final SchemaType type;
+    private final SchemaSupport support;
+    private final CheckLimits limits;
+    private final ResultCache cache;
+    private final int parallelism;
+    private final ReferenceResolver resolver;
+    private final ContentValidator validator;
+    private final CompatibilityChecker checker;
+
+    /**
+     * @param limits      bounds on each schema read and each check
+     * @param cache       where to look up and store results; {@link ResultCache#disabled()} for none
+     * @param parallelism files, or existing versions of a transitive check, checked concurrently;
+     *                    1 or less checks them one at a time
+     */
+    public SchemaChecker(SchemaType type, CheckLimits limits, ResultCache cache, int parallelism) {
+        this.type = type;
+        this.support = SchemaTypeRegistry.get(type);
+        this.limits = limits;
+        this.cache = cache;
+        this.parallelism = Math.max(1, parallelism);
+        this.resolver = new ReferenceResolver(support, new ReferenceCache(ReferenceCache.DEFAULT_MAX_BYTES));
+        this.validator = limits.guard(support.getContentValidator());
+        this.checker = limits.guard(support.getCompatibilityChecker());
+    }
+
+    /**
+     * A checker with the default limits, no result cache, and one thread per available processor.
+     */
+    public static SchemaChecker of(SchemaType type) {
+        return new SchemaChecker(type, CheckLimits.defaults(), ResultCache.disabled(), BatchExecutor.defaultParallelism());
+    }
+
+    public SchemaType type() {
+        return type;
+    }
+
+    public SchemaSupport support() {
+        return support;
+    }
+
+    public ReferenceResolver resolver() {
+        return resolver;
+    }
+
+    public CheckLimits limits() {
+        return limits;
+    }
+
+    public ResultCache cache() {
+        return cache;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The type's compatibility checker, bounded by the limits.
+     */
+    CompatibilityChecker compatibilityChecker() {
+        return checker;
+    }
+
+    /**
+     * Validates each of {@code files} concurrently, returning their results in the same order.
+     */
+    public List<CheckResult> validate(List<Path> files, ValidityLevel level) throws InterruptedException {
+        List<CheckResult> results = BatchExecutor.map(files, parallelism, file -> validate(file, level, Metrics.disabled()));
+        cache.evict();
+        return results;
+    }
+
+    public CheckResult validate(Path file, ValidityLevel level) {
+        return validate(file, level, Metrics.disabled());
+    }
+
+    /**
+     * Validates {@code file}, with its references resolved from its directory.
+     */
+    public CheckResult validate(Path file, ValidityLevel level, Metrics metrics) {
+        try {
+            TypedContent content = read(file, metrics);
+            Map<String, TypedContent> references;
+            try (Metrics.Span span = metrics.span(Phase.RESOLVE, file)) {
+                references = resolver.resolve(ReferenceSource.files(), file.toString(), content);
+            }
+            return validate(file, content, references, level, metrics);
+        } catch (Exception e) {
+            return CheckResult.error(CheckResult.VALIDATE, file, level.toString(), e);
+        }
+    }
+
+    /**
+     * Validates a schema that is not read from a file, e.g. one sent inline or read from a registry
+     * export, with its references already resolved; {@code file} names it in the result. Unlike the
+     * file-based checks, this throws when the check cannot run, e.g. {@link LimitExceededException}.
+     */
+    public CheckResult validate(Path file, TypedContent content, Map<String, TypedContent> references,
+                                ValidityLevel level, Metrics metrics) {
+        return cached(file, CheckResult.VALIDATE, level.toString(), metrics,
+                () -> CacheKey.of(CheckResult.VALIDATE, type.getCliName(), level.toString())
+                        .add(content.getContent().bytes())
+                        .add(references),
+                () -> {
+                    try (Metrics.Span span = metrics.span(Phase.CHECK, file)) {
+                        validator.validate(level, content, references);
+                        return CheckResult.validationSuccess(file, level);
+                    } catch (RuleViolationException e) {
+                        return CheckResult.validationFailure(file, level, e);
+                    }
+                });
+    }
+
+    public List<CheckResult> compatibility(List<Path> versions, List<CompatibilityLevel> levels) throws IOException {
+        return compatibility(versions, levels, false, Metrics.disabled());
+    }
+
+    /**
+     * Checks the last of {@code versions}, the proposed one, against the others, oldest first, at each
+     * of {@code levels}. The versions are read and their references resolved once for all levels.
+     * With {@code failFast}, transitive levels stop at the first incompatible version and report only
+     * the differences found up to it.
+     *
+     * @return one result per level, in the order of {@code levels}
+     * @throws IOException if a version cannot be read or a reference cannot be resolved
+     */
+    public List<CheckResult> compatibility(List<Path> versions, List<CompatibilityLevel> levels, boolean failFast,
+                                           Metrics metrics) throws IOException {
+        if (versions.size() < 2) {
+            throw new IllegalArgumentException("At least two versions are needed: <existing...> <proposed>");
+        }
+        Path proposedPath = versions.get(versions.size() - 1);
+        Versions loaded;
+        try {
+            loaded = load(versions, metrics);
+        } catch (LimitExceededException e) {
+            return levels.stream()
+                    .map(level -> CheckResult.error(CheckResult.COMPATIBILITY, proposedPath, level.toString(), e))
+                    .toList();
+        }
+        List<String> names = versions.subList(0, versions.size() - 1).stream().map(Path::toString).toList();
+        OptionalLong[] fingerprints = new OptionalLong[versions.size()];
+        List<CheckResult> results;
+        try {
+            results = CompatibilityLevels.check(levels, CompatibilityLevels.derivesFull(support.getCompatibilityChecker()),
+                    level -> {
+                        try {
+                            return compatibility(proposedPath, loaded.existing(), names, loaded.proposed(),
+                                    loaded.references(), level, failFast, fingerprints, metrics);
+                        } catch (LimitExceededException e) {
+                            return CheckResult.error(CheckResult.COMPATIBILITY, proposedPath, level.toString(), e);
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        try (Metrics.Span span = metrics.span(Phase.CACHE, proposedPath)) {
+            cache.evict();
+        }
+        return results;
+    }
+
+    /**
+     * Checks schemas that are not read from files, e.g. sent inline or read from a registry export:
+     * {@code proposed} against {@code existing}, oldest first, at {@code level}, with the references
+     * of all of them already resolved. {@code file} names the proposed schema in the result and
+     * {@code names} the existing versions among its skipped ones. Unlike the file-based checks, this
+     * throws when the check cannot run, e.g. {@link LimitExceededException}.
+     */
+    public CheckResult compatibility(Path file, List<TypedContent> existing, List<String> names, TypedContent proposed,
+                                     Map<String, TypedContent> references, CompatibilityLevel level, Metrics metrics)
+            throws InterruptedException {
+        return compatibility(file, existing, names, proposed, references, level, false,
+                new OptionalLong[existing.size() + 1], metrics);
+    }
+
+    /**
+     * The compatibility check behind all others. {@code fingerprints} holds those of the existing
+     * versions and, last, of the proposed one, as far as known, and is filled in for the next level.
+     */
+    CheckResult compatibility(Path file, List<TypedContent> existing, List<String> names, TypedContent proposed,
+                              Map<String, TypedContent> references, CompatibilityLevel level, boolean failFast,
+                              OptionalLong[] fingerprints, Metrics metrics) throws InterruptedException {
+        return cached(file, CheckResult.COMPATIBILITY, level.toString(), metrics, () -> {
+            CacheKey key = compatibilityKey(level, failFast);
+            for (TypedContent version : existing) {
+                key.add(version.getContent().bytes());
+            }
+            return key.add(proposed.getContent().bytes()).add(references);
+        }, () -> {
+            // Versions equivalent to the proposed schema are trivially compatible with it. Non-transitive
+            // levels only ever look at the latest version, so only that one is checked, or skipped.
+            List<TypedContent> toCheck = new ArrayList<>(existing);
+            List<String> skipped = new ArrayList<>();
+            if (level != CompatibilityLevel.NONE) {
+                try (Metrics.Span span = metrics.span(Phase.FINGERPRINT, file)) {
+                    OptionalLong proposedFingerprint = fingerprint(fingerprints, existing.size(), proposed);
+                    int first = TransitiveCompatibility.isTransitive(level) ? 0 : existing.size() - 1;
+                    toCheck = new ArrayList<>();
+                    for (int i = first; i < existing.size(); i++) {
+                        if (SchemaFingerprint.equivalent(proposedFingerprint, fingerprint(fingerprints, i, existing.get(i)))) {
+                            skipped.add(names.get(i));
+                        } else {
+                            toCheck.add(existing.get(i));
+                        }
+                    }
+                }
+            }
+
+            CompatibilityExecutionResult result;
+            try (Metrics.Span span = metrics.span(Phase.CHECK, file)) {
+                if (toCheck.isEmpty()) {
+                    result = CompatibilityExecutionResult.compatible();
+                } else if (TransitiveCompatibility.isTransitive(level) && (parallelism > 1 || failFast)) {
+                    result = TransitiveCompatibility.testParallel(checker, level, toCheck, proposed,
+                            references, parallelism, failFast);
+                } else {
+                    result = checker.testCompatibility(level, toCheck, proposed, references);
+                }
+            }
+            return compatibilityResult(file, level, result, skipped);
+        });
+    }
+
+    /**
+     * The pairwise compatibility of {@code versions}, oldest first, whose last element is the proposed
+     * version; with {@code allPairs}, of every version with every other. Each cell comes from one
+     * directional BACKWARD check per pair, looked up in and stored to the result cache under the same
+     * key a two-file BACKWARD check of that pair uses.
+     *
+     * @throws IOException if a version cannot be read or a reference cannot be resolved
+     */
+    public CompatibilityMatrix matrix(List<Path> versions, CompatibilityLevel level, boolean allPairs, Metrics metrics)
+            throws IOException, InterruptedException {
+        Versions loaded = load(versions, metrics);
+        List<TypedContent> contents = loaded.all();
+        Map<String, TypedContent> references = loaded.references();
+
+        List<OptionalLong> fingerprints = new ArrayList<>();
+        try (Metrics.Span span = metrics.span(Phase.FINGERPRINT)) {
+            for (TypedContent content : contents) {
+                fingerprints.add(SchemaFingerprint.of(support, content));
+            }
+        }
+
+        CompatibilityMatrix result;
+        try (Metrics.Span span = metrics.span(Phase.CHECK)) {
+            List<String> names = versions.stream().map(Path::toString).toList();
+            result = CompatibilityMatrix.compute(names, contents, allPairs, level, parallelism, (reader, writer) -> {
+                // Equivalent versions can always read each other
+                if (SchemaFingerprint.equivalent(fingerprints.get(reader), fingerprints.get(writer))) {
+                    return true;
+                }
+                Path file = versions.get(reader);
+                CheckResult pair = cached(file, CheckResult.COMPATIBILITY, CompatibilityLevel.BACKWARD.toString(),
+                        Metrics.disabled(),
+                        () -> compatibilityKey(CompatibilityLevel.BACKWARD, false)
+                                .add(contents.get(writer).getContent().bytes())
+                                .add(contents.get(reader).getContent().bytes())
+                                .add(references),
+                        () -> compatibilityResult(file, CompatibilityLevel.BACKWARD,
+                                checker.testCompatibility(CompatibilityLevel.BACKWARD,
+                                        List.of(contents.get(writer)), contents.get(reader), references),
+                                List.of()));
+                return pair.status() == CheckStatus.PASS;
+            });
+        }
+        try (Metrics.Span span = metrics.span(Phase.CACHE)) {
+            cache.evict();
+        }
+        return result;
+    }
+
+    /**
+     * Checks schema files against their committed versions in the git repository that holds
+     * {@code location}. Close the returned diff to stop its git process.
+     */
+    public GitDiff diff(Path location, DiffOptions options) throws IOException, InterruptedException {
+        return new GitDiff(this, location, options);
+    }
+
+    /**
+     * Compiles the schema in {@code file}, with the files it references, for checking data records
+     * against it. Compile once and share the validator between threads.
+     *
+     * @throws IOException                   if {@code file} or a referenced file cannot be read
+     * @throws UnsupportedOperationException if records of this checker's type cannot be checked
+     */
+    public RecordValidator recordValidator(Path file) throws IOException {
+        TypedContent content = SchemaFileReader.read(file, support.getContentType(), limits);
+        Map<String, TypedContent> documents = resolver.documents(ReferenceSource.files(), file.toString(), content);
+        return support.recordValidator(file.toString(), content, documents);
+    }
+
+    /**
+     * {@code file} and every file it references, directly or indirectly, e.g. to tell whether a
+     * check's inputs changed since it last ran.
+     *
+     * @throws IOException if {@code file} or a referenced file cannot be read
+     */
+    public Set<Path> inputs(Path file) throws IOException {
+        TypedContent content = SchemaFileReader.read(file, support.getContentType(), limits);
+        Set<Path> inputs = new LinkedHashSet<>();
+        inputs.add(file);
+        for (String location : resolver.locations(ReferenceSource.files(), file.toString(), content)) {
+            inputs.add(Path.of(location));
+        }
+        return inputs;
+    }
+
+    /**
+     * The versions to check, with the one reference map Apicurio takes for all of them: the proposed
+     * schema's references, completed with those only older versions make.
+     */
+    private record Versions(List<TypedContent> existing, TypedContent proposed, Map<String, TypedContent> references) {
+
+        List<TypedContent> all() {
+            List<TypedContent> all = new ArrayList<>(existing);
+            all.add(proposed);
+            return all;
+        }
+    }
+
+    private Versions load(List<Path> versions, Metrics metrics) throws IOException {
+        Path proposedPath = versions.get(versions.size() - 1);
+        TypedContent proposed = read(proposedPath, metrics);
+
+        List<TypedContent> existing = new ArrayList<>();
+        for (int i = 0; i < versions.size() - 1; i++) {
+            existing.add(read(versions.get(i), metrics));
+        }
+
+        Map<String, TypedContent> references;
+        try (Metrics.Span span = metrics.span(Phase.RESOLVE, proposedPath)) {
+            ReferenceSource files = ReferenceSource.files();
+            references = resolver.resolve(files, proposedPath.toString(), proposed);
+            for (int i = 0; i < existing.size(); i++) {
+                resolver.resolveMissing(files, versions.get(i).toString(), existing.get(i), references);
+            }
+        }
+        return new Versions(existing, proposed, references);
+    }
+
+    private TypedContent read(Path file, Metrics metrics) throws IOException {
+        try (Metrics.Span span = metrics.span(Phase.READ, file)) {
+            TypedContent content = SchemaFileReader.read(file, support.getContentType(), limits);
+            span.schemaBytes(content.getContent().bytes().length);
+            return content;
+        }
+    }
+
+    /**
+     * A check whose result is cached, e.g. one compatibility level of one schema.
+     */
+    @FunctionalInterface
+    interface Check<E extends Exception> {
+        CheckResult run() throws E;
+    }
+
+    /**
+     * The result cached under {@code key}, or else that of {@code check}, cached for next time. The
+     * key is built, and the cache read and written, in the {@link Phase#CACHE} phase.
+     */
+    <E extends Exception> CheckResult cached(Path file, String command, String level, Metrics metrics,
+                                             Supplier<CacheKey> key, Check<E> check) throws E {
+        String hash;
+        try (Metrics.Span span = metrics.span(Phase.CACHE, file)) {
+            hash = key.get().hash();
+            CheckResult cached = cache.get(hash, command, file, level);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        CheckResult result = check.run();
+        try (Metrics.Span span = metrics.span(Phase.CACHE, file)) {
+            cache.put(hash, result);
+        }
+        return result;
+    }
+
+    /**
+     * The start of the cache key of a compatibility check, to which the versions checked are added.
+     */
+    CacheKey compatibilityKey(CompatibilityLevel level, boolean failFast) {
+        CacheKey key = CacheKey.of(CheckResult.COMPATIBILITY, type.getCliName(), level.toString());
+        // Fail-fast results may hold only some of the differences, so they are cached separately
+        return failFast ? key.add("fail-fast") : key;
+    }
+
+    /**
+     * The fingerprint of {@code content}, kept in {@code fingerprints[index]} for the levels checked next.
+     */
+    OptionalLong fingerprint(OptionalLong[] fingerprints, int index, TypedContent content) {
+        if (fingerprints[index] == null) {
+            fingerprints[index] = SchemaFingerprint.of(support, content);
+        }
+        return fingerprints[index];
+    }
+
+    static CheckResult compatibilityResult(Path file, CompatibilityLevel level, CompatibilityExecutionResult result,
+                                           List<String> skipped) {
+        return (result.isCompatible()
+                ? CheckResult.compatibilitySuccess(file, level)
+                : CheckResult.compatibilityFailure(file, level, result.getIncompatibleDifferences()))
+                .withSkipped(skipped);
+    }
+
+    public static ValidityLevel parseValidityLevel(String level) {
+        return switch (level.toLowerCase().replace("-", "_")) {
+            case "none" -> ValidityLevel.NONE;
+            case "syntax_only", "syntax" -> ValidityLevel.SYNTAX_ONLY;
+            case "full" -> ValidityLevel.FULL;
+            default -> throw new IllegalArgumentException(
+                    "Invalid validity level: " + level
+                            + ". Valid: none, syntax_only, full");
+        };
+    }
+
+    public static CompatibilityLevel parseCompatibilityLevel(String level) {
+        return switch (level.trim().toLowerCase().replace("-", "_")) {
+            case "backward" -> CompatibilityLevel.BACKWARD;
+            case "backward_transitive" -> CompatibilityLevel.BACKWARD_TRANSITIVE;
+            case "forward" -> CompatibilityLevel.FORWARD;
+            case "forward_transitive" -> CompatibilityLevel.FORWARD_TRANSITIVE;
+            case "full" -> CompatibilityLevel.FULL;
+            case "full_transitive" -> CompatibilityLevel.FULL_TRANSITIVE;
+            case "none" -> CompatibilityLevel.NONE;
+            default -> throw new IllegalArgumentException(
+                    "Invalid compatibility level: " + level
+                            + ". Valid: backward, backward-transitive, forward, forward-transitive, full, full-transitive, none");
+        };
+    }
+
+    /**
+     * Parses a comma-separated list of levels, in the order given and without repeats.
+     */
+    public static List<CompatibilityLevel> parseCompatibilityLevels(String levels) {
+        Set<CompatibilityLevel> parsed = new LinkedHashSet<>();
+        for (String level : levels.split(",")) {
+            if (!level.isBlank()) {
+                parsed.add(parseCompatibilityLevel(level));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Missing compatibility level");
+        }
+        return List.copyOf(parsed);
+    }
+}
@@ -0,0 +1,240 @@
+package dev.lilcurio.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of an Apicurio Registry export zip. Opening it parses only the small JSON entity entries
+ * (artifacts, versions, content metadata and rules); schema contents stay compressed in the archive
+ * and are read on demand, so an export is never extracted and only the artifacts being checked are
+ * held in memory. Entities are recognized by the {@code .<EntityType>.json} suffix of their entry name,
+ * which holds for both 2.x and 3.x exports. Safe to read from several threads.
+ */
+public class RegistryExport implements Closeable {
+
+    public static final String VALIDITY = "VALIDITY";
+    public static final String COMPATIBILITY = "COMPATIBILITY";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String DEFAULT_GROUP = "default";
+
+    public record Version(String version, long order, long contentId, String state) {
+    }
+
+    /**
+     * An artifact with its versions in registration order and the rules in force for it: its own,
+     * else its group's, else the global ones, keyed by rule type.
+     */
+    public record Artifact(String groupId, String artifactId, String type, List<Version> versions,
+                           Map<String, String> rules) {
+
+        public String name() {
+            return groupId + "/" + artifactId;
+        }
+    }
+
+    /**
+     * A reference from one content to a version of another artifact, by the name the content uses for it.
+     */
+    public record Reference(String name, String groupId, String artifactId, String version) {
+    }
+
+    private record Content(String dataEntry, byte[] inlineBytes, String artifactType, List<Reference> references) {
+    }
+
+    private final ZipFile zip;
+    private final List<Artifact> artifacts;
+    private final Map<Long, Content> contents;
+    private final Map<String, Long> contentIds;
+
+    private RegistryExport(ZipFile zip, List<Artifact> artifacts, Map<Long, Content> contents,
+                           Map<String, Long> contentIds) {
+        this.zip = zip;
+        this.artifacts = artifacts;
+        this.contents = contents;
+        this.contentIds = contentIds;
+    }
+
+    public static RegistryExport open(Path file) throws IOException {
+        ZipFile zip = new ZipFile(file.toFile());
+        try {
+            return index(zip);
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    private static RegistryExport index(ZipFile zip) throws IOException {
+        Map<String, String> artifactTypes = new HashMap<>();
+        Map<String, List<Version>> versions = new TreeMap<>();
+        Map<String, Long> contentIds = new HashMap<>();
+        Map<Long, Content> contents = new HashMap<>();
+        Map<String, Map<String, String>> artifactRules = new HashMap<>();
+        Map<String, Map<String, String>> groupRules = new HashMap<>();
+        Map<String, String> globalRules = new LinkedHashMap<>();
+
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String entityType = entityType(entry.getName());
+            if (entityType == null) {
+                continue;
+            }
+            JsonNode node;
+            try (InputStream in = zip.getInputStream(entry)) {
+                node = MAPPER.readTree(in);
+            }
+            switch (entityType) {
+                case "Artifact" -> artifactTypes.put(key(node), text(node, "artifactType"));
+                case "ArtifactVersion" -> {
+                    String key = key(node);
+                    Version version = new Version(text(node, "version"),
+                            node.has("versionOrder") ? node.get("versionOrder").asLong() : node.path("globalId").asLong(),
+                            node.path("contentId").asLong(), text(node, "state"));
+                    versions.computeIfAbsent(key, k -> new ArrayList<>()).add(version);
+                    contentIds.put(key + "/" + version.version(), version.contentId());
+                    if (node.hasNonNull("artifactType")) {
+                        artifactTypes.putIfAbsent(key, text(node, "artifactType"));
+                    }
+                }
+                case "Content" -> {
+                    String dataEntry = entry.getName().substring(0, entry.getName().length() - ".json".length()) + ".data";
+                    byte[] inline = node.hasNonNull("contentBytes") ? node.get("contentBytes").binaryValue() : null;
+                    contents.put(node.path("contentId").asLong(),
+                            new Content(dataEntry, inline, text(node, "artifactType"), references(node)));
+                }
+                case "ArtifactRule" -> artifactRules.computeIfAbsent(key(node), k -> new LinkedHashMap<>())
+                        .put(ruleType(node), text(node, "configuration"));
+                case "GroupRule" -> groupRules.computeIfAbsent(group(node), k -> new LinkedHashMap<>())
+                        .put(ruleType(node), text(node, "configuration"));
+                case "GlobalRule" -> globalRules.put(ruleType(node), text(node, "configuration"));
+                default -> {
+                    // Manifest, groups, branches, comments: nothing to check
+                }
+            }
+        }
+
+        List<Artifact> artifacts = new ArrayList<>();
+        for (Map.Entry<String, List<Version>> artifact : versions.entrySet()) {
+            String key = artifact.getKey();
+            int slash = key.indexOf('/');
+            String groupId = key.substring(0, slash);
+            List<Version> history = new ArrayList<>(artifact.getValue());
+            history.sort(Comparator.comparingLong(Version::order));
+
+            Map<String, String> rules = new LinkedHashMap<>(globalRules);
+            rules.putAll(groupRules.getOrDefault(groupId, Map.of()));
+            rules.putAll(artifactRules.getOrDefault(key, Map.of()));
+
+            String type = artifactTypes.get(key);
+            if (type == null && contents.containsKey(history.get(0).contentId())) {
+                type = contents.get(history.get(0).contentId()).artifactType();
+            }
+            artifacts.add(new Artifact(groupId, key.substring(slash + 1), type, List.copyOf(history), rules));
+        }
+        return new RegistryExport(zip, List.copyOf(artifacts), contents, contentIds);
+    }
+
+    /**
+     * Artifacts sorted by group and id.
+     */
+    public List<Artifact> artifacts() {
+        return artifacts;
+    }
+
+    public String content(long contentId) throws IOException {
+        Content content = contents.get(contentId);
+        if (content == null) {
+            throw new NoSuchFileException("content " + contentId);
+        }
+        if (content.inlineBytes() != null) {
+            return new String(content.inlineBytes(), StandardCharsets.UTF_8);
+        }
+        ZipEntry entry = zip.getEntry(content.dataEntry());
+        if (entry == null) {
+            throw new NoSuchFileException(content.dataEntry());
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public List<Reference> references(long contentId) {
+        Content content = contents.get(contentId);
+        return content != null ? content.references() : List.of();
+    }
+
+    /**
+     * The content id of a version, or {@code null} if the export doesn't hold that version.
+     */
+    public Long contentId(String groupId, String artifactId, String version) {
+        return contentIds.get((groupId != null ? groupId : DEFAULT_GROUP) + "/" + artifactId + "/" + version);
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+
+    /**
+     * {@code ArtifactVersion} for {@code groups/g/artifacts/a/versions/1.0.ArtifactVersion.json}.
+     */
+    private static String entityType(String entryName) {
+        if (!entryName.endsWith(".json")) {
+            return null;
+        }
+        String name = entryName.substring(entryName.lastIndexOf('/') + 1, entryName.length() - ".json".length());
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1) : name;
+    }
+
+    private static List<Reference> references(JsonNode content) throws IOException {
+        // Stored as a JSON string holding the array of references
+        String serialized = text(content, "serializedReferences");
+        if (serialized == null || serialized.isBlank()) {
+            return List.of();
+        }
+        List<Reference> references = new ArrayList<>();
+        for (JsonNode reference : MAPPER.readTree(serialized)) {
+            references.add(new Reference(text(reference, "name"), text(reference, "groupId"),
+                    text(reference, "artifactId"), text(reference, "version")));
+        }
+        return List.copyOf(references);
+    }
+
+    private static String key(JsonNode node) {
+        return group(node) + "/" + text(node, "artifactId");
+    }
+
+    private static String group(JsonNode node) {
+        String groupId = text(node, "groupId");
+        return groupId != null ? groupId : DEFAULT_GROUP;
+    }
+
+    private static String ruleType(JsonNode node) {
+        String type = node.hasNonNull("type") ? text(node, "type") : text(node, "ruleType");
+        return type != null ? type.toUpperCase() : "";
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.lilcurio.cache;
+
+import dev.lilcurio.BuildInfo;
+import io.apicurio.registry.content.TypedContent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content-addressed key for a cached check result: a SHA-256 over the lilcurio version and build, the
+ * Apicurio version, the command, schema type and level, followed by every input that influences the
+ * outcome.
+ * Each part is length-prefixed so that different splits of the same bytes never collide.
+ */
+public final class CacheKey {
+
+    private final MessageDigest digest;
+
+    private CacheKey(String command, String schemaType, String level) {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        add(BuildInfo.version());
+        add(BuildInfo.buildId());
+        add(BuildInfo.apicurioVersion());
+        add(command);
+        add(schemaType);
+        add(level);
+    }
+
+    public static CacheKey of(String command, String schemaType, String level) {
+        return new CacheKey(command, schemaType, level);
+    }
+
+    public CacheKey add(byte[] content) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(content.length).array());
+        digest.update(content);
+        return this;
+    }
+
+    public CacheKey add(String value) {
+        return add(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds resolved references in name order; an empty map leaves the key unchanged.
+     */
+    public CacheKey add(Map<String, TypedContent> references) {
+        for (Map.Entry<String, TypedContent> reference : new TreeMap<>(references).entrySet()) {
+            add(reference.getKey());
+            add(reference.getValue().getContent().bytes());
+        }
+        return this;
+    }
+
+    /**
+     * Finishes the key; the builder must not be used afterwards.
+     */
+    public String hash() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
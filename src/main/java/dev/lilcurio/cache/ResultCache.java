@@ -0,0 +1,187 @@
+package dev.lilcurio.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of PASS/FAIL outcomes keyed by {@link CacheKey}.
+ * <p>
+ * Entries are written to a temporary file and atomically renamed into place, so concurrent processes
+ * sharing the directory only ever observe complete entries. A hit refreshes the entry's modification
+ * time, which {@link #evict()} uses to remove least-recently-used entries once the directory grows
+ * beyond its size bound. Errors are never cached, and any I/O problem is treated as a miss.
+ */
+public class ResultCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final String LOCK_FILE = ".lock";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicBoolean written = new AtomicBoolean();
+
+    public ResultCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * A cache that never hits and never stores anything.
+     */
+    public static ResultCache disabled() {
+        return new ResultCache(null, 0);
+    }
+
+    /**
+     * {@code $XDG_CACHE_HOME/lilcurio}, falling back to {@code ~/.cache/lilcurio}.
+     */
+    public static Path defaultDirectory() {
+        String xdg = System.getenv("XDG_CACHE_HOME");
+        Path base = xdg != null && !xdg.isBlank()
+                ? Path.of(xdg)
+                : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("lilcurio");
+    }
+
+    /**
+     * Returns the cached outcome for {@code key}, re-attributed to {@code file}, or {@code null} on a miss.
+     */
+    public CheckResult get(String key, String command, Path file, String level) {
+        if (directory == null) {
+            return null;
+        }
+        Path entry = entryPath(key);
+        try {
+            JsonNode node = MAPPER.readTree(Files.readAllBytes(entry));
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+
+            List<RuleViolation> violations = new ArrayList<>();
+            for (JsonNode v : node.path("violations")) {
+                violations.add(new RuleViolation(v.path("description").asText(),
+                        v.hasNonNull("context") ? v.get("context").asText() : null));
+            }
+            List<String> skipped = new ArrayList<>();
+            for (JsonNode version : node.path("skipped")) {
+                skipped.add(version.asText());
+            }
+            return new CheckResult(command, file, level,
+                    CheckStatus.valueOf(node.path("status").asText()), violations, skipped);
+        } catch (IOException | RuntimeException e) {
+            // Missing, concurrently evicted or corrupt entries are all plain misses
+            return null;
+        }
+    }
+
+    public void put(String key, CheckResult result) {
+        if (directory == null || result.status() == CheckStatus.ERROR || result.status() == CheckStatus.LIMIT) {
+            return;
+        }
+
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("status", result.status().name());
+        ArrayNode violations = node.putArray("violations");
+        for (RuleViolation v : result.violations()) {
+            ObjectNode vNode = violations.addObject();
+            vNode.put("description", v.getDescription());
+            if (v.getContext() != null) {
+                vNode.put("context", v.getContext());
+            }
+        }
+        if (!result.skipped().isEmpty()) {
+            ArrayNode skipped = node.putArray("skipped");
+            result.skipped().forEach(skipped::add);
+        }
+
+        Path entry = entryPath(key);
+        try {
+            Files.createDirectories(entry.getParent());
+            Path tmp = Files.createTempFile(entry.getParent(), key, ".tmp");
+            try {
+                Files.write(tmp, MAPPER.writeValueAsBytes(node));
+                try {
+                    Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+                written.set(true);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            // The cache is an optimization; a failed write just means a future miss
+        }
+    }
+
+    /**
+     * Trims the cache to below its size bound by deleting least-recently-used entries. Does nothing if
+     * this process wrote no entries, or if another process is already evicting.
+     */
+    public void evict() {
+        if (!written.get()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.tryLock()) {
+            if (lock == null) {
+                return;
+            }
+
+            List<Entry> entries = new ArrayList<>();
+            try (Stream<Path> walk = Files.walk(directory, 2)) {
+                for (Path path : (Iterable<Path>) walk::iterator) {
+                    if (path.getFileName().toString().endsWith(ENTRY_SUFFIX)) {
+                        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                        entries.add(new Entry(path, attrs.size(), attrs.lastModifiedTime()));
+                    }
+                }
+            }
+
+            long total = entries.stream().mapToLong(Entry::size).sum();
+            if (total <= maxBytes) {
+                return;
+            }
+            // Evict down to 80% of the bound so every run doesn't immediately evict again
+            long target = maxBytes * 8 / 10;
+            entries.sort(Comparator.comparing(Entry::lastUsed));
+            for (Entry entry : entries) {
+                if (total <= target) {
+                    break;
+                }
+                Files.deleteIfExists(entry.path());
+                total -= entry.size();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Eviction is best effort; the next run will try again
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_SUFFIX);
+    }
+
+    private record Entry(Path path, long size, FileTime lastUsed) {
+    }
+}
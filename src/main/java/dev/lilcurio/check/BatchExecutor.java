@@ -0,0 +1,164 @@
+package dev.lilcurio.check;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs independent checks on a work-stealing pool, returning results in input order, or streams
+ * them through a bounded pool when the input is too long to hold in memory.
+ */
+public final class BatchExecutor {
+
+    private BatchExecutor() {
+    }
+
+    public static int defaultParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Applies {@code task} to every item on up to {@code parallelism} threads. Called from within
+     * another map, e.g. for the versions of each file, it shares the outer map's pool instead, so
+     * nesting never multiplies the threads in use.
+     */
+    public static <T, R> List<R> map(List<T> items, int parallelism, Function<T, R> task)
+            throws InterruptedException {
+        if (parallelism <= 1 || items.size() <= 1) {
+            return items.stream().map(task).toList();
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            return items.parallelStream().map(task).toList();
+        }
+
+        // Threads are started as work arrives, so a short list does not start them all
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> items.parallelStream().map(task).toList()).get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies {@code task} to every item on {@code parallelism} threads and hands each result to
+     * {@code sink}, in input order if {@code ordered} and in completion order otherwise. No more than
+     * {@code maxInFlight} items are taken from {@code items} ahead of the sink, so memory stays flat
+     * however long the input is; a slow sink slows down reading. {@code sink} is called by one thread
+     * at a time, and {@code idle} after every result that leaves nothing in flight, e.g. to flush output.
+     */
+    public static <T, R> void stream(Iterator<T> items, int parallelism, int maxInFlight, boolean ordered,
+                                     Function<T, R> task, Consumer<R> sink, Runnable idle)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "lilcurio-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore permits = new Semaphore(maxInFlight);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Object sinkLock = new Object();
+
+        // The permit goes back last, so that once all are back no idle callback is still running
+        Runnable delivered = () -> {
+            if (inFlight.decrementAndGet() == 0) {
+                synchronized (sinkLock) {
+                    idle.run();
+                }
+            }
+            permits.release();
+        };
+        Consumer<R> deliver = result -> {
+            synchronized (sinkLock) {
+                // After a failure, results are only drained so that the reader never blocks on a permit
+                if (failure.get() == null) {
+                    try {
+                        sink.accept(result);
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        };
+
+        CompletableFuture<R> end = new CompletableFuture<>();
+        BlockingQueue<CompletableFuture<R>> pending = new LinkedBlockingQueue<>();
+        Thread writer = null;
+        if (ordered) {
+            writer = new Thread(() -> {
+                try {
+                    for (CompletableFuture<R> next = pending.take(); next != end; next = pending.take()) {
+                        try {
+                            deliver.accept(next.get());
+                        } catch (ExecutionException e) {
+                            failure.compareAndSet(null, e.getCause());
+                        }
+                        delivered.run();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "lilcurio-writer");
+            writer.start();
+        }
+
+        try {
+            while (failure.get() == null && items.hasNext()) {
+                T item = items.next();
+                permits.acquire();
+                inFlight.incrementAndGet();
+                CompletableFuture<R> result = CompletableFuture.supplyAsync(() -> task.apply(item), pool);
+                if (ordered) {
+                    pending.put(result);
+                } else {
+                    result.whenComplete((value, error) -> {
+                        if (error != null) {
+                            failure.compareAndSet(null, error instanceof CompletionException
+                                    ? error.getCause() : error);
+                        } else {
+                            deliver.accept(value);
+                        }
+                        delivered.run();
+                    });
+                }
+            }
+        } finally {
+            if (ordered) {
+                pending.put(end);
+                writer.join();
+            } else {
+                permits.acquire(maxInFlight);
+            }
+            pool.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw rethrow(failure.get());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
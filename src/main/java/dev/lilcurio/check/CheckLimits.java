@@ -0,0 +1,211 @@
+package dev.lilcurio.check;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.lilcurio.metrics.Metrics;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rest.v3.beans.ArtifactReference;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.validity.ContentValidator;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolationException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds on a single check, so that one pathological schema cannot stall a whole run: the size and
+ * nesting depth of each schema read, and the wall-clock time of each validator or checker call.
+ * A limit of zero is disabled. Breaches throw {@link LimitExceededException}, which
+ * {@link CheckResult#error} reports with the {@link CheckStatus#LIMIT} status.
+ * <p>
+ * Timed calls run on a pool of daemon threads. Java cannot stop a thread that does not check for
+ * interruption, and Apicurio's checkers don't, so a call that times out is interrupted and
+ * abandoned: it keeps a core busy until it returns or the process exits.
+ */
+public final class CheckLimits {
+
+    public static final long DEFAULT_MAX_SCHEMA_BYTES = 16L * 1024 * 1024;
+    public static final int DEFAULT_MAX_DEPTH = 128;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ZERO;
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    /**
+     * Abandoned calls each hold a thread until they return, so the pool is bounded: once every thread
+     * is held, further timed calls wait in the queue and run out their timeout there, reported as
+     * over the limit, rather than piling up threads in a long-lived daemon.
+     */
+    private static final ThreadPoolExecutor TIMED = timedPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+
+    private final long maxSchemaBytes;
+    private final int maxDepth;
+    private final Duration timeout;
+
+    public CheckLimits(long maxSchemaBytes, int maxDepth, Duration timeout) {
+        this.maxSchemaBytes = maxSchemaBytes;
+        this.maxDepth = maxDepth;
+        this.timeout = timeout;
+    }
+
+    public static CheckLimits defaults() {
+        return new CheckLimits(DEFAULT_MAX_SCHEMA_BYTES, DEFAULT_MAX_DEPTH, DEFAULT_TIMEOUT);
+    }
+
+    public static CheckLimits none() {
+        return new CheckLimits(0, 0, Duration.ZERO);
+    }
+
+    /**
+     * Rejects a schema of {@code size} bytes, before it is read, if it is too large.
+     */
+    public void checkSize(long size) {
+        if (maxSchemaBytes > 0 && size > maxSchemaBytes) {
+            throw new LimitExceededException("Schema is " + size + " bytes, over the limit of " + maxSchemaBytes
+                    + " bytes (--max-schema-size)");
+        }
+    }
+
+    /**
+     * Rejects a schema that is too large or, for JSON-based schemas, nested too deeply. The depth is
+     * measured with a streaming parse that stops at the limit; content that does not parse is left
+     * for the validator to report.
+     */
+    public void checkContent(TypedContent content) {
+        byte[] bytes = content.getContent().bytes();
+        checkSize(bytes.length);
+        if (maxDepth <= 0 || !isJson(content.getContentType())) {
+            return;
+        }
+        try (JsonParser parser = JSON.createParser(bytes)) {
+            int depth = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token.isStructStart() && ++depth > maxDepth) {
+                    throw new LimitExceededException("Schema nesting is deeper than the limit of " + maxDepth
+                            + " levels (--max-depth)");
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+        } catch (IOException e) {
+            // Not well-formed: the validator reports it
+        }
+    }
+
+    /**
+     * Whether content of this type is JSON: JSON Schema, and Avro whether typed {@code application/json}
+     * or {@code application/avro+json}.
+     */
+    private static boolean isJson(String contentType) {
+        return contentType != null && (contentType.equals(JSON_CONTENT_TYPE) || contentType.endsWith("+json"));
+    }
+
+    /**
+     * {@code validator}, with each validation bounded by the timeout.
+     */
+    public ContentValidator guard(ContentValidator validator) {
+        if (timeout.isZero()) {
+            return validator;
+        }
+        return new ContentValidator() {
+            @Override
+            public void validate(ValidityLevel level, TypedContent content, Map<String, TypedContent> references)
+                    throws RuleViolationException {
+                try {
+                    timed(() -> {
+                        validator.validate(level, content, references);
+                        return null;
+                    });
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public void validateReferences(TypedContent content, List<ArtifactReference> references)
+                    throws RuleViolationException {
+                validator.validateReferences(content, references);
+            }
+        };
+    }
+
+    /**
+     * {@code checker}, with each compatibility test bounded by the timeout.
+     */
+    public CompatibilityChecker guard(CompatibilityChecker checker) {
+        if (timeout.isZero()) {
+            return checker;
+        }
+        return (level, existing, proposed, references) -> {
+            try {
+                return timed(() -> checker.testCompatibility(level, existing, proposed, references));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private <T> T timed(Callable<T> call) throws Exception {
+        // What the call allocates is credited to the caller's metrics span, as if it ran there
+        AtomicLong allocated = new AtomicLong();
+        Future<T> future = TIMED.submit(() -> {
+            long start = Metrics.allocatedBytes();
+            try {
+                return call.call();
+            } finally {
+                allocated.set(Metrics.allocatedBytes() - start);
+            }
+        });
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            Metrics.allocatedElsewhere(allocated.get());
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LimitExceededException("Check did not finish within the limit of " + describe(timeout)
+                    + " (--timeout)");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Metrics.allocatedElsewhere(allocated.get());
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        }
+    }
+
+    private static ThreadPoolExecutor timedPool(int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "lilcurio-check");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static String describe(Duration duration) {
+        return duration.toMillis() % 1000 == 0 ? duration.toSeconds() + "s" : duration.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,106 @@
+package dev.lilcurio.check;
+
+import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import io.apicurio.registry.rules.violation.RuleViolationException;
+
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a single check (one file, one level), independent of how it is printed.
+ * {@code skipped} names existing versions that were not checked because they are equivalent to the
+ * proposed schema.
+ */
+public record CheckResult(String command, Path file, String level,
+                          CheckStatus status, List<RuleViolation> violations, List<String> skipped) {
+
+    public static final String VALIDATE = "validate";
+    public static final String COMPATIBILITY = "compatibility";
+    public static final String AUDIT = "audit";
+
+    public CheckResult {
+        violations = List.copyOf(violations);
+        skipped = List.copyOf(skipped);
+    }
+
+    public CheckResult(String command, Path file, String level,
+                       CheckStatus status, List<RuleViolation> violations) {
+        this(command, file, level, status, violations, List.of());
+    }
+
+    public static CheckResult validationSuccess(Path file, ValidityLevel level) {
+        return new CheckResult(VALIDATE, file, level.toString(), CheckStatus.PASS, List.of());
+    }
+
+    public static CheckResult validationFailure(Path file, ValidityLevel level,
+                                                RuleViolationException exception) {
+        List<RuleViolation> violations = new ArrayList<>();
+        Set<RuleViolation> causes = exception.getCauses();
+        if (causes != null) {
+            violations.addAll(causes);
+        }
+        if (violations.isEmpty() && exception.getMessage() != null) {
+            violations.add(new RuleViolation(exception.getMessage(), null));
+        }
+        return new CheckResult(VALIDATE, file, level.toString(), CheckStatus.FAIL, violations);
+    }
+
+    public static CheckResult compatibilitySuccess(Path file, CompatibilityLevel level) {
+        return new CheckResult(COMPATIBILITY, file, level.toString(), CheckStatus.PASS, List.of());
+    }
+
+    public static CheckResult compatibilityFailure(Path file, CompatibilityLevel level,
+                                                   Set<CompatibilityDifference> differences) {
+        List<RuleViolation> violations = new ArrayList<>();
+        if (differences != null) {
+            for (CompatibilityDifference diff : differences) {
+                violations.add(diff.asRuleViolation());
+            }
+        }
+        return new CheckResult(COMPATIBILITY, file, level.toString(), CheckStatus.FAIL, violations);
+    }
+
+    /**
+     * A check that could not complete, with the {@link CheckStatus#LIMIT} status if it exceeded a limit.
+     */
+    public static CheckResult error(String command, Path file, String level, Exception exception) {
+        CheckStatus status = exception instanceof LimitExceededException ? CheckStatus.LIMIT : CheckStatus.ERROR;
+        return new CheckResult(command, file, level, status,
+                List.of(new RuleViolation(describe(exception), null)));
+    }
+
+    public CheckResult withSkipped(List<String> skippedVersions) {
+        return new CheckResult(command, file, level, status, violations, skippedVersions);
+    }
+
+    public int exitCode() {
+        return status.getExitCode();
+    }
+
+    public static CheckStatus worstStatus(List<CheckResult> results) {
+        CheckStatus worst = CheckStatus.PASS;
+        for (CheckResult result : results) {
+            if (result.status().compareTo(worst) > 0) {
+                worst = result.status();
+            }
+        }
+        return worst;
+    }
+
+    public static int worstExitCode(List<CheckResult> results) {
+        return worstStatus(results).getExitCode();
+    }
+
+    private static String describe(Exception exception) {
+        if (exception instanceof NoSuchFileException) {
+            return "File not found: " + exception.getMessage();
+        }
+        return exception.getMessage() != null ? exception.getMessage() : exception.toString();
+    }
+}
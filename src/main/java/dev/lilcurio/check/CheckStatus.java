@@ -0,0 +1,21 @@
+package dev.lilcurio.check;
+
+public enum CheckStatus {
+    PASS(0),
+    FAIL(1),
+    ERROR(2),
+    /**
+     * A schema or the check itself exceeded a configured limit (see {@link CheckLimits}).
+     */
+    LIMIT(3);
+
+    private final int exitCode;
+
+    CheckStatus(int exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,94 @@
+package dev.lilcurio.check;
+
+import io.apicurio.registry.rules.compatibility.AbstractCompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks of one proposed schema at several compatibility levels in one pass, e.g.
+ * {@code --level backward,forward,full}.
+ * <p>
+ * Apicurio's {@link AbstractCompatibilityChecker} defines {@code FULL} as the union of the
+ * {@code BACKWARD} and {@code FORWARD} differences, and {@code FULL_TRANSITIVE} likewise. For
+ * checkers built on it, a full level is therefore derived from its two halves, which are checked
+ * once and shared with the levels that ask for them directly. Other checkers, such as protobuf's,
+ * define {@code FULL} differently and are asked for it as is.
+ */
+public final class CompatibilityLevels {
+
+    /**
+     * Checks {@code proposed} at one level, e.g. against the result cache first.
+     */
+    @FunctionalInterface
+    public interface Check {
+        CheckResult run(CompatibilityLevel level) throws Exception;
+    }
+
+    private CompatibilityLevels() {
+    }
+
+    /**
+     * Whether {@code checker}'s full levels are exactly the union of their backward and forward halves.
+     */
+    public static boolean derivesFull(CompatibilityChecker checker) {
+        return checker instanceof AbstractCompatibilityChecker<?>;
+    }
+
+    /**
+     * One result per level of {@code levels}, in their order. Each level is checked once, and with
+     * {@code deriveFull} the full levels are built from the results of their two halves.
+     */
+    public static List<CheckResult> check(List<CompatibilityLevel> levels, boolean deriveFull, Check check)
+            throws Exception {
+        Map<CompatibilityLevel, CheckResult> done = new EnumMap<>(CompatibilityLevel.class);
+        List<CheckResult> results = new ArrayList<>();
+        for (CompatibilityLevel level : levels) {
+            results.add(result(level, deriveFull, check, done));
+        }
+        return results;
+    }
+
+    private static CheckResult result(CompatibilityLevel level, boolean deriveFull, Check check,
+                                      Map<CompatibilityLevel, CheckResult> done) throws Exception {
+        CheckResult result = done.get(level);
+        if (result != null) {
+            return result;
+        }
+        if (deriveFull && level == CompatibilityLevel.FULL) {
+            result = union(level, result(CompatibilityLevel.BACKWARD, true, check, done),
+                    result(CompatibilityLevel.FORWARD, true, check, done));
+        } else if (deriveFull && level == CompatibilityLevel.FULL_TRANSITIVE) {
+            result = union(level, result(CompatibilityLevel.BACKWARD_TRANSITIVE, true, check, done),
+                    result(CompatibilityLevel.FORWARD_TRANSITIVE, true, check, done));
+        } else {
+            result = check.run(level);
+        }
+        done.put(level, result);
+        return result;
+    }
+
+    /**
+     * The full level's result: the worse status of the two halves, with the violations of the halves
+     * that have it, so two failures report the differences of both. Both halves skip the same
+     * equivalent versions.
+     */
+    static CheckResult union(CompatibilityLevel level, CheckResult backward, CheckResult forward) {
+        CheckStatus status = backward.status().compareTo(forward.status()) >= 0 ? backward.status() : forward.status();
+        Set<RuleViolation> violations = new LinkedHashSet<>();
+        for (CheckResult half : List.of(backward, forward)) {
+            if (half.status() == status) {
+                violations.addAll(half.violations());
+            }
+        }
+        return new CheckResult(backward.command(), backward.file(), level.toString(), status,
+                new ArrayList<>(violations), backward.skipped());
+    }
+}
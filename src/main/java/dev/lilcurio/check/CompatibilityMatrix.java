@@ -0,0 +1,196 @@
+package dev.lilcurio.check;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pairwise compatibility between the versions of a schema. Each cell tells whether the row's version,
+ * taken as the new one, is compatible with the column's version taken as the existing one; transitive
+ * levels are applied pair by pair.
+ * <p>
+ * Every level comes down to one directional question: can a version read data written with another?
+ * Apicurio checks FORWARD as BACKWARD with the two versions swapped, and FULL as both. Each ordered pair
+ * of distinct contents is therefore checked at most once. Answers are memoized by content hash and
+ * shared by the cells that need them, so a full N-by-N matrix costs at most N*(N-1) checks at any level.
+ * Identical contents are compatible without a check, and a FULL cell skips the second direction once
+ * the first has failed.
+ */
+public final class CompatibilityMatrix {
+
+    /**
+     * Whether version {@code reader} can read data written with version {@code writer}, i.e. is backward
+     * compatible with it; versions are indexes in the list passed to {@link #compute}. Called concurrently.
+     */
+    @FunctionalInterface
+    public interface Direction {
+        boolean canRead(int reader, int writer);
+    }
+
+    private final List<String> versions;
+    private final CompatibilityLevel level;
+    private final int firstRow;
+    private final int columns;
+    private final Boolean[][] cells;
+    private final int checks;
+
+    private CompatibilityMatrix(List<String> versions, CompatibilityLevel level, int firstRow, int columns,
+                                Boolean[][] cells, int checks) {
+        this.versions = versions;
+        this.level = level;
+        this.firstRow = firstRow;
+        this.columns = columns;
+        this.cells = cells;
+        this.checks = checks;
+    }
+
+    /**
+     * Computes the matrix of {@code versions}, oldest first, whose last element is the proposed version.
+     * With {@code allPairs} every version gets a row and a column; otherwise the proposed version is
+     * the only row and the existing versions are the columns.
+     */
+    public static CompatibilityMatrix compute(List<String> versions, List<TypedContent> contents, boolean allPairs,
+                                              CompatibilityLevel level, int parallelism, Direction direction)
+            throws InterruptedException {
+        CompatibilityLevel pairwise = TransitiveCompatibility.pairwiseLevel(level);
+        int count = versions.size();
+        int firstRow = allPairs ? 0 : count - 1;
+        int columns = allPairs ? count : count - 1;
+
+        List<String> hashes = contents.stream().map(content -> sha256(content.getContent().bytes())).toList();
+        Map<String, FutureTask<Boolean>> answers = new ConcurrentHashMap<>();
+        AtomicInteger checks = new AtomicInteger();
+        Direction memoized = (reader, writer) -> {
+            if (hashes.get(reader).equals(hashes.get(writer))) {
+                return true;
+            }
+            FutureTask<Boolean> task = new FutureTask<>(() -> {
+                checks.incrementAndGet();
+                return direction.canRead(reader, writer);
+            });
+            FutureTask<Boolean> existing = answers.putIfAbsent(hashes.get(reader) + ":" + hashes.get(writer), task);
+            if (existing == null) {
+                task.run();
+                existing = task;
+            }
+            return await(existing);
+        };
+
+        List<int[]> pairs = new ArrayList<>();
+        for (int row = firstRow; row < count; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (row != column) {
+                    pairs.add(new int[]{row, column});
+                }
+            }
+        }
+        List<Boolean> compatible = BatchExecutor.map(pairs, parallelism,
+                pair -> cell(pairwise, pair[0], pair[1], memoized));
+
+        Boolean[][] cells = new Boolean[count - firstRow][columns];
+        for (int i = 0; i < pairs.size(); i++) {
+            cells[pairs.get(i)[0] - firstRow][pairs.get(i)[1]] = compatible.get(i);
+        }
+        return new CompatibilityMatrix(List.copyOf(versions), pairwise, firstRow, columns, cells, checks.get());
+    }
+
+    private static boolean cell(CompatibilityLevel level, int row, int column, Direction direction) {
+        return switch (level) {
+            case BACKWARD -> direction.canRead(row, column);
+            case FORWARD -> direction.canRead(column, row);
+            case FULL -> direction.canRead(row, column) && direction.canRead(column, row);
+            default -> true;
+        };
+    }
+
+    /**
+     * The level applied to each pair.
+     */
+    public CompatibilityLevel level() {
+        return level;
+    }
+
+    /**
+     * All versions, oldest first; the rows are the last of them and the columns the first.
+     */
+    public List<String> versions() {
+        return versions;
+    }
+
+    public List<String> rows() {
+        return versions.subList(firstRow, versions.size());
+    }
+
+    public List<String> columns() {
+        return versions.subList(0, columns);
+    }
+
+    /**
+     * Whether the version of {@code row} is compatible with that of {@code column} (indexes in
+     * {@link #rows()} and {@link #columns()}), or {@code null} when they are the same version.
+     */
+    public Boolean cell(int row, int column) {
+        return cells[row][column];
+    }
+
+    /**
+     * Whether the proposed version is compatible with every existing version.
+     */
+    public boolean isCompatible() {
+        return earliestCompatible() == 0;
+    }
+
+    /**
+     * The index of the oldest existing version such that the proposed version is compatible with it
+     * and with every version after it: consumers on that version or a later one are safe. {@code -1}
+     * if the proposed version is not even compatible with the latest existing one.
+     */
+    public int earliestCompatible() {
+        Boolean[] proposed = cells[cells.length - 1];
+        int earliest = versions.size() - 1;
+        while (earliest > 0 && Boolean.TRUE.equals(proposed[earliest - 1])) {
+            earliest--;
+        }
+        return earliest < versions.size() - 1 ? earliest : -1;
+    }
+
+    /**
+     * Number of compatibility checks actually run, after memoization and pruning.
+     */
+    public int checks() {
+        return checks;
+    }
+
+    private static boolean await(FutureTask<Boolean> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted");
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
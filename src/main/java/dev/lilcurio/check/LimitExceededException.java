@@ -0,0 +1,12 @@
+package dev.lilcurio.check;
+
+/**
+ * Thrown when a schema or a check exceeds one of the {@link CheckLimits}. Unchecked, so that it
+ * can cross Apicurio's validator and checker interfaces.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,96 @@
+package dev.lilcurio.check;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One of {@code count} parts of a set of schema files, numbered from 1, so that a run can be spread
+ * across CI nodes that each check one part.
+ * <p>
+ * Files are spread by size, largest first, each to the part with the least content so far (ties go
+ * to the lower-numbered part, and equal sizes are ordered by path). Every file also weighs a fixed
+ * amount for the cost of a check beyond its bytes, so that many small files still spread evenly.
+ * The split depends only on the paths and their sizes: every node given the same inputs in the same
+ * checkout computes the same split without coordinating, and the parts carry about the same load.
+ */
+public record Shard(int index, int count) {
+
+    private static final long CHECK_WEIGHT = 1024;
+
+    public Shard {
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count
+                    + ": expected i/n with 1 <= i <= n");
+        }
+    }
+
+    /**
+     * Parses {@code i/n}, e.g. {@code 3/8}.
+     */
+    public static Shard parse(String shard) {
+        int slash = shard.indexOf('/');
+        try {
+            if (slash > 0) {
+                return new Shard(Integer.parseInt(shard.substring(0, slash).trim()),
+                        Integer.parseInt(shard.substring(slash + 1).trim()));
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid shard: " + shard + ". Expected i/n, e.g. 1/8");
+    }
+
+    /**
+     * The files of {@code files} that fall in this shard, in their original order. Files that cannot
+     * be sized count as empty; reading them fails later, in whichever shard they land.
+     */
+    public List<Path> select(List<Path> files) {
+        if (count == 1) {
+            return files;
+        }
+        List<Sized> sized = new ArrayList<>();
+        for (Path file : files) {
+            sized.add(new Sized(file, CHECK_WEIGHT + size(file)));
+        }
+        sized.sort(Comparator.comparingLong(Sized::size).reversed()
+                .thenComparing(s -> s.file().toString()));
+
+        long[] loads = new long[count];
+        Set<Path> mine = new HashSet<>();
+        for (Sized file : sized) {
+            int lightest = 0;
+            for (int part = 1; part < count; part++) {
+                if (loads[part] < loads[lightest]) {
+                    lightest = part;
+                }
+            }
+            loads[lightest] += file.size();
+            if (lightest == index - 1) {
+                mine.add(file.file());
+            }
+        }
+        return files.stream().filter(mine::contains).toList();
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+
+    private record Sized(Path file, long size) {
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
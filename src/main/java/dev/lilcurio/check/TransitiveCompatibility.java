@@ -0,0 +1,124 @@
+package dev.lilcurio.check;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Decomposes transitive compatibility checks into independent checks against one existing version.
+ * <p>
+ * Apicurio evaluates a {@code *_TRANSITIVE} level as the union of the differences found against each
+ * existing version under the matching single-version level, and a non-transitive level against the
+ * latest existing version only. Following the same rules here lets callers feed existing versions
+ * one at a time instead of materializing the whole history.
+ */
+public final class TransitiveCompatibility {
+
+    private TransitiveCompatibility() {
+    }
+
+    public static boolean isTransitive(CompatibilityLevel level) {
+        return level == CompatibilityLevel.BACKWARD_TRANSITIVE
+                || level == CompatibilityLevel.FORWARD_TRANSITIVE
+                || level == CompatibilityLevel.FULL_TRANSITIVE;
+    }
+
+    /**
+     * The level to apply against each individual existing version.
+     */
+    public static CompatibilityLevel pairwiseLevel(CompatibilityLevel level) {
+        return switch (level) {
+            case BACKWARD_TRANSITIVE -> CompatibilityLevel.BACKWARD;
+            case FORWARD_TRANSITIVE -> CompatibilityLevel.FORWARD;
+            case FULL_TRANSITIVE -> CompatibilityLevel.FULL;
+            default -> level;
+        };
+    }
+
+    /**
+     * Checks {@code proposed} against a stream of existing versions ordered newest first. Each version
+     * is compared and released before the next one is pulled from the stream; for non-transitive
+     * levels only the newest version is consumed. With {@code failFast}, the stream is abandoned at
+     * the first incompatible version.
+     */
+    public static CompatibilityExecutionResult test(CompatibilityChecker checker, CompatibilityLevel level,
+                                                    Stream<TypedContent> newestFirst, TypedContent proposed,
+                                                    Map<String, TypedContent> references, boolean failFast) {
+        CompatibilityLevel pairwise = pairwiseLevel(level);
+        Map<RuleViolation, CompatibilityDifference> differences = new LinkedHashMap<>();
+
+        try (newestFirst) {
+            Iterator<TypedContent> versions = newestFirst.iterator();
+            while (versions.hasNext()) {
+                CompatibilityExecutionResult result = checker.testCompatibility(
+                        pairwise, List.of(versions.next()), proposed, references);
+                merge(result.getIncompatibleDifferences(), differences);
+                if (!isTransitive(level) || (failFast && !result.isCompatible())) {
+                    break;
+                }
+            }
+        }
+        return CompatibilityExecutionResult.incompatibleOrEmpty(Set.copyOf(differences.values()));
+    }
+
+    /**
+     * Checks {@code proposed} against every existing version (oldest first, as passed to Apicurio)
+     * as independent pairs on a work-stealing pool. Without {@code failFast} the merged differences
+     * equal those of a sequential transitive check. With it, pairs not yet started when the first
+     * incompatibility is found are skipped, so only a subset of the differences may be reported.
+     */
+    public static CompatibilityExecutionResult testParallel(CompatibilityChecker checker, CompatibilityLevel level,
+                                                            List<TypedContent> existing, TypedContent proposed,
+                                                            Map<String, TypedContent> references,
+                                                            int parallelism, boolean failFast)
+            throws InterruptedException {
+        if (!isTransitive(level)) {
+            return existing.isEmpty()
+                    ? CompatibilityExecutionResult.compatible()
+                    : checker.testCompatibility(level, List.of(existing.get(existing.size() - 1)),
+                            proposed, references);
+        }
+
+        CompatibilityLevel pairwise = pairwiseLevel(level);
+        AtomicBoolean incompatible = new AtomicBoolean();
+        List<CompatibilityExecutionResult> results = BatchExecutor.map(existing, parallelism, version -> {
+            if (failFast && incompatible.get()) {
+                return null;
+            }
+            CompatibilityExecutionResult result = checker.testCompatibility(
+                    pairwise, List.of(version), proposed, references);
+            if (!result.isCompatible()) {
+                incompatible.set(true);
+            }
+            return result;
+        });
+
+        Map<RuleViolation, CompatibilityDifference> differences = new LinkedHashMap<>();
+        for (int i = results.size() - 1; i >= 0; i--) {
+            if (results.get(i) != null) {
+                merge(results.get(i).getIncompatibleDifferences(), differences);
+            }
+        }
+        return CompatibilityExecutionResult.incompatibleOrEmpty(Set.copyOf(differences.values()));
+    }
+
+    static void merge(Set<CompatibilityDifference> from, Map<RuleViolation, CompatibilityDifference> into) {
+        if (from == null) {
+            return;
+        }
+        for (CompatibilityDifference difference : from) {
+            into.putIfAbsent(difference.asRuleViolation(), difference);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.audit.RegistryExport;
+import dev.lilcurio.audit.RegistryExport.Artifact;
+import dev.lilcurio.audit.RegistryExport.Reference;
+import dev.lilcurio.audit.RegistryExport.Version;
+import dev.lilcurio.cache.ResultCache;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckLimits;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.Phase;
+import dev.lilcurio.output.ResultPrinter;
+import dev.lilcurio.schema.SchemaSupport;
+import dev.lilcurio.schema.SchemaType;
+import dev.lilcurio.schema.SchemaTypeRegistry;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Command(
+        name = "audit",
+        mixinStandardHelpOptions = true,
+        description = "Re-check every artifact of an Apicurio Registry export zip against its configured " +
+                "validity and compatibility rules, reporting artifacts whose history violates them."
+)
+public class AuditCommand implements Callable<Integer> {
+
+    private static final String DISABLED = "DISABLED";
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(index = "0", paramLabel = "<export.zip>",
+            description = "Export zip, as written by the registry's export endpoint.")
+    private Path exportFile;
+
+    @Option(names = {"-p", "--parallelism"},
+            description = "Number of artifacts checked concurrently. Default: number of available processors.")
+    private int parallelism = BatchExecutor.defaultParallelism();
+
+    @Mixin
+    private OutputOptions outputOptions;
+
+    @Mixin
+    private MetricsOptions metricsOptions;
+
+    @Mixin
+    private LimitOptions limitOptions;
+
+    private CheckLimits limits;
+    private final Map<SchemaType, SchemaChecker> checkers = new ConcurrentHashMap<>();
+
+    @Override
+    public Integer call() throws Exception {
+        Metrics metrics = metricsOptions.start(CheckResult.AUDIT);
+        limits = limitOptions.limits();
+        RegistryExport export;
+        ResultPrinter printer;
+        try (Metrics.Span span = metrics.span(Phase.SETUP, exportFile)) {
+            export = RegistryExport.open(exportFile);
+            printer = outputOptions.createPrinter(spec.commandLine());
+        }
+
+        try (export) {
+            List<Artifact> checked = new ArrayList<>();
+            Map<String, Integer> unsupported = new TreeMap<>();
+            for (Artifact artifact : export.artifacts()) {
+                if (schemaType(artifact) != null) {
+                    checked.add(artifact);
+                } else {
+                    unsupported.merge(String.valueOf(artifact.type()), 1, Integer::sum);
+                }
+            }
+            if (!unsupported.isEmpty()) {
+                spec.commandLine().getErr().println("Skipped artifacts of unsupported types: " + unsupported);
+            }
+
+            List<CheckResult> results = BatchExecutor.map(checked, parallelism, artifact -> {
+                CheckResult result = audit(artifact, export, metrics);
+                try (Metrics.Span span = metrics.span(Phase.PRINT, result.file())) {
+                    printer.resultAvailable(result);
+                }
+                return result;
+            });
+
+            try (Metrics.Span span = metrics.span(Phase.PRINT)) {
+                printer.printReport(CheckResult.AUDIT, results);
+            }
+            metricsOptions.report(metrics, spec.commandLine());
+            return CheckResult.worstExitCode(results);
+        }
+    }
+
+    /**
+     * Replays an artifact's history under its rules: every version must pass the validity rule, and
+     * every version after the first must be compatible with the versions registered before it.
+     * Disabled versions are left out.
+     */
+    private CheckResult audit(Artifact artifact, RegistryExport export, Metrics metrics) {
+        Path file = Path.of(artifact.name());
+        String validityRule = artifact.rules().get(RegistryExport.VALIDITY);
+        String compatibilityRule = artifact.rules().get(RegistryExport.COMPATIBILITY);
+        String level = describe(validityRule, compatibilityRule);
+        try {
+            // Artifacts already run concurrently, so each one is checked on its worker thread
+            SchemaChecker checker = checkers.computeIfAbsent(schemaType(artifact),
+                    type -> new SchemaChecker(type, limits, ResultCache.disabled(), 1));
+            SchemaSupport support = checker.support();
+            ValidityLevel validity = validityRule != null ? SchemaChecker.parseValidityLevel(validityRule) : ValidityLevel.NONE;
+            CompatibilityLevel compatibility = compatibilityRule != null
+                    ? SchemaChecker.parseCompatibilityLevel(compatibilityRule) : CompatibilityLevel.NONE;
+            if (validity == ValidityLevel.NONE && compatibility == CompatibilityLevel.NONE) {
+                return new CheckResult(CheckResult.AUDIT, file, level, CheckStatus.PASS, List.of());
+            }
+
+            List<Version> history = artifact.versions().stream()
+                    .filter(version -> !DISABLED.equalsIgnoreCase(version.state()))
+                    .toList();
+            List<TypedContent> contents = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            Map<String, TypedContent> references = new LinkedHashMap<>();
+            List<RuleViolation> violations = new ArrayList<>();
+            for (Version version : history) {
+                TypedContent content;
+                Map<String, TypedContent> own = new LinkedHashMap<>();
+                try (Metrics.Span span = metrics.span(Phase.READ, file)) {
+                    content = TypedContent.create(export.content(version.contentId()), support.getContentType());
+                    limits.checkContent(content);
+                    span.schemaBytes(content.getContent().bytes().length);
+                    resolve(export, version.contentId(), support, own);
+                }
+
+                if (validity != ValidityLevel.NONE) {
+                    CheckResult result = checker.validate(file, content, own, validity, metrics);
+                    result.violations().forEach(v -> violations.add(inVersion(version, v)));
+                }
+                if (compatibility != CompatibilityLevel.NONE && !contents.isEmpty()) {
+                    // As in the compatibility command: this version's references, completed with older ones'
+                    Map<String, TypedContent> combined = new LinkedHashMap<>(own);
+                    references.forEach(combined::putIfAbsent);
+                    CheckResult result = checker.compatibility(file, contents, names, content, combined,
+                            compatibility, metrics);
+                    result.violations().forEach(v -> violations.add(inVersion(version, v)));
+                }
+                contents.add(content);
+                names.add("version " + version.version());
+                own.forEach(references::putIfAbsent);
+            }
+            return new CheckResult(CheckResult.AUDIT, file, level,
+                    violations.isEmpty() ? CheckStatus.PASS : CheckStatus.FAIL, violations);
+        } catch (Exception e) {
+            return CheckResult.error(CheckResult.AUDIT, file, level, e);
+        }
+    }
+
+    /**
+     * Adds the content of every version that {@code contentId} references, directly or indirectly.
+     */
+    private static void resolve(RegistryExport export, long contentId, SchemaSupport support,
+                                Map<String, TypedContent> resolved) throws IOException {
+        for (Reference reference : export.references(contentId)) {
+            if (resolved.containsKey(reference.name())) {
+                continue;
+            }
+            Long target = export.contentId(reference.groupId(), reference.artifactId(), reference.version());
+            if (target == null) {
+                throw new IOException("Cannot resolve reference '" + reference.name() + "' to "
+                        + reference.groupId() + "/" + reference.artifactId() + " version " + reference.version()
+                        + ": not in the export");
+            }
+            resolved.put(reference.name(), TypedContent.create(export.content(target), support.getContentType()));
+            resolve(export, target, support, resolved);
+        }
+    }
+
+    private static SchemaType schemaType(Artifact artifact) {
+        if (artifact.type() == null) {
+            return null;
+        }
+        try {
+            SchemaType type = SchemaType.fromCliName(artifact.type());
+            return SchemaTypeRegistry.isSupported(type) ? type : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static RuleViolation inVersion(Version version, RuleViolation violation) {
+        return new RuleViolation("version " + version.version() + ": " + violation.getDescription(),
+                violation.getContext());
+    }
+
+    private static String describe(String validityRule, String compatibilityRule) {
+        List<String> rules = new ArrayList<>();
+        if (validityRule != null) {
+            rules.add("validity=" + validityRule);
+        }
+        if (compatibilityRule != null) {
+            rules.add("compatibility=" + compatibilityRule);
+        }
+        return rules.isEmpty() ? "none" : String.join(", ", rules);
+    }
+}
@@ -0,0 +1,33 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.cache.ResultCache;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+
+/**
+ * Result cache options shared by the checking commands.
+ */
+public class CacheOptions {
+
+    @Option(names = {"--no-cache"}, defaultValue = "false",
+            description = "Do not read or write the on-disk result cache.")
+    private boolean disabled;
+
+    @Option(names = {"--cache-dir"}, paramLabel = "<dir>",
+            description = "Result cache directory. Default: $XDG_CACHE_HOME/lilcurio or ~/.cache/lilcurio.")
+    private Path directory;
+
+    @Option(names = {"--cache-max-size"}, paramLabel = "MB", defaultValue = "256",
+            description = "Size bound of the result cache in megabytes; least recently used entries " +
+                    "are evicted beyond it. Default: ${DEFAULT-VALUE}.")
+    private long maxSizeMb;
+
+    public ResultCache open() {
+        if (disabled) {
+            return ResultCache.disabled();
+        }
+        Path dir = directory != null ? directory : ResultCache.defaultDirectory();
+        return new ResultCache(dir, maxSizeMb * 1024 * 1024);
+    }
+}
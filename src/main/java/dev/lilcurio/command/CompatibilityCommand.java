@@ -1,21 +1,24 @@
 package dev.lilcurio.command;
 
-import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CompatibilityMatrix;
+import dev.lilcurio.check.LimitExceededException;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.Phase;
 import dev.lilcurio.output.ResultPrinter;
-import dev.lilcurio.schema.SchemaSupport;
 import dev.lilcurio.schema.SchemaType;
-import dev.lilcurio.schema.SchemaTypeRegistry;
-import io.apicurio.registry.content.TypedContent;
-import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
-import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import dev.lilcurio.watch.SchemaWatch;
 import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -27,68 +30,116 @@ import java.util.concurrent.Callable;
 )
 public class CompatibilityCommand implements Callable<Integer> {
 
+    @Spec
+    private CommandSpec spec;
+
     @Parameters(arity = "2..*",
             description = "Schema files: <existing...> <proposed>. " +
                     "The last file is the proposed new version.")
     private List<Path> schemaFiles;
 
     @Option(names = {"-t", "--type"}, required = true,
-            description = "Schema type: json (avro, protobuf planned).")
+            description = "Schema type: json, avro, protobuf.")
     private String type;
 
     @Option(names = {"-l", "--level"}, defaultValue = "backward",
             description = "Compatibility level: backward, backward-transitive, " +
-                    "forward, forward-transitive, full, full-transitive, none. " +
+                    "forward, forward-transitive, full, full-transitive, none, " +
+                    "or a comma-separated list of them checked in one pass, e.g. backward,forward,full. " +
                     "Default: ${DEFAULT-VALUE}.")
     private String level;
 
-    @Option(names = {"--json"}, defaultValue = "false",
-            description = "Output results as JSON.")
-    private boolean jsonOutput;
+    @Option(names = {"-p", "--parallelism"},
+            description = "For transitive levels, number of existing versions compared concurrently. " +
+                    "Default: number of available processors.")
+    private int parallelism = BatchExecutor.defaultParallelism();
+
+    @Option(names = {"--fail-fast"}, defaultValue = "false",
+            description = "For transitive levels, stop at the first incompatible version " +
+                    "instead of reporting the differences against all of them.")
+    private boolean failFast;
+
+    @Option(names = {"--matrix"}, paramLabel = "<scope>", arity = "0..1", fallbackValue = "proposed",
+            description = "Report pairwise compatibility instead of a single verdict: of the proposed version " +
+                    "with each existing version (proposed, the default), or of every version with every " +
+                    "other (all). Also reports the earliest version the proposed one is compatible with, " +
+                    "along with all later ones. Transitive levels are applied pair by pair.")
+    private String matrix;
+
+    @Mixin
+    private OutputOptions outputOptions;
+
+    @Mixin
+    private CacheOptions cacheOptions;
+
+    @Mixin
+    private MetricsOptions metricsOptions;
+
+    @Mixin
+    private LimitOptions limitOptions;
+
+    @Mixin
+    private WatchOptions watchOptions;
 
     @Override
     public Integer call() throws Exception {
+        Metrics metrics = metricsOptions.start(CheckResult.COMPATIBILITY);
         SchemaType schemaType = SchemaType.fromCliName(type);
-        SchemaSupport support = SchemaTypeRegistry.get(schemaType);
-        CompatibilityLevel compatLevel = parseCompatibilityLevel(level);
-        String contentType = support.getContentType();
-
-        Path proposedPath = schemaFiles.get(schemaFiles.size() - 1);
-        TypedContent proposed = SchemaFileReader.read(proposedPath, contentType);
+        List<CompatibilityLevel> levels = SchemaChecker.parseCompatibilityLevels(level);
 
-        List<TypedContent> existing = new ArrayList<>();
-        for (int i = 0; i < schemaFiles.size() - 1; i++) {
-            existing.add(SchemaFileReader.read(schemaFiles.get(i), contentType));
+        SchemaChecker checker;
+        ResultPrinter printer;
+        try (Metrics.Span span = metrics.span(Phase.SETUP)) {
+            checker = new SchemaChecker(schemaType, limitOptions.limits(), cacheOptions.open(), parallelism);
+            printer = outputOptions.createPrinter(spec.commandLine());
         }
 
-        CompatibilityChecker checker = support.getCompatibilityChecker();
-        CompatibilityExecutionResult result = checker.testCompatibility(
-                compatLevel, existing, proposed, Collections.emptyMap());
-
-        ResultPrinter printer = ResultPrinter.create(jsonOutput);
-
-        if (result.isCompatible()) {
-            printer.printCompatibilitySuccess(proposedPath, compatLevel);
-            return 0;
-        } else {
-            printer.printCompatibilityFailure(
-                    proposedPath, compatLevel, result.getIncompatibleDifferences());
-            return 1;
+        if (matrix != null) {
+            if (watchOptions.isEnabled()) {
+                throw new IllegalArgumentException("--matrix cannot be combined with --watch");
+            }
+            if (levels.size() > 1) {
+                throw new IllegalArgumentException("--matrix takes a single --level");
+            }
+            boolean allPairs = switch (matrix.toLowerCase()) {
+                case "proposed" -> false;
+                case "all" -> true;
+                default -> throw new IllegalArgumentException("Invalid --matrix scope: " + matrix + ". Valid: proposed, all");
+            };
+            CompatibilityMatrix result;
+            try {
+                result = checker.matrix(schemaFiles, levels.get(0), allPairs, metrics);
+            } catch (LimitExceededException e) {
+                CheckResult limit = CheckResult.error(CheckResult.COMPATIBILITY, schemaFiles.get(schemaFiles.size() - 1),
+                        levels.get(0).toString(), e);
+                printer.print(limit);
+                return limit.exitCode();
+            }
+            try (Metrics.Span span = metrics.span(Phase.PRINT)) {
+                printer.printMatrix(result);
+            }
+            metricsOptions.report(metrics, spec.commandLine());
+            return result.isCompatible() ? 0 : 1;
         }
-    }
 
-    private CompatibilityLevel parseCompatibilityLevel(String level) {
-        return switch (level.toLowerCase().replace("-", "_")) {
-            case "backward" -> CompatibilityLevel.BACKWARD;
-            case "backward_transitive" -> CompatibilityLevel.BACKWARD_TRANSITIVE;
-            case "forward" -> CompatibilityLevel.FORWARD;
-            case "forward_transitive" -> CompatibilityLevel.FORWARD_TRANSITIVE;
-            case "full" -> CompatibilityLevel.FULL;
-            case "full_transitive" -> CompatibilityLevel.FULL_TRANSITIVE;
-            case "none" -> CompatibilityLevel.NONE;
-            default -> throw new IllegalArgumentException(
-                    "Invalid compatibility level: " + level
-                            + ". Valid: backward, backward-transitive, forward, forward-transitive, full, full-transitive, none");
+        // Every version takes part in the one check, so any change re-runs all of it
+        SchemaWatch.Check check = files -> {
+            Path proposedPath = schemaFiles.get(schemaFiles.size() - 1);
+            List<CheckResult> results = checker.compatibility(schemaFiles, levels, failFast, metrics);
+            try (Metrics.Span span = metrics.span(Phase.PRINT, proposedPath)) {
+                results.forEach(printer::resultAvailable);
+                printer.printReport(CheckResult.COMPATIBILITY, results);
+            }
+            return results;
         };
+        List<CheckResult> results = check.run(schemaFiles);
+        metricsOptions.report(metrics, spec.commandLine());
+
+        if (watchOptions.isEnabled()) {
+            List<String> inputs = schemaFiles.stream().map(Path::toString).toList();
+            watchOptions.open(checker, spec.commandLine()).run(inputs, schemaFiles,
+                    () -> schemaFiles, check);
+        }
+        return CheckResult.worstExitCode(results);
     }
 }
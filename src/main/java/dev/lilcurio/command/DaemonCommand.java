@@ -0,0 +1,58 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.LilCurio;
+import dev.lilcurio.daemon.DaemonClient;
+import dev.lilcurio.daemon.DaemonServer;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.schema.SchemaTypeRegistry;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+@Command(
+        name = "daemon",
+        mixinStandardHelpOptions = true,
+        description = "Run a resident process that serves validate, compatibility and diff requests " +
+                "over a Unix domain socket. While it runs, other lilcurio invocations forward to it " +
+                "automatically (set LILCURIO_NO_DAEMON to opt out)."
+)
+public class DaemonCommand implements Callable<Integer> {
+
+    @Spec
+    private CommandSpec spec;
+
+    @Option(names = {"--socket"}, paramLabel = "<path>",
+            description = "Socket path. Default: $LILCURIO_SOCKET, $XDG_RUNTIME_DIR/lilcurio.sock " +
+                    "or ~/.cache/lilcurio/daemon.sock.")
+    private Path socket;
+
+    @Option(names = {"--stop"}, defaultValue = "false",
+            description = "Stop the running daemon.")
+    private boolean stop;
+
+    @Override
+    public Integer call() throws Exception {
+        Path socketPath = socket != null ? socket : DaemonClient.defaultSocketPath();
+
+        if (stop) {
+            if (DaemonClient.stop(socketPath)) {
+                spec.commandLine().getOut().println("Daemon stopped.");
+                return 0;
+            }
+            spec.commandLine().getErr().println("Error: No daemon listening on " + socketPath);
+            return 2;
+        }
+
+        // Build every schema support up front so the first request is already warm
+        SchemaTypeRegistry.all();
+        Metrics.markSharedJvm();
+
+        spec.commandLine().getOut().println("lilcurio daemon listening on " + socketPath);
+        new DaemonServer(socketPath, LilCurio::commandLine).serve();
+        return 0;
+    }
+}
@@ -1,17 +1,23 @@
 package dev.lilcurio.command;
 
-import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.api.DiffOptions;
+import dev.lilcurio.api.GitDiff;
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.io.SchemaFileCollector;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.Phase;
 import dev.lilcurio.output.ResultPrinter;
-import dev.lilcurio.schema.SchemaSupport;
 import dev.lilcurio.schema.SchemaType;
-import dev.lilcurio.schema.SchemaTypeRegistry;
-import io.apicurio.registry.content.TypedContent;
-import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
-import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import dev.lilcurio.watch.SchemaWatch;
 import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -21,21 +27,30 @@ import java.util.concurrent.Callable;
 @Command(
         name = "diff",
         mixinStandardHelpOptions = true,
-        description = "Check compatibility of a schema file against its last committed version in git. " +
-                "Uses 'git show' to retrieve the previous version from HEAD."
+        description = "Check compatibility of schema files against their last committed version in git. " +
+                "Previous versions are read from HEAD (or --ref) through a single 'git cat-file' process; " +
+                "--history/--since check against several committed versions; --changed-since checks only " +
+                "the files changed since a base ref."
 )
 public class DiffCommand implements Callable<Integer> {
 
-    @Parameters(index = "0", description = "Path to the schema file (must be in a git repo).")
-    private Path schemaFile;
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(arity = "0..*", paramLabel = "<schema>",
+            description = "Schema files, directories or glob patterns (must be in a git repo). " +
+                    "With --changed-since, the files or directories to look for changes in " +
+                    "(default: the current directory).")
+    private List<String> schemaInputs;
 
     @Option(names = {"-t", "--type"}, required = true,
-            description = "Schema type: json (avro, protobuf planned).")
+            description = "Schema type: json, avro, protobuf.")
     private String type;
 
     @Option(names = {"-l", "--level"}, defaultValue = "backward",
             description = "Compatibility level: backward, backward-transitive, " +
-                    "forward, forward-transitive, full, full-transitive, none. " +
+                    "forward, forward-transitive, full, full-transitive, none, " +
+                    "or a comma-separated list of them checked in one pass, e.g. backward,forward,full. " +
                     "Default: ${DEFAULT-VALUE}.")
     private String level;
 
@@ -43,98 +58,130 @@ public class DiffCommand implements Callable<Integer> {
             description = "Git ref to compare against. Default: ${DEFAULT-VALUE}.")
     private String gitRef;
 
-    @Option(names = {"--json"}, defaultValue = "false",
-            description = "Output results as JSON.")
-    private boolean jsonOutput;
+    @Option(names = {"--history"}, paramLabel = "N",
+            description = "Check against the last N committed versions of each file (follows renames). " +
+                    "Use with a *-transitive level; other levels only use the newest version.")
+    private Integer history;
 
-    @Override
-    public Integer call() throws Exception {
-        SchemaType schemaType = SchemaType.fromCliName(type);
-        SchemaSupport support = SchemaTypeRegistry.get(schemaType);
-        CompatibilityLevel compatLevel = parseCompatibilityLevel(level);
-        String contentType = support.getContentType();
-
-        String previousContent = gitShow(gitRef, schemaFile);
-        if (previousContent == null) {
-            System.err.println("Error: File not found in git at " + gitRef + ":" + schemaFile);
-            System.err.println("Is this file tracked by git?");
-            return 2;
-        }
+    @Option(names = {"--since"}, paramLabel = "<ref>",
+            description = "Check against every committed version of each file from <ref> up to --ref " +
+                    "(follows renames). Use with a *-transitive level.")
+    private String since;
 
-        TypedContent existing = TypedContent.create(previousContent, contentType);
-        TypedContent proposed = SchemaFileReader.read(schemaFile, contentType);
+    @Option(names = {"--changed-since"}, paramLabel = "<base-ref>",
+            description = "Only check the files added, modified or renamed in <base-ref>...HEAD, each against " +
+                    "its version at <base-ref> (under its old name if renamed). Added files pass.")
+    private String changedSince;
 
-        CompatibilityChecker checker = support.getCompatibilityChecker();
-        CompatibilityExecutionResult result = checker.testCompatibility(
-                compatLevel, List.of(existing), proposed, java.util.Collections.emptyMap());
+    @Option(names = {"--fail-fast"}, defaultValue = "false",
+            description = "With --history/--since, stop at the first incompatible version " +
+                    "instead of reporting the differences against all of them.")
+    private boolean failFast;
 
-        ResultPrinter printer = ResultPrinter.create(jsonOutput);
+    @Option(names = {"-p", "--parallelism"},
+            description = "Number of files checked concurrently. Default: number of available processors.")
+    private int parallelism = BatchExecutor.defaultParallelism();
 
-        if (result.isCompatible()) {
-            printer.printCompatibilitySuccess(schemaFile, compatLevel);
-            return 0;
-        } else {
-            printer.printCompatibilityFailure(
-                    schemaFile, compatLevel, result.getIncompatibleDifferences());
-            return 1;
-        }
-    }
+    @Mixin
+    private OutputOptions outputOptions;
 
-    private String gitShow(String ref, Path filePath) throws IOException, InterruptedException {
-        // Resolve to repo-relative path (toRealPath resolves symlinks like /var -> /private/var)
-        Path repoRoot = findGitRoot(filePath);
-        Path realFile = filePath.toAbsolutePath().toRealPath();
-        String relativePath;
-        if (repoRoot != null) {
-            relativePath = repoRoot.relativize(realFile).toString();
-        } else {
-            relativePath = filePath.toString();
-        }
+    @Mixin
+    private CacheOptions cacheOptions;
 
-        ProcessBuilder pb = new ProcessBuilder("git", "show", ref + ":" + relativePath);
-        if (repoRoot != null) {
-            pb.directory(repoRoot.toFile());
-        }
-        pb.redirectErrorStream(false);
+    @Mixin
+    private MetricsOptions metricsOptions;
 
-        Process process = pb.start();
-        String stdout = new String(process.getInputStream().readAllBytes());
-        String stderr = new String(process.getErrorStream().readAllBytes());
-        int exitCode = process.waitFor();
+    @Mixin
+    private LimitOptions limitOptions;
 
-        if (exitCode != 0) {
-            return null;
-        }
-        return stdout;
-    }
+    @Mixin
+    private WatchOptions watchOptions;
 
-    private Path findGitRoot(Path from) throws IOException, InterruptedException {
-        ProcessBuilder pb = new ProcessBuilder("git", "rev-parse", "--show-toplevel");
-        pb.directory(from.toAbsolutePath().getParent().toFile());
-        pb.redirectErrorStream(false);
+    @Mixin
+    private ShardOptions shardOptions;
 
-        Process process = pb.start();
-        String stdout = new String(process.getInputStream().readAllBytes()).trim();
-        int exitCode = process.waitFor();
+    @Override
+    public Integer call() throws Exception {
+        Metrics metrics = metricsOptions.start("diff");
+        SchemaType schemaType = SchemaType.fromCliName(type);
+        List<CompatibilityLevel> levels = SchemaChecker.parseCompatibilityLevels(level);
+        DiffOptions options = new DiffOptions(gitRef, history, since, changedSince, failFast);
+        if (shardOptions.isEnabled() && watchOptions.isEnabled()) {
+            throw new IllegalArgumentException("--shard cannot be combined with --watch");
+        }
+        if (changedSince == null && (schemaInputs == null || schemaInputs.isEmpty())) {
+            throw new IllegalArgumentException("Missing schema files (or use --changed-since <base-ref>)");
+        }
+        List<String> inputs = schemaInputs != null && !schemaInputs.isEmpty() ? schemaInputs : List.of(".");
+
+        SchemaChecker checker;
+        List<Path> schemaFiles = List.of();
+        ResultPrinter printer;
+        try (Metrics.Span span = metrics.span(Phase.SETUP)) {
+            checker = new SchemaChecker(schemaType, limitOptions.limits(), cacheOptions.open(), parallelism);
+            if (changedSince == null) {
+                schemaFiles = SchemaFileCollector.collect(inputs, schemaType.getFileExtension());
+            }
+            printer = outputOptions.createPrinter(spec.commandLine());
+        }
+        if (changedSince == null && schemaFiles.isEmpty()) {
+            spec.commandLine().getErr().println("Error: No " + schemaType.getFileExtension()
+                    + " files matched " + String.join(", ", inputs));
+            return 2;
+        }
 
-        if (exitCode != 0 || stdout.isEmpty()) {
-            return null;
+        Path gitLocation = changedSince == null ? schemaFiles.get(0) : Path.of(inputs.get(0));
+        try (GitDiff diff = openDiff(checker, gitLocation, options, metrics)) {
+            SchemaWatch.Check check = files -> {
+                if (watchOptions.isEnabled()) {
+                    // Committed versions are kept from one round to the next until the base ref moves
+                    try (Metrics.Span span = metrics.span(Phase.GIT)) {
+                        diff.pinBase();
+                    }
+                }
+                List<CheckResult> results = BatchExecutor.map(files, parallelism, file -> {
+                    List<CheckResult> fileResults = diff.check(file, levels, metrics);
+                    try (Metrics.Span span = metrics.span(Phase.PRINT, file)) {
+                        fileResults.forEach(printer::resultAvailable);
+                    }
+                    return fileResults;
+                }).stream().flatMap(List::stream).toList();
+                try (Metrics.Span span = metrics.span(Phase.CACHE)) {
+                    checker.cache().evict();
+                }
+
+                try (Metrics.Span span = metrics.span(Phase.PRINT)) {
+                    printer.printReport(CheckResult.COMPATIBILITY, results);
+                }
+                return results;
+            };
+            if (changedSince != null) {
+                try (Metrics.Span span = metrics.span(Phase.GIT)) {
+                    schemaFiles = diff.changedFiles(inputs);
+                }
+            }
+            schemaFiles = shardOptions.select(schemaFiles);
+            List<CheckResult> results = check.run(schemaFiles);
+            metricsOptions.report(metrics, spec.commandLine());
+
+            if (watchOptions.isEnabled()) {
+                // The changed files are listed again each round: edits can add to them
+                SchemaWatch.Schemas schemas = changedSince == null
+                        ? () -> SchemaFileCollector.collect(inputs, schemaType.getFileExtension())
+                        : () -> diff.changedFiles(inputs);
+                watchOptions.open(checker, spec.commandLine()).run(inputs, schemaFiles, schemas, check);
+            }
+            return CheckResult.worstExitCode(results);
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Error: " + e.getMessage());
+            return 2;
         }
-        return Path.of(stdout);
     }
 
-    private CompatibilityLevel parseCompatibilityLevel(String level) {
-        return switch (level.toLowerCase().replace("-", "_")) {
-            case "backward" -> CompatibilityLevel.BACKWARD;
-            case "backward_transitive" -> CompatibilityLevel.BACKWARD_TRANSITIVE;
-            case "forward" -> CompatibilityLevel.FORWARD;
-            case "forward_transitive" -> CompatibilityLevel.FORWARD_TRANSITIVE;
-            case "full" -> CompatibilityLevel.FULL;
-            case "full_transitive" -> CompatibilityLevel.FULL_TRANSITIVE;
-            case "none" -> CompatibilityLevel.NONE;
-            default -> throw new IllegalArgumentException(
-                    "Invalid compatibility level: " + level
-                            + ". Valid: backward, backward-transitive, forward, forward-transitive, full, full-transitive, none");
-        };
+    private static GitDiff openDiff(SchemaChecker checker, Path location, DiffOptions options, Metrics metrics)
+            throws IOException, InterruptedException {
+        try (Metrics.Span span = metrics.span(Phase.GIT)) {
+            return checker.diff(location, options);
+        }
     }
 }
@@ -0,0 +1,33 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.check.CheckLimits;
+import picocli.CommandLine.Option;
+
+import java.time.Duration;
+
+/**
+ * Resource limit options shared by the checking commands.
+ */
+public class LimitOptions {
+
+    @Option(names = {"--max-schema-size"}, paramLabel = "MB", defaultValue = "16",
+            description = "Reject schemas larger than this, in megabytes, without reading them; 0 disables. " +
+                    "Default: ${DEFAULT-VALUE}.")
+    private long maxSchemaSizeMb;
+
+    @Option(names = {"--max-depth"}, paramLabel = "N", defaultValue = "128",
+            description = "Reject JSON and Avro schemas nested deeper than this; 0 disables. Default: ${DEFAULT-VALUE}.")
+    private int maxDepth;
+
+    @Option(names = {"--timeout"}, paramLabel = "<seconds>", defaultValue = "0",
+            description = "Abandon a single validation or compatibility check that runs longer than this; " +
+                    "0 disables. Default: ${DEFAULT-VALUE} (no timeout).")
+    private long timeoutSeconds;
+
+    public CheckLimits limits() {
+        if (maxSchemaSizeMb < 0 || maxDepth < 0 || timeoutSeconds < 0) {
+            throw new IllegalArgumentException("--max-schema-size, --max-depth and --timeout cannot be negative");
+        }
+        return new CheckLimits(maxSchemaSizeMb * 1024 * 1024, maxDepth, Duration.ofSeconds(timeoutSeconds));
+    }
+}
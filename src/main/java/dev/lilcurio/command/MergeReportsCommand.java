@@ -0,0 +1,76 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.output.JsonReportReader;
+import dev.lilcurio.output.JsonReportReader.Report;
+import dev.lilcurio.output.ResultPrinter;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@Command(
+        name = "merge-reports",
+        mixinStandardHelpOptions = true,
+        description = "Combine the JSON reports of a sharded run (validate or diff with --shard and --json) " +
+                "into one report, exiting with the code the whole run would have exited with."
+)
+public class MergeReportsCommand implements Callable<Integer> {
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(arity = "1..*", paramLabel = "<report>",
+            description = "JSON (or NDJSON) reports to merge, one per shard.")
+    private List<Path> reportFiles;
+
+    @Mixin
+    private OutputOptions outputOptions;
+
+    @Override
+    public Integer call() throws Exception {
+        ResultPrinter printer = outputOptions.createPrinter(spec.commandLine());
+        String command = null;
+        List<CheckResult> results = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+        try {
+            for (int i = 0; i < reportFiles.size(); i++) {
+                Path reportFile = reportFiles.get(i);
+                Report report = JsonReportReader.read(reportFile);
+                if (report.command() == null) {
+                    continue;
+                }
+                if (command != null && !command.equals(report.command())) {
+                    throw new IOException("Cannot merge " + command + " and " + report.command() + " reports");
+                }
+                command = report.command();
+                for (CheckResult result : report.results()) {
+                    // Overlapping reports mean the same shard ran twice, so another may be missing
+                    Integer previous = seen.putIfAbsent(result.file() + "\0" + result.level(), i);
+                    if (previous != null && previous != i) {
+                        throw new IOException(result.file() + " is in both " + reportFiles.get(previous)
+                                + " and " + reportFile + ": were two nodes given the same --shard?");
+                    }
+                }
+                results.addAll(report.results());
+            }
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Error: " + e.getMessage());
+            return 2;
+        }
+
+        // Streaming printers write only a summary in printReport, expecting results as they complete
+        results.forEach(printer::resultAvailable);
+        printer.printReport(command != null ? command : CheckResult.VALIDATE, results);
+        return CheckResult.worstExitCode(results);
+    }
+}
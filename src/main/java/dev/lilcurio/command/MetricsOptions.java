@@ -0,0 +1,71 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.MetricsReport;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Instrumentation options shared by the checking commands.
+ */
+public class MetricsOptions {
+
+    @Option(names = {"--metrics"}, defaultValue = "false",
+            description = "Record wall time, allocated bytes and schema size per phase and per file " +
+                    "(startup, setup, git, read, resolve, cache, fingerprint, check, print) and report them " +
+                    "with p50/p95/p99 per phase. Written to stderr unless --metrics-file is given.")
+    private boolean enabled;
+
+    @Option(names = {"--metrics-format"}, paramLabel = "<format>", defaultValue = "json",
+            description = "Metrics format: json or prometheus (text format for the node exporter's " +
+                    "textfile collector). Default: ${DEFAULT-VALUE}.")
+    private String format;
+
+    @Option(names = {"--metrics-file"}, paramLabel = "<file>",
+            description = "Write metrics to this file, replacing it atomically. Implies --metrics.")
+    private Path file;
+
+    public Metrics start(String command) {
+        if (!format.equalsIgnoreCase("json") && !format.equalsIgnoreCase("prometheus")) {
+            throw new IllegalArgumentException("Unsupported metrics format: " + format + ". Valid: json, prometheus");
+        }
+        return enabled || file != null ? Metrics.start(command) : Metrics.disabled();
+    }
+
+    public void report(Metrics metrics, CommandLine commandLine) throws IOException {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        MetricsReport report = metrics.report();
+        if (file == null) {
+            write(report, commandLine.getErr());
+            return;
+        }
+
+        Path target = file.toAbsolutePath();
+        Path tmp = Files.createTempFile(target.getParent(), ".lilcurio-metrics", ".tmp");
+        try {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(tmp))) {
+                write(report, out);
+            }
+            // The textfile collector may read at any moment, so it must never see a partial file
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void write(MetricsReport report, PrintWriter out) {
+        if (format.equalsIgnoreCase("prometheus")) {
+            report.writePrometheus(out);
+        } else {
+            report.writeJson(out);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.output.ResultPrinter;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+/**
+ * Output format options shared by the checking commands.
+ */
+public class OutputOptions {
+
+    @Option(names = {"--json"}, defaultValue = "false",
+            description = "Output results as JSON.")
+    private boolean jsonOutput;
+
+    @Option(names = {"--format"}, paramLabel = "<format>",
+            description = "Output format: plain, json, ndjson (one compact JSON object per check, " +
+                    "streamed as checks complete). Default: plain, or json with --json.")
+    private String format;
+
+    public ResultPrinter createPrinter(CommandLine commandLine) {
+        String resolved = format != null ? format : jsonOutput ? "json" : "plain";
+        return ResultPrinter.create(resolved, commandLine.getOut(), commandLine.getErr());
+    }
+}
@@ -0,0 +1,318 @@
+package dev.lilcurio.command;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.cache.ResultCache;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckLimits;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.output.NdjsonResultPrinter;
+import dev.lilcurio.refs.ReferenceSource;
+import dev.lilcurio.schema.SchemaSupport;
+import dev.lilcurio.schema.SchemaType;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Command(
+        name = "pipe",
+        mixinStandardHelpOptions = true,
+        description = "Run validate and compatibility requests read as newline-delimited JSON, " +
+                "writing one NDJSON result per request. Requests are checked concurrently."
+)
+public class PipeCommand implements Callable<Integer> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Path INLINE = Path.of("-");
+
+    @Spec
+    private CommandSpec spec;
+
+    @Option(names = {"-i", "--input"}, paramLabel = "<file>", defaultValue = "-",
+            description = "File to read requests from, or - for stdin. Default: ${DEFAULT-VALUE}.")
+    private String input;
+
+    @Option(names = {"-t", "--type"},
+            description = "Schema type for requests that don't set \"type\": json, avro, protobuf.")
+    private String type;
+
+    @Option(names = {"-p", "--parallelism"},
+            description = "Number of requests checked concurrently. Default: number of available processors.")
+    private int parallelism = BatchExecutor.defaultParallelism();
+
+    @Option(names = {"--max-in-flight"}, paramLabel = "<n>",
+            description = "Requests read ahead of the oldest unwritten result; reading pauses beyond it. " +
+                    "Default: 4 x parallelism.")
+    private Integer maxInFlight;
+
+    @Option(names = {"--unordered"}, defaultValue = "false",
+            description = "Write each result as soon as it is ready instead of in request order; " +
+                    "match results to requests by \"id\".")
+    private boolean unordered;
+
+    @Mixin
+    private CacheOptions cacheOptions;
+
+    @Mixin
+    private LimitOptions limitOptions;
+
+    private final Map<SchemaType, SchemaChecker> checkers = new ConcurrentHashMap<>();
+    private ResultCache cache;
+    private CheckLimits limits;
+
+    /**
+     * One schema of a request, given either inline or as a path relative to the working directory.
+     */
+    record Schema(Path path, String content) {
+
+        String name(String fallback) {
+            return path != null ? path.toString() : fallback;
+        }
+    }
+
+    record Request(String id, String command, String type, String level, Schema schema,
+                   List<Schema> existing, Map<String, String> references) {
+    }
+
+    record Outcome(String id, CheckResult result) {
+    }
+
+    record Line(long number, String text) {
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (type != null) {
+            SchemaType.fromCliName(type);
+        }
+        int inFlight = maxInFlight != null ? maxInFlight : 4 * Math.max(1, parallelism);
+        if (inFlight < 1) {
+            throw new IllegalArgumentException("--max-in-flight must be at least 1");
+        }
+        cache = cacheOptions.open();
+        limits = limitOptions.limits();
+        NdjsonResultPrinter printer = new NdjsonResultPrinter(spec.commandLine().getOut());
+        long[] counts = new long[CheckStatus.values().length];
+
+        try (BufferedReader reader = open()) {
+            Iterator<String> lines = reader.lines().iterator();
+            Iterator<Line> requests = new Iterator<>() {
+                private long number;
+                private String next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && lines.hasNext()) {
+                        number++;
+                        String line = lines.next();
+                        next = line.isBlank() ? null : line;
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public Line next() {
+                    hasNext();
+                    Line line = new Line(number, next);
+                    next = null;
+                    return line;
+                }
+            };
+
+            BatchExecutor.stream(requests, parallelism, inFlight, !unordered, this::check, outcome -> {
+                printer.resultAvailable(outcome.id(), outcome.result());
+                counts[outcome.result().status().ordinal()]++;
+            }, printer::flush);
+        }
+        cache.evict();
+
+        printer.printSummary("pipe", counts);
+        CheckStatus worst = CheckStatus.PASS;
+        for (CheckStatus status : CheckStatus.values()) {
+            if (counts[status.ordinal()] > 0) {
+                worst = status;
+            }
+        }
+        return worst.getExitCode();
+    }
+
+    private BufferedReader open() throws IOException {
+        if (input.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(input));
+    }
+
+    private Outcome check(Line line) {
+        String id = String.valueOf(line.number());
+        Request request = null;
+        try {
+            request = parse(line);
+            id = request.id();
+            SchemaType schemaType = SchemaType.fromCliName(request.type());
+            return new Outcome(id, switch (request.command()) {
+                case CheckResult.VALIDATE -> validate(request, schemaType);
+                case CheckResult.COMPATIBILITY -> compatibility(request, schemaType);
+                default -> throw new IllegalArgumentException("Invalid command: " + request.command()
+                        + ". Valid: validate, compatibility");
+            });
+        } catch (Exception e) {
+            String command = request != null ? request.command() : "pipe";
+            Path file = request != null && request.schema().path() != null ? request.schema().path() : INLINE;
+            return new Outcome(id, CheckResult.error(command, file, request != null ? request.level() : null, e));
+        }
+    }
+
+    private SchemaChecker checker(SchemaType schemaType) {
+        // Requests already run concurrently, so each one is checked on its worker thread
+        return checkers.computeIfAbsent(schemaType, t -> new SchemaChecker(t, limits, cache, 1));
+    }
+
+    private CheckResult validate(Request request, SchemaType schemaType) throws Exception {
+        SchemaChecker checker = checker(schemaType);
+        ValidityLevel level = SchemaChecker.parseValidityLevel(request.level() != null ? request.level() : "full");
+        Path file = request.schema().path() != null ? request.schema().path() : INLINE;
+
+        TypedContent content = read(request.schema(), checker.support());
+        Map<String, TypedContent> references = references(request, checker.support());
+        resolve(request.schema(), content, checker, references);
+        return checker.validate(file, content, references, level, Metrics.disabled());
+    }
+
+    private CheckResult compatibility(Request request, SchemaType schemaType) throws Exception {
+        SchemaChecker checker = checker(schemaType);
+        CompatibilityLevel level = SchemaChecker.parseCompatibilityLevel(
+                request.level() != null ? request.level() : "backward");
+        Path file = request.schema().path() != null ? request.schema().path() : INLINE;
+        if (request.existing().isEmpty()) {
+            throw new IllegalArgumentException("\"existing\" must list at least one version");
+        }
+
+        TypedContent proposed = read(request.schema(), checker.support());
+        List<TypedContent> existing = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < request.existing().size(); i++) {
+            existing.add(read(request.existing().get(i), checker.support()));
+            names.add(request.existing().get(i).name("existing[" + i + "]"));
+        }
+        // Same reference semantics as the compatibility command: the proposed schema's references,
+        // completed with those only older versions make
+        Map<String, TypedContent> references = references(request, checker.support());
+        resolve(request.schema(), proposed, checker, references);
+        for (int i = 0; i < existing.size(); i++) {
+            resolve(request.existing().get(i), existing.get(i), checker, references);
+        }
+        return checker.compatibility(file, existing, names, proposed, references, level, Metrics.disabled());
+    }
+
+    private TypedContent read(Schema schema, SchemaSupport support) throws IOException {
+        if (schema.path() != null) {
+            return SchemaFileReader.read(schema.path(), support.getContentType(), limits);
+        }
+        TypedContent content = TypedContent.create(schema.content(), support.getContentType());
+        limits.checkContent(content);
+        return content;
+    }
+
+    private static Map<String, TypedContent> references(Request request, SchemaSupport support) {
+        Map<String, TypedContent> references = new LinkedHashMap<>();
+        request.references().forEach((name, content) ->
+                references.put(name, TypedContent.create(content, support.getContentType())));
+        return references;
+    }
+
+    /**
+     * Resolves the references of a schema read from a file; inline schemas have no location to resolve
+     * against and rely on the request's "references".
+     */
+    private static void resolve(Schema schema, TypedContent content, SchemaChecker checker,
+                                Map<String, TypedContent> references) throws IOException {
+        if (schema.path() != null) {
+            checker.resolver().resolveMissing(ReferenceSource.files(), schema.path().toString(), content, references);
+        }
+    }
+
+    private Request parse(Line line) throws IOException {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(line.text());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request on line " + line.number() + " is not valid JSON: "
+                    + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Request on line " + line.number() + " is not a JSON object");
+        }
+        String id = node.hasNonNull("id") ? node.get("id").asText() : String.valueOf(line.number());
+        String command = text(node, "command");
+        String requestType = node.hasNonNull("type") ? text(node, "type") : type;
+        if (command == null) {
+            throw new IllegalArgumentException("Missing \"command\": validate or compatibility");
+        }
+        if (requestType == null) {
+            throw new IllegalArgumentException("Missing \"type\" and no --type given");
+        }
+
+        List<Schema> existing = new ArrayList<>();
+        if (node.has("existing")) {
+            if (!node.get("existing").isArray()) {
+                throw new IllegalArgumentException("\"existing\" must be an array of schemas");
+            }
+            for (JsonNode version : node.get("existing")) {
+                existing.add(schema(version, "existing"));
+            }
+        }
+        Map<String, String> references = new LinkedHashMap<>();
+        if (node.hasNonNull("references")) {
+            for (Map.Entry<String, JsonNode> reference : node.get("references").properties()) {
+                references.put(reference.getKey(), content(reference.getValue()));
+            }
+        }
+        return new Request(id, command, requestType, text(node, "level"), schema(node.get("schema"), "schema"),
+                existing, references);
+    }
+
+    private static Schema schema(JsonNode node, String field) {
+        if (node == null || !node.isObject() || node.hasNonNull("path") == node.hasNonNull("content")) {
+            throw new IllegalArgumentException("\"" + field + "\" must be an object with either \"path\" or \"content\"");
+        }
+        return node.hasNonNull("path")
+                ? new Schema(Path.of(node.get("path").asText()), null)
+                : new Schema(null, content(node.get("content")));
+    }
+
+    /**
+     * Inline content is either a string or, for JSON-based schema types, the schema itself.
+     */
+    private static String content(JsonNode node) {
+        return node.isTextual() ? node.asText() : node.toString();
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.check.Shard;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Options for checking one shard of a batch run on each of several CI nodes.
+ */
+public class ShardOptions {
+
+    @Option(names = {"--shard"}, paramLabel = "<i>/<n>",
+            description = "Check only the i-th of n size-balanced parts of the schema files (1 <= i <= n). " +
+                    "Every node computes the same split from the same inputs; combine the --json reports " +
+                    "of all n parts with merge-reports.")
+    private String shard;
+
+    public boolean isEnabled() {
+        return shard != null;
+    }
+
+    /**
+     * The files this run checks: all of {@code files}, or this shard's part of them.
+     */
+    public List<Path> select(List<Path> files) {
+        return shard == null ? files : Shard.parse(shard).select(files);
+    }
+}
@@ -1,73 +1,119 @@
 package dev.lilcurio.command;
 
-import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.io.SchemaFileCollector;
+import dev.lilcurio.metrics.Metrics;
+import dev.lilcurio.metrics.Phase;
 import dev.lilcurio.output.ResultPrinter;
-import dev.lilcurio.schema.SchemaSupport;
 import dev.lilcurio.schema.SchemaType;
-import dev.lilcurio.schema.SchemaTypeRegistry;
-import io.apicurio.registry.content.TypedContent;
-import io.apicurio.registry.rules.validity.ContentValidator;
+import dev.lilcurio.watch.SchemaWatch;
 import io.apicurio.registry.rules.validity.ValidityLevel;
-import io.apicurio.registry.rules.violation.RuleViolationException;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 @Command(
         name = "validate",
         mixinStandardHelpOptions = true,
-        description = "Validate a schema file for syntactic/semantic correctness."
+        description = "Validate schema files for syntactic/semantic correctness. " +
+                "Accepts files, directories (searched recursively by extension) and glob patterns."
 )
 public class ValidateCommand implements Callable<Integer> {
 
-    @Parameters(index = "0", description = "Path to the schema file to validate.")
-    private Path schemaFile;
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(arity = "1..*", paramLabel = "<schema>",
+            description = "Schema files, directories or glob patterns (e.g. 'schemas/**/*.json') to validate.")
+    private List<String> schemaInputs;
 
     @Option(names = {"-t", "--type"}, required = true,
-            description = "Schema type: json (avro, protobuf planned).")
+            description = "Schema type: json, avro, protobuf.")
     private String type;
 
     @Option(names = {"-l", "--level"}, defaultValue = "full",
             description = "Validity level: none, syntax_only, full. Default: ${DEFAULT-VALUE}.")
     private String level;
 
-    @Option(names = {"--json"}, defaultValue = "false",
-            description = "Output results as JSON.")
-    private boolean jsonOutput;
+    @Option(names = {"-p", "--parallelism"},
+            description = "Number of files validated concurrently. Default: number of available processors.")
+    private int parallelism = BatchExecutor.defaultParallelism();
+
+    @Mixin
+    private OutputOptions outputOptions;
+
+    @Mixin
+    private CacheOptions cacheOptions;
+
+    @Mixin
+    private MetricsOptions metricsOptions;
+
+    @Mixin
+    private LimitOptions limitOptions;
+
+    @Mixin
+    private WatchOptions watchOptions;
+
+    @Mixin
+    private ShardOptions shardOptions;
 
     @Override
     public Integer call() throws Exception {
+        Metrics metrics = metricsOptions.start(CheckResult.VALIDATE);
         SchemaType schemaType = SchemaType.fromCliName(type);
-        SchemaSupport support = SchemaTypeRegistry.get(schemaType);
-        ValidityLevel validityLevel = parseValidityLevel(level);
-
-        TypedContent content = SchemaFileReader.read(schemaFile, support.getContentType());
-        ContentValidator validator = support.getContentValidator();
-
-        ResultPrinter printer = ResultPrinter.create(jsonOutput);
+        ValidityLevel validityLevel = SchemaChecker.parseValidityLevel(level);
+        if (shardOptions.isEnabled() && watchOptions.isEnabled()) {
+            throw new IllegalArgumentException("--shard cannot be combined with --watch");
+        }
 
-        try {
-            validator.validate(validityLevel, content, Collections.emptyMap());
-            printer.printValidationSuccess(schemaFile, validityLevel);
-            return 0;
-        } catch (RuleViolationException e) {
-            printer.printValidationFailure(schemaFile, validityLevel, e);
-            return 1;
+        SchemaChecker checker;
+        List<Path> schemaFiles;
+        ResultPrinter printer;
+        try (Metrics.Span span = metrics.span(Phase.SETUP)) {
+            checker = new SchemaChecker(schemaType, limitOptions.limits(), cacheOptions.open(), parallelism);
+            schemaFiles = SchemaFileCollector.collect(schemaInputs, schemaType.getFileExtension());
+            printer = outputOptions.createPrinter(spec.commandLine());
         }
-    }
+        if (schemaFiles.isEmpty()) {
+            spec.commandLine().getErr().println("Error: No " + schemaType.getFileExtension()
+                    + " files matched " + String.join(", ", schemaInputs));
+            return 2;
+        }
+        schemaFiles = shardOptions.select(schemaFiles);
 
-    private ValidityLevel parseValidityLevel(String level) {
-        return switch (level.toLowerCase().replace("-", "_")) {
-            case "none" -> ValidityLevel.NONE;
-            case "syntax_only", "syntax" -> ValidityLevel.SYNTAX_ONLY;
-            case "full" -> ValidityLevel.FULL;
-            default -> throw new IllegalArgumentException(
-                    "Invalid validity level: " + level
-                            + ". Valid: none, syntax_only, full");
+        SchemaWatch.Check check = files -> {
+            List<CheckResult> results = BatchExecutor.map(files, parallelism, file -> {
+                CheckResult result = checker.validate(file, validityLevel, metrics);
+                try (Metrics.Span span = metrics.span(Phase.PRINT, file)) {
+                    printer.resultAvailable(result);
+                }
+                return result;
+            });
+            try (Metrics.Span span = metrics.span(Phase.CACHE)) {
+                checker.cache().evict();
+            }
+
+            try (Metrics.Span span = metrics.span(Phase.PRINT)) {
+                printer.printReport(CheckResult.VALIDATE, results);
+            }
+            return results;
         };
+        List<CheckResult> results = check.run(schemaFiles);
+        metricsOptions.report(metrics, spec.commandLine());
+
+        if (watchOptions.isEnabled()) {
+            watchOptions.open(checker, spec.commandLine()).run(schemaInputs, schemaFiles,
+                    () -> SchemaFileCollector.collect(schemaInputs, schemaType.getFileExtension()), check);
+        }
+        return CheckResult.worstExitCode(results);
     }
 }
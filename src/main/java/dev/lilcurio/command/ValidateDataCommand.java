@@ -0,0 +1,321 @@
+package dev.lilcurio.command;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.cache.ResultCache;
+import dev.lilcurio.check.BatchExecutor;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.output.ResultPrinter;
+import dev.lilcurio.schema.RecordValidator;
+import dev.lilcurio.schema.SchemaType;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+@Command(
+        name = "validate-data",
+        mixinStandardHelpOptions = true,
+        description = "Validate data records, e.g. sample message payloads, against a schema. Records are read " +
+                "as newline-delimited JSON, streamed rather than loaded whole, and checked concurrently " +
+                "against the schema compiled once."
+)
+public class ValidateDataCommand implements Callable<Integer> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int CHUNK_RECORDS = 256;
+    private static final Pattern ARRAY_INDEX = Pattern.compile("\\[\\d+]");
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(arity = "1..*", paramLabel = "<records>",
+            description = "NDJSON files of records, one JSON value per line, or - for stdin.")
+    private List<String> inputs;
+
+    @Option(names = {"-s", "--schema"}, required = true, paramLabel = "<schema>",
+            description = "Schema the records must conform to; the files it references are resolved from its directory.")
+    private Path schema;
+
+    @Option(names = {"-t", "--type"}, defaultValue = "json",
+            description = "Schema type; only json schemas can validate records. Default: ${DEFAULT-VALUE}.")
+    private String type;
+
+    @Option(names = {"-p", "--parallelism"},
+            description = "Number of threads validating records. Default: number of available processors.")
+    private int parallelism = BatchExecutor.defaultParallelism();
+
+    @Option(names = {"--show-failures"}, paramLabel = "N", defaultValue = "10",
+            description = "List the first N invalid records with their violations; 0 lists none. " +
+                    "Default: ${DEFAULT-VALUE}.")
+    private int showFailures;
+
+    @Option(names = {"--json"}, defaultValue = "false",
+            description = "Output the report as JSON.")
+    private boolean jsonOutput;
+
+    @Mixin
+    private LimitOptions limitOptions;
+
+    /**
+     * One record and where it starts: its 1-based line and its byte offset in the input.
+     */
+    record Record(String input, long line, long offset, JsonNode value) {
+    }
+
+    record Failure(String input, long line, long offset, List<RuleViolation> violations) {
+    }
+
+    record Checked(int records, List<Failure> failures) {
+    }
+
+    /**
+     * What the run found: counts of records and of violations, the latter by kind, and the first
+     * invalid records in input order.
+     */
+    static final class Report {
+        long records;
+        long invalid;
+        long violations;
+        final Map<String, Long> byKind = new HashMap<>();
+        final List<Failure> shown = new ArrayList<>();
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (showFailures < 0) {
+            throw new IllegalArgumentException("--show-failures cannot be negative");
+        }
+        SchemaType schemaType = SchemaType.fromCliName(type);
+        PrintWriter out = spec.commandLine().getOut();
+        PrintWriter err = spec.commandLine().getErr();
+        SchemaChecker checker = new SchemaChecker(schemaType, limitOptions.limits(), ResultCache.disabled(), parallelism);
+
+        CheckResult schemaResult = checker.validate(schema, ValidityLevel.FULL);
+        if (schemaResult.status() != CheckStatus.PASS) {
+            ResultPrinter.create(jsonOutput ? "json" : "plain", out, err).print(schemaResult);
+            // Records cannot be checked against a broken schema
+            return Math.max(2, schemaResult.status().getExitCode());
+        }
+        RecordValidator validator;
+        try {
+            validator = checker.recordValidator(schema);
+        } catch (UnsupportedOperationException e) {
+            err.println("Error: " + e.getMessage());
+            return 2;
+        }
+
+        Report report = new Report();
+        try (Records records = new Records(inputs)) {
+            BatchExecutor.stream(records, parallelism, 4 * Math.max(1, parallelism), true,
+                    chunk -> check(validator, chunk), checked -> add(report, checked), () -> {
+                    });
+        } catch (UncheckedIOException e) {
+            err.println("Error: " + e.getCause().getMessage());
+            return 2;
+        }
+
+        if (jsonOutput) {
+            printJson(report, out);
+        } else {
+            printPlain(report, out, err);
+        }
+        return report.invalid > 0 ? 1 : 0;
+    }
+
+    private static Checked check(RecordValidator validator, List<Record> chunk) {
+        List<Failure> failures = new ArrayList<>();
+        for (Record record : chunk) {
+            List<RuleViolation> violations = validator.validate(record.value());
+            if (!violations.isEmpty()) {
+                failures.add(new Failure(record.input(), record.line(), record.offset(), violations));
+            }
+        }
+        return new Checked(chunk.size(), failures);
+    }
+
+    private void add(Report report, Checked checked) {
+        report.records += checked.records();
+        report.invalid += checked.failures().size();
+        for (Failure failure : checked.failures()) {
+            report.violations += failure.violations().size();
+            for (RuleViolation violation : failure.violations()) {
+                report.byKind.merge(kind(violation), 1L, Long::sum);
+            }
+            if (report.shown.size() < showFailures) {
+                report.shown.add(failure);
+            }
+        }
+    }
+
+    /**
+     * The violation with array indices dropped from its location, so the same rule broken by
+     * different elements of an array counts as one kind.
+     */
+    private static String kind(RuleViolation violation) {
+        return ARRAY_INDEX.matcher(violation.getContext()).replaceAll("[*]") + ": " + violation.getDescription();
+    }
+
+    private static List<Map.Entry<String, Long>> sortedKinds(Report report) {
+        return report.byKind.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .toList();
+    }
+
+    private void printPlain(Report report, PrintWriter out, PrintWriter err) {
+        for (Failure failure : report.shown) {
+            err.println("INVALID: " + failure.input() + ":" + failure.line() + " (byte " + failure.offset() + ")");
+            for (RuleViolation violation : failure.violations()) {
+                err.println("  - " + violation.getDescription() + " [at: " + violation.getContext() + "]");
+            }
+        }
+        if (!report.byKind.isEmpty()) {
+            out.println("Violations by kind:");
+            for (Map.Entry<String, Long> kind : sortedKinds(report)) {
+                out.println(String.format("%10d  %s", kind.getValue(), kind.getKey()));
+            }
+        }
+        out.println("Checked " + report.records + " record(s) against " + schema + ": "
+                + (report.records - report.invalid) + " valid, " + report.invalid + " invalid, "
+                + report.violations + " violation(s)");
+    }
+
+    private void printJson(Report report, PrintWriter out) throws JsonProcessingException {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("status", (report.invalid > 0 ? CheckStatus.FAIL : CheckStatus.PASS).name());
+        root.put("command", "validate-data");
+        root.put("schema", schema.toString());
+        root.put("records", report.records);
+        root.put("valid", report.records - report.invalid);
+        root.put("invalid", report.invalid);
+        root.put("violations", report.violations);
+        ObjectNode kinds = root.putObject("violationsByKind");
+        sortedKinds(report).forEach(kind -> kinds.put(kind.getKey(), kind.getValue()));
+        ArrayNode failures = root.putArray("failures");
+        for (Failure failure : report.shown) {
+            ObjectNode item = failures.addObject()
+                    .put("input", failure.input())
+                    .put("line", failure.line())
+                    .put("offset", failure.offset());
+            ArrayNode violations = item.putArray("violations");
+            for (RuleViolation violation : failure.violations()) {
+                violations.addObject()
+                        .put("description", violation.getDescription())
+                        .put("context", violation.getContext());
+            }
+        }
+        out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root));
+        out.flush();
+    }
+
+    /**
+     * The records of each input in turn, in chunks of up to {@value #CHUNK_RECORDS} so that threads
+     * are handed work in batches. Each input is read through one streaming parser, so only the
+     * chunks in flight are held in memory.
+     */
+    private static final class Records implements Iterator<List<Record>>, AutoCloseable {
+
+        private final Iterator<String> inputs;
+        private String input;
+        private JsonParser parser;
+        private List<Record> next;
+
+        Records(List<String> inputs) {
+            this.inputs = inputs.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readChunk();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return !next.isEmpty();
+        }
+
+        @Override
+        public List<Record> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Record> chunk = next;
+            next = null;
+            return chunk;
+        }
+
+        private List<Record> readChunk() throws IOException {
+            List<Record> chunk = new ArrayList<>(CHUNK_RECORDS);
+            while (chunk.size() < CHUNK_RECORDS) {
+                if (parser == null) {
+                    if (!inputs.hasNext()) {
+                        break;
+                    }
+                    input = inputs.next();
+                    parser = MAPPER.createParser(open(input));
+                }
+                try {
+                    if (parser.nextToken() == null) {
+                        parser.close();
+                        parser = null;
+                        continue;
+                    }
+                    JsonLocation start = parser.currentTokenLocation();
+                    chunk.add(new Record(input, start.getLineNr(), start.getByteOffset(), MAPPER.readTree(parser)));
+                } catch (JsonProcessingException e) {
+                    JsonLocation at = e.getLocation();
+                    throw new IOException(input + (at != null ? ":" + at.getLineNr() : "")
+                            + ": not valid JSON: " + e.getOriginalMessage(), e);
+                }
+            }
+            return chunk;
+        }
+
+        private static InputStream open(String input) throws IOException {
+            if (input.equals("-")) {
+                return System.in;
+            }
+            try {
+                return Files.newInputStream(Path.of(input));
+            } catch (NoSuchFileException e) {
+                throw new IOException(input + ": not found", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+    }
+}
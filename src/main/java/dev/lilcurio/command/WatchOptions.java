@@ -0,0 +1,34 @@
+package dev.lilcurio.command;
+
+import dev.lilcurio.api.SchemaChecker;
+import dev.lilcurio.watch.SchemaWatch;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Watch mode options shared by the checking commands.
+ */
+public class WatchOptions {
+
+    @Option(names = {"-w", "--watch"}, defaultValue = "false",
+            description = "After the first run, keep watching the schemas and the files they reference, " +
+                    "and re-check the affected schemas whenever one changes.")
+    private boolean enabled;
+
+    @Option(names = {"--debounce"}, paramLabel = "<ms>", defaultValue = "150",
+            description = "In watch mode, wait until files have been quiet this long before re-checking. " +
+                    "Default: ${DEFAULT-VALUE}.")
+    private long debounceMillis;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SchemaWatch open(SchemaChecker checker, CommandLine commandLine) throws IOException {
+        return new SchemaWatch(Duration.ofMillis(debounceMillis), checker.support(), checker.resolver(),
+                commandLine.getErr());
+    }
+}
@@ -0,0 +1,232 @@
+package dev.lilcurio.daemon;
+
+import dev.lilcurio.BuildInfo;
+import dev.lilcurio.daemon.DaemonProtocol.Request;
+import dev.lilcurio.daemon.DaemonProtocol.Frame;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.ParseResult;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Thin client that hands a CLI invocation to a running {@link DaemonServer}. Forwarding is best
+ * effort: whenever no compatible daemon answers, the caller runs the command in-process instead.
+ */
+public class DaemonClient {
+
+    /**
+     * Subcommands whose output depends only on their arguments and files, and so can run in the daemon.
+     */
+    private static final Set<String> FORWARDED = Set.of("validate", "compatibility", "diff");
+
+    public static Path defaultSocketPath() {
+        return DaemonProtocol.defaultSocketPath();
+    }
+
+    /**
+     * Runs {@code args} in the daemon and copies its output to {@code out}/{@code err}.
+     *
+     * @return the exit code, or {@code null} if the invocation must run in-process
+     */
+    public static Integer tryForward(String[] args, CommandLine commandLine, PrintStream out, PrintStream err) {
+        if (args.length == 0 || !FORWARDED.contains(args[0]) || System.getenv("LILCURIO_NO_DAEMON") != null) {
+            return null;
+        }
+        Path socketPath = DaemonProtocol.defaultSocketPath();
+        if (!Files.exists(socketPath)) {
+            return null;
+        }
+
+        List<String> absoluteArgs;
+        try {
+            ParseResult subcommand = commandLine.parseArgs(args).subcommand();
+            if (subcommand != null && subcommand.hasMatchedOption("--watch")) {
+                // Watching runs until interrupted, which only works in-process
+                return null;
+            }
+            absoluteArgs = absolutizePaths(args, commandLine);
+        } catch (CommandLine.ParameterException e) {
+            // Let the local run report the usage error
+            return null;
+        }
+
+        String cwd = Path.of("").toAbsolutePath().toString();
+        boolean[] printed = {false};
+        try {
+            int exitCode = send(socketPath, new Request(DaemonProtocol.RUN, BuildInfo.fullVersion(), absoluteArgs),
+                    frame -> {
+                        if (frame.stdout() != null) {
+                            out.print(relativizePaths(frame.stdout(), cwd));
+                            out.flush();
+                            printed[0] = true;
+                        }
+                        // A refused request runs in-process, so the daemon's reason is not shown
+                        if (frame.stderr() != null && (frame.exitCode() == null || frame.exitCode() >= 0)) {
+                            err.print(relativizePaths(frame.stderr(), cwd));
+                            err.flush();
+                            printed[0] = true;
+                        }
+                    });
+            return exitCode < 0 ? null : exitCode;
+        } catch (IOException e) {
+            if (!printed[0]) {
+                return null;
+            }
+            // Running again in-process would repeat the output already shown
+            err.println("Error: Lost the connection to the daemon: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Asks the daemon listening on {@code socketPath} to shut down.
+     *
+     * @return {@code false} if no daemon was listening
+     */
+    public static boolean stop(Path socketPath) {
+        try {
+            send(socketPath, new Request(DaemonProtocol.STOP, BuildInfo.fullVersion(), List.of()), frame -> {
+            });
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static boolean isRunning(Path socketPath) {
+        if (!Files.exists(socketPath)) {
+            return false;
+        }
+        try (SocketChannel ignored = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sends {@code request} and hands each frame of the response to {@code frames} as it arrives.
+     *
+     * @return the exit code in the last frame
+     * @throws IOException if the connection fails or ends before the last frame
+     */
+    private static int send(Path socketPath, Request request, Consumer<Frame> frames) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            Channels.newOutputStream(channel).write(DaemonProtocol.MAPPER.writeValueAsBytes(request));
+            channel.shutdownOutput();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                Frame frame = DaemonProtocol.MAPPER.readValue(line, Frame.class);
+                frames.accept(frame);
+                if (frame.exitCode() != null) {
+                    return frame.exitCode();
+                }
+            }
+            throw new IOException("The daemon closed the connection before the command finished");
+        }
+    }
+
+    /**
+     * The daemon runs in its own working directory, so every argument that names a file, directory or
+     * glob is rewritten relative to the client's working directory before it is sent.
+     */
+    static List<String> absolutizePaths(String[] args, CommandLine commandLine) {
+        ParseResult subcommand = commandLine.parseArgs(args).subcommand();
+        List<String> result = new ArrayList<>(Arrays.asList(args));
+        if (subcommand == null) {
+            return result;
+        }
+
+        // Walk the tokens after the subcommand the way picocli matched them, so only the tokens that are
+        // positionals or values of Path options are rewritten, not every token that happens to equal one.
+        CommandSpec spec = subcommand.commandSpec();
+        String cwd = Path.of("").toAbsolutePath().toString();
+        boolean optionsEnded = false;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!optionsEnded && arg.equals("--")) {
+                optionsEnded = true;
+                continue;
+            }
+            OptionSpec option = optionsEnded ? null : option(spec, arg);
+            if (option == null) {
+                result.set(i, absolutize(cwd, arg));
+                continue;
+            }
+            // The value is attached (--cache-dir=dir, -tjson), the next token, or absent
+            int valueStart = spec.findOption(arg) != null ? -1
+                    : spec.findOption(arg.split("=", 2)[0]) != null ? arg.indexOf('=') + 1 : 2;
+            if (valueStart > 0) {
+                if (option.type() == Path.class) {
+                    result.set(i, arg.substring(0, valueStart) + absolutize(cwd, arg.substring(valueStart)));
+                }
+            } else if (option.arity().max() > 0 && i + 1 < args.length
+                    && (option.arity().min() > 0 || (!args[i + 1].equals("--") && option(spec, args[i + 1]) == null))) {
+                i++;
+                if (option.type() == Path.class) {
+                    result.set(i, absolutize(cwd, args[i]));
+                }
+            }
+        }
+        // diff --changed-since looks for changes under the working directory by default, which must be
+        // the client's. Without it, no files is a usage error the daemon must report as such.
+        if (subcommand.matchedPositionals().isEmpty() && subcommand.hasMatchedOption("--changed-since")) {
+            result.add(cwd);
+        }
+        return result;
+    }
+
+    /** The option a token names, alone or with an attached value, or null if it is not an option. */
+    private static OptionSpec option(CommandSpec spec, String arg) {
+        if (!arg.startsWith("-")) {
+            return null;
+        }
+        OptionSpec option = spec.findOption(arg.split("=", 2)[0]);
+        if (option == null && !arg.startsWith("--") && arg.length() > 2) {
+            option = spec.findOption(arg.substring(0, 2));
+        }
+        return option;
+    }
+
+    /**
+     * The daemon reports the absolute paths it was sent. Paths under the client's working directory
+     * are shown relative to it again, as an in-process run shows the relative paths it was given.
+     * Frames hold whole lines, so no path is split between two calls.
+     */
+    static String relativizePaths(String output, String cwd) {
+        if (cwd.endsWith(File.separator)) {
+            // The root: every absolute path is under it, and relative ones read no better
+            return output;
+        }
+        // Only where a path starts, so a directory that merely ends with the same names is left alone
+        return output.replaceAll("(?<![\\w.~/\\\\-])" + Pattern.quote(cwd + File.separator), "");
+    }
+
+    private static String absolutize(String cwd, String path) {
+        // Plain string checks: globs are not valid Paths on every platform
+        boolean absolute = path.startsWith("/") || path.startsWith(File.separator)
+                || (path.length() > 1 && path.charAt(1) == ':');
+        return absolute ? path : cwd + File.separator + path;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.lilcurio.daemon;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lilcurio.cache.ResultCache;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Wire format between {@link DaemonClient} and {@link DaemonServer}: one JSON request per connection
+ * over a Unix domain socket, answered by newline-delimited JSON {@link Frame}s as the command runs.
+ */
+final class DaemonProtocol {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String RUN = "run";
+    static final String STOP = "stop";
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * @param version lilcurio version and build of the client; a daemon from another build refuses the request
+     * @param args    CLI arguments, with path arguments already made absolute
+     */
+    record Request(String type, String version, List<String> args) {
+    }
+
+    /**
+     * Output the command wrote to stdout or stderr, or, in the last frame, its exit code. A negative
+     * exit code means the daemon refused the request without running it.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Frame(String stdout, String stderr, Integer exitCode) {
+
+        static Frame stdout(String text) {
+            return new Frame(text, null, null);
+        }
+
+        static Frame stderr(String text) {
+            return new Frame(null, text, null);
+        }
+
+        static Frame exit(int exitCode) {
+            return new Frame(null, null, exitCode);
+        }
+    }
+
+    /**
+     * {@code $LILCURIO_SOCKET}, else {@code $XDG_RUNTIME_DIR/lilcurio.sock}, else {@code daemon.sock}
+     * in the cache directory.
+     */
+    static Path defaultSocketPath() {
+        String explicit = System.getenv("LILCURIO_SOCKET");
+        if (explicit != null && !explicit.isBlank()) {
+            return Path.of(explicit);
+        }
+        String runtimeDir = System.getenv("XDG_RUNTIME_DIR");
+        if (runtimeDir != null && !runtimeDir.isBlank()) {
+            return Path.of(runtimeDir, "lilcurio.sock");
+        }
+        return ResultCache.defaultDirectory().resolve("daemon.sock");
+    }
+}
@@ -0,0 +1,203 @@
+package dev.lilcurio.daemon;
+
+import dev.lilcurio.BuildInfo;
+import dev.lilcurio.daemon.DaemonProtocol.Request;
+import dev.lilcurio.daemon.DaemonProtocol.Frame;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resident process that runs CLI invocations forwarded by {@link DaemonClient}. Every request gets a
+ * fresh {@link CommandLine} whose output is streamed back to the client as it is written, while
+ * schema support instances, loaded classes and JIT-compiled code stay warm across requests.
+ */
+public class DaemonServer {
+
+    private final Path socketPath;
+    private final Supplier<CommandLine> commandLineFactory;
+    private volatile ServerSocketChannel server;
+
+    public DaemonServer(Path socketPath, Supplier<CommandLine> commandLineFactory) {
+        this.socketPath = socketPath;
+        this.commandLineFactory = commandLineFactory;
+    }
+
+    /**
+     * Binds the socket and serves requests until a stop request arrives.
+     *
+     * @throws IOException if the socket cannot be bound, e.g. because another daemon is already running
+     */
+    public void serve() throws IOException {
+        if (DaemonClient.isRunning(socketPath)) {
+            throw new IOException("A daemon is already listening on " + socketPath);
+        }
+        // Left behind by a daemon that did not shut down cleanly
+        Files.deleteIfExists(socketPath);
+        Files.createDirectories(socketPath.toAbsolutePath().getParent());
+
+        ExecutorService workers = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "lilcurio-daemon-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try (ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            bindPrivately(channel, socketPath);
+            server = channel;
+
+            while (channel.isOpen()) {
+                SocketChannel client;
+                try {
+                    client = channel.accept();
+                } catch (AsynchronousCloseException e) {
+                    break;
+                }
+                workers.submit(() -> handle(client));
+            }
+        } finally {
+            workers.shutdown();
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client) {
+            InputStream in = Channels.newInputStream(client);
+            Request request = DaemonProtocol.MAPPER.readValue(in.readAllBytes(), Request.class);
+            Frames frames = new Frames(Channels.newOutputStream(client));
+
+            if (!BuildInfo.fullVersion().equals(request.version())) {
+                frames.send(new Frame(null, "Daemon version " + BuildInfo.fullVersion()
+                        + " does not match client version " + request.version() + "\n", -1));
+            } else if (DaemonProtocol.STOP.equals(request.type())) {
+                frames.send(Frame.stdout("Daemon stopped.\n"));
+                frames.send(Frame.exit(0));
+                server.close();
+            } else {
+                run(request, frames);
+            }
+        } catch (IOException e) {
+            // The client went away; nothing to report to
+        }
+    }
+
+    private void run(Request request, Frames frames) throws IOException {
+        PrintWriter stdout = new PrintWriter(new FrameWriter(frames, Frame::stdout), true);
+        PrintWriter stderr = new PrintWriter(new FrameWriter(frames, Frame::stderr), true);
+        CommandLine commandLine = commandLineFactory.get()
+                .setOut(stdout)
+                .setErr(stderr);
+        int exitCode = commandLine.execute(request.args().toArray(String[]::new));
+        stdout.flush();
+        stderr.flush();
+        frames.send(Frame.exit(exitCode));
+    }
+
+    /**
+     * The response to one request, written a frame per line. Frames of stdout and stderr interleave
+     * in the order they were written.
+     */
+    private static final class Frames {
+
+        private final OutputStream out;
+
+        Frames(OutputStream out) {
+            this.out = out;
+        }
+
+        synchronized void send(Frame frame) throws IOException {
+            out.write(DaemonProtocol.MAPPER.writeValueAsBytes(frame));
+            out.write('\n');
+        }
+    }
+
+    /**
+     * One output stream of a command, sent whenever the command flushes it, as printers do after each
+     * result. Between flushes, output is sent once a few kilobytes have built up, in whole lines so that
+     * no line is split between frames.
+     */
+    private static final class FrameWriter extends Writer {
+
+        private static final int MAX_BUFFERED = 8192;
+
+        private final Frames frames;
+        private final Function<String, Frame> frame;
+        private final StringBuilder buffer = new StringBuilder();
+
+        FrameWriter(Frames frames, Function<String, Frame> frame) {
+            this.frames = frames;
+            this.frame = frame;
+        }
+
+        @Override
+        public synchronized void write(char[] chars, int offset, int length) throws IOException {
+            buffer.append(chars, offset, length);
+            if (buffer.length() >= MAX_BUFFERED) {
+                send(buffer.lastIndexOf("\n") + 1);
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            send(buffer.length());
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private void send(int length) throws IOException {
+            if (length > 0) {
+                String text = buffer.substring(0, length);
+                buffer.delete(0, length);
+                frames.send(frame.apply(text));
+            }
+        }
+    }
+
+    /**
+     * Binds {@code channel} to {@code socketPath} without the socket ever being open to other users:
+     * it is bound in a directory only the owner can enter, restricted to the owner there, and only
+     * then moved into place.
+     */
+    private static void bindPrivately(ServerSocketChannel channel, Path socketPath) throws IOException {
+        Path privateDir;
+        try {
+            privateDir = Files.createTempDirectory(socketPath.toAbsolutePath().getParent(), ".lilcurio",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (UnsupportedOperationException e) {
+            // Non-POSIX file systems rely on the permissions of the parent directory
+            channel.bind(UnixDomainSocketAddress.of(socketPath));
+            return;
+        }
+        Path bound = privateDir.resolve("daemon.sock");
+        try {
+            channel.bind(UnixDomainSocketAddress.of(bound));
+            Files.setPosixFilePermissions(bound, PosixFilePermissions.fromString("rw-------"));
+            Files.move(bound, socketPath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(bound);
+            Files.delete(privateDir);
+        }
+    }
+}
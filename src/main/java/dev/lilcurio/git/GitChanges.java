@@ -0,0 +1,62 @@
+package dev.lilcurio.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the files changed between a base ref and HEAD with a single
+ * {@code git diff --name-status -z -M <base>...HEAD}, so unchanged files never need to be looked at.
+ */
+public class GitChanges {
+
+    /**
+     * A file added, modified or renamed since the base. {@code previousPath} is its path at the base
+     * (the old name for renames), or {@code null} if it did not exist there. Paths are repo-relative.
+     */
+    public record Change(String path, String previousPath) {
+    }
+
+    /**
+     * @param base      the ref the changes are measured from; the range is {@code base...HEAD}
+     * @param pathspecs repo-relative paths limiting the files considered
+     */
+    public static List<Change> since(Path repoRoot, String base, List<String> pathspecs)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                "git", "-c", "core.quotePath=false", "diff", "--name-status", "-z", "-M",
+                "--diff-filter=AMRT", base + "...HEAD", "--"));
+        command.addAll(pathspecs);
+
+        Process process = new ProcessBuilder(command)
+                .directory(repoRoot.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String stdout = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException("git diff failed for " + base + "...HEAD. Is " + base + " a valid ref?");
+        }
+        return parse(stdout);
+    }
+
+    // <status>\0<path>\0, or R<score>\0<old-path>\0<new-path>\0 for renames
+    static List<Change> parse(String output) {
+        List<Change> changes = new ArrayList<>();
+        String[] fields = output.split("\0");
+        int i = 0;
+        while (i < fields.length && !fields[i].isEmpty()) {
+            char status = fields[i].charAt(0);
+            if (status == 'R') {
+                changes.add(new Change(fields[i + 2], fields[i + 1]));
+                i += 3;
+            } else {
+                changes.add(new Change(fields[i + 1], status == 'A' ? null : fields[i + 1]));
+                i += 2;
+            }
+        }
+        return changes;
+    }
+}
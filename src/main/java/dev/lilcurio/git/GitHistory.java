@@ -0,0 +1,80 @@
+package dev.lilcurio.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lists the committed revisions of a single file via {@code git log --follow --raw}, newest first.
+ * Only commit ids, paths and blob ids are collected; contents are read on demand through
+ * {@link GitObjectReader}. Revisions that leave the content unchanged (pure renames, reverts to an
+ * already listed version) are dropped, since they add nothing to a compatibility check.
+ */
+public class GitHistory {
+
+    private static final char RECORD_SEPARATOR = '\u001e';
+    private static final String NULL_OID = "0".repeat(40);
+
+    /**
+     * A commit that changed the file, with the file's path as of that commit (renames are followed),
+     * its path just before the commit, and the id of the blob holding its content.
+     */
+    public record Revision(String commit, String path, String previousPath, String blob) {
+    }
+
+    /**
+     * @param range    a revision or range accepted by {@code git log}, e.g. {@code HEAD} or {@code main..HEAD}
+     * @param maxCount maximum number of distinct versions to return, or 0 for no limit
+     */
+    public static List<Revision> log(Path repoRoot, String path, String range, int maxCount)
+            throws IOException, InterruptedException {
+        List<String> command = List.of(
+                "git", "-c", "core.quotePath=false", "log", "--follow", "--raw", "--no-abbrev",
+                "--format=" + RECORD_SEPARATOR + "%H", range, "--", path);
+
+        Process process = new ProcessBuilder(command)
+                .directory(repoRoot.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String stdout = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException("git log failed for " + range + " -- " + path);
+        }
+
+        List<Revision> revisions = new ArrayList<>();
+        Set<String> seenBlobs = new HashSet<>();
+        for (String record : stdout.split(String.valueOf(RECORD_SEPARATOR))) {
+            Revision revision = parse(record);
+            if (revision != null && seenBlobs.add(revision.blob())) {
+                revisions.add(revision);
+                if (maxCount > 0 && revisions.size() == maxCount) {
+                    break;
+                }
+            }
+        }
+        return revisions;
+    }
+
+    // <commit>\n\n:<mode> <mode> <src-blob> <dst-blob> <status>\t<path>[\t<new-path>]
+    private static Revision parse(String record) {
+        String[] lines = record.strip().split("\n");
+        for (int i = 1; i < lines.length; i++) {
+            if (!lines[i].startsWith(":")) {
+                continue;
+            }
+            String[] fields = lines[i].split("\t");
+            String[] meta = fields[0].split(" ");
+            // Merge commits list no changes; deletions leave no content behind
+            if (meta.length < 5 || meta[3].equals(NULL_OID)) {
+                return null;
+            }
+            return new Revision(lines[0].strip(), fields[fields.length - 1], fields[1], meta[3]);
+        }
+        return null;
+    }
+}
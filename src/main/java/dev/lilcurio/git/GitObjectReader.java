@@ -0,0 +1,156 @@
+package dev.lilcurio.git;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads blobs from a git repository over a single long-lived {@code git cat-file --batch} process.
+ * The repository root is resolved once; every {@code ref:path} lookup then costs one round trip
+ * over the pipe instead of a new {@code git} process. Lookups are serialized, so one reader can
+ * be shared by concurrent workers.
+ */
+public class GitObjectReader implements Closeable {
+
+    private final Path repoRoot;
+    private final Process process;
+    private final OutputStream requests;
+    private final InputStream responses;
+
+    private GitObjectReader(Path repoRoot) throws IOException {
+        this.repoRoot = repoRoot;
+        this.process = new ProcessBuilder("git", "cat-file", "--batch")
+                .directory(repoRoot.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        this.requests = new BufferedOutputStream(process.getOutputStream());
+        this.responses = new BufferedInputStream(process.getInputStream(), 64 * 1024);
+    }
+
+    /**
+     * Opens a reader for the repository containing {@code dir}.
+     *
+     * @throws IOException if {@code dir} is not inside a git work tree
+     */
+    public static GitObjectReader open(Path dir) throws IOException, InterruptedException {
+        return new GitObjectReader(findGitRoot(dir));
+    }
+
+    public Path getRepoRoot() {
+        return repoRoot;
+    }
+
+    /**
+     * Returns the repo-relative path of {@code file}, using '/' separators as git expects.
+     * Symlinks are resolved first (e.g. /var -> /private/var on macOS) so the path lines up with the root.
+     */
+    public String relativize(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path real = absolute.toFile().exists() ? absolute.toRealPath() : absolute;
+        if (!real.startsWith(repoRoot)) {
+            throw new IOException("File is outside the git repository " + repoRoot + ": " + file);
+        }
+        return repoRoot.relativize(real).toString().replace('\\', '/');
+    }
+
+    /**
+     * Reads the content of {@code file} as of {@code ref}, or {@code null} if it does not exist there.
+     */
+    public byte[] readBlob(String ref, Path file) throws IOException {
+        return readObject(ref + ":" + relativize(file));
+    }
+
+    /**
+     * Reads any object spec understood by {@code git cat-file}, or {@code null} if it is missing.
+     */
+    public synchronized byte[] readObject(String spec) throws IOException {
+        String[] header = request(spec);
+        return header != null ? readContent(spec, header) : null;
+    }
+
+    /**
+     * Resolves an object spec such as {@code HEAD^{commit}} to its object id, or {@code null} if it
+     * is missing. Unlike a ref, the id keeps naming the same content after the ref moves.
+     */
+    public synchronized String resolve(String spec) throws IOException {
+        String[] header = request(spec);
+        if (header == null) {
+            return null;
+        }
+        readContent(spec, header);
+        return header[0];
+    }
+
+    private String[] request(String spec) throws IOException {
+        requests.write((spec + "\n").getBytes(StandardCharsets.UTF_8));
+        requests.flush();
+
+        String header = readLine();
+        // "<oid> <type> <size>" on success, "<spec> missing" / "<spec> ambiguous" otherwise
+        if (header.endsWith(" missing") || header.endsWith(" ambiguous")) {
+            return null;
+        }
+        String[] parts = header.split(" ");
+        if (parts.length != 3) {
+            throw new IOException("Unexpected response from git cat-file: " + header);
+        }
+        return parts;
+    }
+
+    private byte[] readContent(String spec, String[] header) throws IOException {
+        int size = Integer.parseInt(header[2]);
+        byte[] content = responses.readNBytes(size);
+        if (content.length != size || responses.read() != '\n') {
+            throw new EOFException("Truncated response from git cat-file for " + spec);
+        }
+        return content;
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = responses.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("git cat-file exited unexpectedly");
+            }
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        requests.close();
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroy();
+            }
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Path findGitRoot(Path dir) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder("git", "rev-parse", "--show-toplevel");
+        pb.directory(dir.toAbsolutePath().toFile());
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+
+        Process process = pb.start();
+        String stdout = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        int exitCode = process.waitFor();
+
+        if (exitCode != 0 || stdout.isEmpty()) {
+            throw new IOException("Not inside a git repository: " + dir.toAbsolutePath());
+        }
+        return Path.of(stdout).toRealPath();
+    }
+}
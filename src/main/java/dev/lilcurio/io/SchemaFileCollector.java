@@ -0,0 +1,98 @@
+package dev.lilcurio.io;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Expands CLI arguments (files, directories, glob patterns) into a de-duplicated list of schema files.
+ * Directories are walked recursively and filtered by extension; explicit files are kept as given.
+ */
+public class SchemaFileCollector {
+
+    private static final String GLOB_CHARS = "*?[{";
+
+    public static List<Path> collect(List<String> inputs, String extension) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String input : inputs) {
+            if (isGlob(input)) {
+                collectGlob(input, files);
+            } else {
+                Path path = Path.of(input);
+                if (Files.isDirectory(path)) {
+                    collectDirectory(path, extension, files);
+                } else {
+                    files.add(path.normalize());
+                }
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * The directory under which {@code input} can match files: the directory itself, a glob's fixed
+     * leading directories, or a file's parent.
+     */
+    public static Path root(String input) {
+        if (isGlob(input)) {
+            return globBase(input);
+        }
+        Path path = Path.of(input);
+        if (Files.isDirectory(path)) {
+            return path;
+        }
+        return path.toAbsolutePath().getParent();
+    }
+
+    public static boolean isGlob(String input) {
+        for (char c : GLOB_CHARS.toCharArray()) {
+            if (input.indexOf(c) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collectDirectory(Path dir, String extension, Set<Path> files) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(extension))
+                    .sorted()
+                    .forEach(p -> files.add(p.normalize()));
+        }
+    }
+
+    private static void collectGlob(String pattern, Set<Path> files) throws IOException {
+        Path base = globBase(pattern);
+        if (!Files.isDirectory(base)) {
+            return;
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> walk = Files.walk(base)) {
+            walk.filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .forEach(p -> files.add(p.normalize()));
+        }
+    }
+
+    private static Path globBase(String pattern) {
+        String separator = FileSystems.getDefault().getSeparator();
+        String[] segments = pattern.split(separator.equals("\\") ? "\\\\" : separator, -1);
+        StringBuilder base = new StringBuilder();
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (isGlob(segments[i])) {
+                break;
+            }
+            base.append(segments[i]).append(separator);
+        }
+        return Path.of(base.toString());
+    }
+}
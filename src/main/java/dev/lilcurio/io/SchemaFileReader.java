@@ -1,5 +1,6 @@
 package dev.lilcurio.io;
 
+import dev.lilcurio.check.CheckLimits;
 import io.apicurio.registry.content.TypedContent;
 
 import java.io.IOException;
@@ -12,4 +13,17 @@ public class SchemaFileReader {
         String content = Files.readString(filePath);
         return TypedContent.create(content, contentType);
     }
+
+    /**
+     * Reads a schema within {@code limits}: an oversized file is rejected before it is read, and a
+     * too deeply nested one right after.
+     *
+     * @throws dev.lilcurio.check.LimitExceededException if the schema exceeds a limit
+     */
+    public static TypedContent read(Path filePath, String contentType, CheckLimits limits) throws IOException {
+        limits.checkSize(Files.size(filePath));
+        TypedContent content = read(filePath, contentType);
+        limits.checkContent(content);
+        return content;
+    }
 }
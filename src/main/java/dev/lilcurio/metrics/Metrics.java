@@ -0,0 +1,153 @@
+package dev.lilcurio.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records wall time, bytes allocated by the current thread and schema sizes per phase and per
+ * file. Spans nest: a span opened inside another is subtracted from it, so every sample is the
+ * time spent in that phase alone. Work handed to another thread reports what it allocated with
+ * {@link #allocatedElsewhere}. A disabled instance hands out a shared no-op span.
+ */
+public class Metrics {
+
+    private static final Metrics DISABLED = new Metrics(null);
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+    private static volatile boolean sharedJvm;
+
+    private final String command;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Sample> samples = new ConcurrentLinkedQueue<>();
+
+    record Sample(Phase phase, Path file, long wallNanos, long allocatedBytes, long schemaBytes) {
+    }
+
+    private Metrics(String command) {
+        this.command = command;
+    }
+
+    public static Metrics start(String command) {
+        Metrics metrics = new Metrics(command);
+        if (!sharedJvm) {
+            long uptimeNanos = ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+            metrics.samples.add(new Sample(Phase.STARTUP, null, uptimeNanos, -1, 0));
+        }
+        return metrics;
+    }
+
+    public static Metrics disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Marks this JVM as serving many commands (daemon mode), so its uptime is not reported as startup.
+     */
+    public static void markSharedJvm() {
+        sharedJvm = true;
+    }
+
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    public Span span(Phase phase) {
+        return span(phase, null);
+    }
+
+    public Span span(Phase phase, Path file) {
+        return isEnabled() ? new Span(this, phase, file) : Span.NOOP;
+    }
+
+    public MetricsReport report() {
+        return new MetricsReport(command, System.nanoTime() - startNanos, THREADS != null, samples);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 if the JVM does not count them.
+     */
+    public static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Attributes {@code bytes}, allocated by another thread on this thread's behalf, to the span open
+     * on this thread, if any.
+     */
+    public static void allocatedElsewhere(long bytes) {
+        Span span = CURRENT.get();
+        if (span != null) {
+            span.allocatedElsewhere += bytes;
+        }
+    }
+
+    public static final class Span implements AutoCloseable {
+
+        private static final Span NOOP = new Span(null, null, null);
+
+        private final Metrics metrics;
+        private final Phase phase;
+        private final Path file;
+        private final Span parent;
+        private final long startNanos;
+        private final long startAllocated;
+        private long childNanos;
+        private long childAllocated;
+        private long allocatedElsewhere;
+        private long schemaBytes;
+
+        private Span(Metrics metrics, Phase phase, Path file) {
+            this.metrics = metrics;
+            this.phase = phase;
+            this.file = file;
+            if (metrics == null) {
+                this.parent = null;
+                this.startNanos = 0;
+                this.startAllocated = 0;
+                return;
+            }
+            this.parent = CURRENT.get();
+            CURRENT.set(this);
+            this.startAllocated = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Attributes {@code bytes} of schema content to this span's file.
+         */
+        public Span schemaBytes(long bytes) {
+            schemaBytes += bytes;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (metrics == null) {
+                return;
+            }
+            long wall = System.nanoTime() - startNanos;
+            long allocated = allocatedBytes() - startAllocated + allocatedElsewhere;
+            CURRENT.set(parent);
+            if (parent != null) {
+                parent.childNanos += wall;
+                parent.childAllocated += allocated;
+                // Counted in the parent's total too, so that subtracting this span's total leaves its own
+                parent.allocatedElsewhere += allocatedElsewhere;
+            }
+            metrics.samples.add(new Sample(phase, file, wall - childNanos,
+                    THREADS != null ? allocated - childAllocated : -1, schemaBytes));
+        }
+    }
+}
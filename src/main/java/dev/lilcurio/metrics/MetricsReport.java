@@ -0,0 +1,209 @@
+package dev.lilcurio.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.lilcurio.metrics.Metrics.Sample;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aggregated metrics of one run: per-file totals for each phase, and per-phase distributions over
+ * files, so that a few pathological schemas stand out in the high percentiles.
+ */
+public class MetricsReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public record PhaseTotal(long wallNanos, long allocatedBytes) {
+
+        static PhaseTotal of(Sample sample) {
+            return new PhaseTotal(sample.wallNanos(), sample.allocatedBytes());
+        }
+
+        PhaseTotal plus(PhaseTotal other) {
+            return new PhaseTotal(wallNanos + other.wallNanos, sumAllocated(allocatedBytes, other.allocatedBytes));
+        }
+    }
+
+    public record FileMetrics(Path file, long schemaBytes, Map<Phase, PhaseTotal> phases) {
+    }
+
+    public record PhaseStats(int count, long totalNanos, long p50Nanos, long p95Nanos, long p99Nanos,
+                             long maxNanos, long allocatedBytes) {
+    }
+
+    private final String command;
+    private final long wallNanos;
+    private final boolean allocationTracked;
+    private final List<FileMetrics> files;
+    private final Map<Phase, PhaseStats> phases;
+
+    MetricsReport(String command, long wallNanos, boolean allocationTracked, Collection<Sample> samples) {
+        this.command = command;
+        this.wallNanos = wallNanos;
+        this.allocationTracked = allocationTracked;
+
+        // Each file contributes its total per phase; run-level samples (no file) contribute individually
+        Map<Path, Map<Phase, PhaseTotal>> perFile = new LinkedHashMap<>();
+        Map<Path, Long> schemaBytes = new LinkedHashMap<>();
+        Map<Phase, List<PhaseTotal>> values = new EnumMap<>(Phase.class);
+        for (Sample sample : samples) {
+            if (sample.file() == null) {
+                values.computeIfAbsent(sample.phase(), p -> new ArrayList<>()).add(PhaseTotal.of(sample));
+            } else {
+                perFile.computeIfAbsent(sample.file(), f -> new EnumMap<>(Phase.class))
+                        .merge(sample.phase(), PhaseTotal.of(sample), PhaseTotal::plus);
+                schemaBytes.merge(sample.file(), sample.schemaBytes(), Long::sum);
+            }
+        }
+
+        this.files = new ArrayList<>();
+        perFile.forEach((file, totals) -> {
+            files.add(new FileMetrics(file, schemaBytes.get(file), totals));
+            totals.forEach((phase, total) -> values.computeIfAbsent(phase, p -> new ArrayList<>()).add(total));
+        });
+
+        this.phases = new EnumMap<>(Phase.class);
+        values.forEach((phase, totals) -> phases.put(phase, stats(totals)));
+    }
+
+    public List<FileMetrics> files() {
+        return files;
+    }
+
+    public Map<Phase, PhaseStats> phases() {
+        return phases;
+    }
+
+    public void writeJson(PrintWriter out) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode metrics = root.putObject("metrics");
+        metrics.put("command", command);
+        metrics.put("wallMillis", millis(wallNanos));
+        metrics.put("allocationTracked", allocationTracked);
+
+        ObjectNode phaseNodes = metrics.putObject("phases");
+        phases.forEach((phase, stats) -> {
+            ObjectNode node = phaseNodes.putObject(phase.label());
+            node.put("count", stats.count());
+            node.put("totalMillis", millis(stats.totalNanos()));
+            node.put("p50Millis", millis(stats.p50Nanos()));
+            node.put("p95Millis", millis(stats.p95Nanos()));
+            node.put("p99Millis", millis(stats.p99Nanos()));
+            node.put("maxMillis", millis(stats.maxNanos()));
+            if (stats.allocatedBytes() >= 0) {
+                node.put("allocatedBytes", stats.allocatedBytes());
+            }
+        });
+
+        ArrayNode fileNodes = metrics.putArray("files");
+        for (FileMetrics file : files) {
+            ObjectNode node = fileNodes.addObject();
+            node.put("file", file.file().toString());
+            node.put("schemaBytes", file.schemaBytes());
+            ObjectNode filePhases = node.putObject("phases");
+            file.phases().forEach((phase, total) -> {
+                ObjectNode phaseNode = filePhases.putObject(phase.label());
+                phaseNode.put("millis", millis(total.wallNanos()));
+                if (total.allocatedBytes() >= 0) {
+                    phaseNode.put("allocatedBytes", total.allocatedBytes());
+                }
+            });
+        }
+
+        try {
+            out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the report in the Prometheus text exposition format, for the node exporter's textfile
+     * collector. Per-file values are left out to keep label cardinality bounded.
+     */
+    public void writePrometheus(PrintWriter out) {
+        String labels = "command=\"" + command + "\"";
+
+        out.println("# HELP lilcurio_run_duration_seconds Wall time of the whole run.");
+        out.println("# TYPE lilcurio_run_duration_seconds gauge");
+        out.println("lilcurio_run_duration_seconds{" + labels + "} " + seconds(wallNanos));
+
+        out.println("# HELP lilcurio_files Number of files measured in the run.");
+        out.println("# TYPE lilcurio_files gauge");
+        out.println("lilcurio_files{" + labels + "} " + files.size());
+
+        out.println("# HELP lilcurio_schema_bytes Total size of the schemas read in the run.");
+        out.println("# TYPE lilcurio_schema_bytes gauge");
+        out.println("lilcurio_schema_bytes{" + labels + "} " + files.stream().mapToLong(FileMetrics::schemaBytes).sum());
+
+        out.println("# HELP lilcurio_phase_duration_seconds Wall time spent in each phase, per file.");
+        out.println("# TYPE lilcurio_phase_duration_seconds summary");
+        phases.forEach((phase, stats) -> {
+            String phaseLabels = labels + ",phase=\"" + phase.label() + "\"";
+            out.println("lilcurio_phase_duration_seconds{" + phaseLabels + ",quantile=\"0.5\"} " + seconds(stats.p50Nanos()));
+            out.println("lilcurio_phase_duration_seconds{" + phaseLabels + ",quantile=\"0.95\"} " + seconds(stats.p95Nanos()));
+            out.println("lilcurio_phase_duration_seconds{" + phaseLabels + ",quantile=\"0.99\"} " + seconds(stats.p99Nanos()));
+            out.println("lilcurio_phase_duration_seconds_sum{" + phaseLabels + "} " + seconds(stats.totalNanos()));
+            out.println("lilcurio_phase_duration_seconds_count{" + phaseLabels + "} " + stats.count());
+        });
+
+        if (allocationTracked) {
+            out.println("# HELP lilcurio_phase_allocated_bytes Bytes allocated by the thread running each phase.");
+            out.println("# TYPE lilcurio_phase_allocated_bytes gauge");
+            phases.forEach((phase, stats) -> {
+                if (stats.allocatedBytes() >= 0) {
+                    out.println("lilcurio_phase_allocated_bytes{" + labels + ",phase=\"" + phase.label() + "\"} "
+                            + stats.allocatedBytes());
+                }
+            });
+        }
+        out.flush();
+    }
+
+    private static PhaseStats stats(List<PhaseTotal> totals) {
+        long[] sorted = totals.stream().mapToLong(PhaseTotal::wallNanos).sorted().toArray();
+        long allocated = 0;
+        for (PhaseTotal total : totals) {
+            allocated = sumAllocated(allocated, total.allocatedBytes());
+        }
+        return new PhaseStats(sorted.length, Arrays.stream(sorted).sum(),
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted[sorted.length - 1], allocated);
+    }
+
+    /**
+     * Nearest-rank percentile of an ascending array.
+     */
+    static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Sums allocation counts, where -1 means "not measured" and is contagious.
+     */
+    private static long sumAllocated(long a, long b) {
+        return a < 0 || b < 0 ? -1 : a + b;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
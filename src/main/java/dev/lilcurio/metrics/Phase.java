@@ -0,0 +1,17 @@
+package dev.lilcurio.metrics;
+
+public enum Phase {
+    STARTUP,
+    SETUP,
+    GIT,
+    READ,
+    RESOLVE,
+    CACHE,
+    FINGERPRINT,
+    CHECK,
+    PRINT;
+
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,87 @@
+package dev.lilcurio.output;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads back the results in reports written by {@link JsonResultPrinter}: a batch report, a single
+ * result, or a sequence of them, such as several runs appended to one file. NDJSON output is read
+ * too, skipping its summary records.
+ */
+public final class JsonReportReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The results of one report file, and the command that produced them.
+     */
+    public record Report(Path file, String command, List<CheckResult> results) {
+    }
+
+    private JsonReportReader() {
+    }
+
+    public static Report read(Path file) throws IOException {
+        String command = null;
+        List<CheckResult> results = new ArrayList<>();
+        try (MappingIterator<JsonNode> nodes = MAPPER.readerFor(JsonNode.class).readValues(file.toFile())) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                if (node.path("type").asText().equals("summary")) {
+                    continue;
+                }
+                if (!node.isObject() || node.has("matrix") || !node.hasNonNull("command")) {
+                    throw new IOException(file + " is not a lilcurio JSON report");
+                }
+                String nodeCommand = node.get("command").asText();
+                if (command != null && !command.equals(nodeCommand)) {
+                    throw new IOException(file + " mixes " + command + " and " + nodeCommand + " results");
+                }
+                command = nodeCommand;
+                if (node.has("results")) {
+                    for (JsonNode result : node.get("results")) {
+                        results.add(toResult(file, result));
+                    }
+                } else {
+                    results.add(toResult(file, node));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IOException(file + " is not valid JSON: " + e.getOriginalMessage(), e);
+        }
+        return new Report(file, command, results);
+    }
+
+    private static CheckResult toResult(Path report, JsonNode node) throws IOException {
+        if (!node.hasNonNull("status") || !node.hasNonNull("file")) {
+            throw new IOException(report + " holds a result without a status or file");
+        }
+        CheckStatus status;
+        try {
+            status = CheckStatus.valueOf(node.get("status").asText());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(report + " holds a result with unknown status " + node.get("status").asText());
+        }
+        List<RuleViolation> violations = new ArrayList<>();
+        for (JsonNode violation : node.path("violations")) {
+            violations.add(new RuleViolation(violation.path("description").asText(),
+                    violation.hasNonNull("context") ? violation.get("context").asText() : null));
+        }
+        List<String> skipped = new ArrayList<>();
+        for (JsonNode version : node.path("skipped")) {
+            skipped.add(version.asText());
+        }
+        return new CheckResult(node.path("command").asText(), Path.of(node.get("file").asText()),
+                node.path("level").asText(), status, violations, skipped);
+    }
+}
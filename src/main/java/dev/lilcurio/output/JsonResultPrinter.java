@@ -2,96 +2,118 @@ package dev.lilcurio.output;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
-import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
-import io.apicurio.registry.rules.validity.ValidityLevel;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.check.CompatibilityMatrix;
 import io.apicurio.registry.rules.violation.RuleViolation;
-import io.apicurio.registry.rules.violation.RuleViolationException;
 
-import java.nio.file.Path;
-import java.util.Set;
+import java.io.PrintWriter;
+import java.util.List;
 
 public class JsonResultPrinter implements ResultPrinter {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+    private final PrintWriter out;
+    private final PrintWriter err;
+
+    public JsonResultPrinter(PrintWriter out, PrintWriter err) {
+        this.out = out;
+        this.err = err;
+    }
 
     @Override
-    public void printValidationSuccess(Path schemaFile, ValidityLevel level) {
-        ObjectNode root = MAPPER.createObjectNode();
-        root.put("status", "PASS");
-        root.put("command", "validate");
-        root.put("file", schemaFile.toString());
-        root.put("level", level.toString());
-        print(root);
+    public void print(CheckResult result) {
+        print(toNode(result));
     }
 
     @Override
-    public void printValidationFailure(Path schemaFile, ValidityLevel level,
-                                       RuleViolationException exception) {
+    public void printBatch(String command, List<CheckResult> results) {
         ObjectNode root = MAPPER.createObjectNode();
-        root.put("status", "FAIL");
-        root.put("command", "validate");
-        root.put("file", schemaFile.toString());
-        root.put("level", level.toString());
+        root.put("status", CheckResult.worstStatus(results).name());
+        root.put("command", command);
+        root.put("total", results.size());
+        root.put("passed", count(results, CheckStatus.PASS));
+        root.put("failed", count(results, CheckStatus.FAIL));
+        root.put("errors", count(results, CheckStatus.ERROR));
+        root.put("overLimit", count(results, CheckStatus.LIMIT));
 
-        ArrayNode violations = root.putArray("violations");
-        Set<RuleViolation> causes = exception.getCauses();
-        if (causes != null) {
-            for (RuleViolation v : causes) {
-                ObjectNode vNode = violations.addObject();
-                vNode.put("description", v.getDescription());
-                if (v.getContext() != null) {
-                    vNode.put("context", v.getContext());
-                }
-            }
-        }
-        if ((causes == null || causes.isEmpty()) && exception.getMessage() != null) {
-            ObjectNode vNode = violations.addObject();
-            vNode.put("description", exception.getMessage());
+        ArrayNode items = root.putArray("results");
+        for (CheckResult result : results) {
+            items.add(toNode(result));
         }
         print(root);
     }
 
     @Override
-    public void printCompatibilitySuccess(Path proposedFile, CompatibilityLevel level) {
+    public void printMatrix(CompatibilityMatrix matrix) {
         ObjectNode root = MAPPER.createObjectNode();
-        root.put("status", "PASS");
-        root.put("command", "compatibility");
-        root.put("file", proposedFile.toString());
-        root.put("level", level.toString());
+        root.put("status", (matrix.isCompatible() ? CheckStatus.PASS : CheckStatus.FAIL).name());
+        root.put("command", CheckResult.COMPATIBILITY);
+        root.put("level", matrix.level().name());
+        ArrayNode rows = root.putArray("rows");
+        matrix.rows().forEach(rows::add);
+        ArrayNode columns = root.putArray("columns");
+        matrix.columns().forEach(columns::add);
+        ArrayNode cells = root.putArray("matrix");
+        for (int row = 0; row < matrix.rows().size(); row++) {
+            ArrayNode line = cells.addArray();
+            for (int column = 0; column < matrix.columns().size(); column++) {
+                Boolean cell = matrix.cell(row, column);
+                if (cell == null) {
+                    line.addNull();
+                } else {
+                    line.add(cell);
+                }
+            }
+        }
+        int earliest = matrix.earliestCompatible();
+        if (earliest < 0) {
+            root.putNull("earliestCompatible");
+        } else {
+            root.put("earliestCompatible", matrix.columns().get(earliest));
+        }
+        root.put("checks", matrix.checks());
         print(root);
     }
 
-    @Override
-    public void printCompatibilityFailure(Path proposedFile, CompatibilityLevel level,
-                                          Set<CompatibilityDifference> differences) {
+    static ObjectNode toNode(CheckResult result) {
         ObjectNode root = MAPPER.createObjectNode();
-        root.put("status", "FAIL");
-        root.put("command", "compatibility");
-        root.put("file", proposedFile.toString());
-        root.put("level", level.toString());
+        root.put("status", result.status().name());
+        root.put("command", result.command());
+        root.put("file", result.file().toString());
+        root.put("level", result.level());
 
-        ArrayNode violations = root.putArray("violations");
-        if (differences != null) {
-            for (CompatibilityDifference diff : differences) {
-                RuleViolation rv = diff.asRuleViolation();
+        if (!result.skipped().isEmpty()) {
+            ArrayNode skipped = root.putArray("skipped");
+            result.skipped().forEach(skipped::add);
+        }
+        if (result.status() != CheckStatus.PASS) {
+            ArrayNode violations = root.putArray("violations");
+            for (RuleViolation v : result.violations()) {
                 ObjectNode vNode = violations.addObject();
-                vNode.put("description", rv.getDescription());
-                if (rv.getContext() != null) {
-                    vNode.put("context", rv.getContext());
+                vNode.put("description", v.getDescription());
+                if (v.getContext() != null) {
+                    vNode.put("context", v.getContext());
                 }
             }
         }
-        print(root);
+        return root;
+    }
+
+    private static long count(List<CheckResult> results, CheckStatus status) {
+        return results.stream().filter(r -> r.status() == status).count();
     }
 
     private void print(ObjectNode node) {
         try {
-            System.out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(node));
+            out.println(WRITER.writeValueAsString(node));
         } catch (JsonProcessingException e) {
-            System.err.println("{\"error\": \"Failed to serialize JSON output\"}");
+            err.println("{\"error\": \"Failed to serialize JSON output\"}");
         }
     }
 }
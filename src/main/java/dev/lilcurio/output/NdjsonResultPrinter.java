@@ -0,0 +1,240 @@
+package dev.lilcurio.output;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.check.CompatibilityMatrix;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Streams one compact JSON object per check, newline-delimited, through a single reused
+ * {@link JsonGenerator}. Results are written as soon as workers report them and flushed in batches,
+ * so output can be piped into {@code jq} or log shippers while a large run is still in progress.
+ * Safe to call from several threads.
+ */
+public class NdjsonResultPrinter implements ResultPrinter {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int FLUSH_EVERY = 64;
+
+    private final JsonGenerator generator;
+    private int unflushed;
+
+    public NdjsonResultPrinter(PrintWriter out) {
+        try {
+            this.generator = FACTORY.createGenerator(out);
+            // Records are terminated by '\n' explicitly; no extra separator between root values
+            this.generator.setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void print(CheckResult result) {
+        synchronized (generator) {
+            write(result);
+            flush();
+        }
+    }
+
+    @Override
+    public void printBatch(String command, List<CheckResult> results) {
+        synchronized (generator) {
+            for (CheckResult result : results) {
+                write(result);
+            }
+            writeSummary(command, results);
+            flush();
+        }
+    }
+
+    /**
+     * Writes the matrix as one record of type {@code matrix}, with the fields of the JSON format.
+     */
+    @Override
+    public void printMatrix(CompatibilityMatrix matrix) {
+        synchronized (generator) {
+            try {
+                generator.writeStartObject();
+                generator.writeStringField("type", "matrix");
+                generator.writeStringField("status", (matrix.isCompatible() ? CheckStatus.PASS : CheckStatus.FAIL).name());
+                generator.writeStringField("command", CheckResult.COMPATIBILITY);
+                generator.writeStringField("level", matrix.level().name());
+                writeStrings("rows", matrix.rows());
+                writeStrings("columns", matrix.columns());
+                generator.writeArrayFieldStart("matrix");
+                for (int row = 0; row < matrix.rows().size(); row++) {
+                    generator.writeStartArray();
+                    for (int column = 0; column < matrix.columns().size(); column++) {
+                        Boolean cell = matrix.cell(row, column);
+                        if (cell == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeBoolean(cell);
+                        }
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndArray();
+                int earliest = matrix.earliestCompatible();
+                if (earliest < 0) {
+                    generator.writeNullField("earliestCompatible");
+                } else {
+                    generator.writeStringField("earliestCompatible", matrix.columns().get(earliest));
+                }
+                generator.writeNumberField("checks", matrix.checks());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            flush();
+        }
+    }
+
+    private void writeStrings(String field, List<String> values) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void resultAvailable(CheckResult result) {
+        synchronized (generator) {
+            write(result);
+            if (++unflushed >= FLUSH_EVERY) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #resultAvailable(CheckResult)}, with an {@code id} field that ties the result to
+     * the request it answers.
+     */
+    public void resultAvailable(String id, CheckResult result) {
+        synchronized (generator) {
+            write(id, result);
+            if (++unflushed >= FLUSH_EVERY) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the summary of a run whose results were streamed without being kept, from the number
+     * of results with each status, indexed by ordinal.
+     */
+    public void printSummary(String command, long[] counts) {
+        synchronized (generator) {
+            writeSummary(command, counts);
+            flush();
+        }
+    }
+
+    /**
+     * Writes out results buffered by {@code resultAvailable}.
+     */
+    public void flush() {
+        synchronized (generator) {
+            try {
+                generator.flush();
+                unflushed = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void printReport(String command, List<CheckResult> results) {
+        // Individual results were already streamed by resultAvailable
+        synchronized (generator) {
+            if (results.size() > 1) {
+                writeSummary(command, results);
+            }
+            flush();
+        }
+    }
+
+    private void write(CheckResult result) {
+        write(null, result);
+    }
+
+    private void write(String id, CheckResult result) {
+        try {
+            generator.writeStartObject();
+            if (id != null) {
+                generator.writeStringField("id", id);
+            }
+            generator.writeStringField("status", result.status().name());
+            generator.writeStringField("command", result.command());
+            generator.writeStringField("file", result.file().toString());
+            generator.writeStringField("level", result.level());
+            if (!result.skipped().isEmpty()) {
+                generator.writeArrayFieldStart("skipped");
+                for (String version : result.skipped()) {
+                    generator.writeString(version);
+                }
+                generator.writeEndArray();
+            }
+            if (result.status() != CheckStatus.PASS) {
+                generator.writeArrayFieldStart("violations");
+                for (RuleViolation v : result.violations()) {
+                    generator.writeStartObject();
+                    generator.writeStringField("description", v.getDescription());
+                    if (v.getContext() != null) {
+                        generator.writeStringField("context", v.getContext());
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSummary(String command, List<CheckResult> results) {
+        long[] counts = new long[CheckStatus.values().length];
+        results.forEach(result -> counts[result.status().ordinal()]++);
+        writeSummary(command, counts);
+    }
+
+    private void writeSummary(String command, long[] counts) {
+        CheckStatus status = CheckStatus.PASS;
+        long total = 0;
+        for (CheckStatus candidate : CheckStatus.values()) {
+            total += counts[candidate.ordinal()];
+            if (counts[candidate.ordinal()] > 0) {
+                status = candidate;
+            }
+        }
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", "summary");
+            generator.writeStringField("status", status.name());
+            generator.writeStringField("command", command);
+            generator.writeNumberField("total", total);
+            generator.writeNumberField("passed", counts[CheckStatus.PASS.ordinal()]);
+            generator.writeNumberField("failed", counts[CheckStatus.FAIL.ordinal()]);
+            generator.writeNumberField("errors", counts[CheckStatus.ERROR.ordinal()]);
+            generator.writeNumberField("overLimit", counts[CheckStatus.LIMIT.ordinal()]);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
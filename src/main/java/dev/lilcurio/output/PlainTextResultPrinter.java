@@ -1,59 +1,142 @@
 package dev.lilcurio.output;
 
-import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
-import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
-import io.apicurio.registry.rules.validity.ValidityLevel;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.check.CompatibilityMatrix;
 import io.apicurio.registry.rules.violation.RuleViolation;
-import io.apicurio.registry.rules.violation.RuleViolationException;
 
-import java.nio.file.Path;
-import java.util.Set;
+import java.io.PrintWriter;
+import java.util.List;
 
 public class PlainTextResultPrinter implements ResultPrinter {
 
-    @Override
-    public void printValidationSuccess(Path schemaFile, ValidityLevel level) {
-        System.out.println("PASS: Schema validation succeeded for "
-                + schemaFile + " (level: " + level + ")");
+    private final PrintWriter out;
+    private final PrintWriter err;
+
+    public PlainTextResultPrinter(PrintWriter out, PrintWriter err) {
+        this.out = out;
+        this.err = err;
     }
 
     @Override
-    public void printValidationFailure(Path schemaFile, ValidityLevel level,
-                                       RuleViolationException exception) {
-        System.err.println("FAIL: Schema validation failed for "
-                + schemaFile + " (level: " + level + ")");
-
-        Set<RuleViolation> causes = exception.getCauses();
-        if (causes != null && !causes.isEmpty()) {
-            System.err.println("Violations:");
-            for (RuleViolation v : causes) {
-                String context = v.getContext() != null ? " [at: " + v.getContext() + "]" : "";
-                System.err.println("  - " + v.getDescription() + context);
+    public void print(CheckResult result) {
+        boolean validate = CheckResult.VALIDATE.equals(result.command());
+        String check = switch (result.command()) {
+            case CheckResult.VALIDATE -> "Schema validation";
+            case CheckResult.AUDIT -> "Rule audit";
+            default -> "Compatibility check";
+        };
+        String suffix = " for " + result.file() + " (level: " + result.level() + ")";
+
+        switch (result.status()) {
+            case PASS -> {
+                out.println("PASS: " + check + " succeeded" + suffix);
+                printSkipped(result, out);
+            }
+            case FAIL -> {
+                err.println("FAIL: " + check + " failed" + suffix);
+                printSkipped(result, err);
+                if (!result.violations().isEmpty()) {
+                    err.println(validate ? "Violations:"
+                            : CheckResult.AUDIT.equals(result.command()) ? "Rule violations:" : "Incompatible differences:");
+                    printViolations(result.violations());
+                }
+            }
+            case ERROR -> {
+                err.println("ERROR: " + check + " could not run" + suffix);
+                printViolations(result.violations());
+            }
+            case LIMIT -> {
+                err.println("LIMIT: " + check + " exceeded a limit" + suffix);
+                printViolations(result.violations());
             }
-        } else if (exception.getMessage() != null) {
-            System.err.println("  - " + exception.getMessage());
         }
     }
 
     @Override
-    public void printCompatibilitySuccess(Path proposedFile, CompatibilityLevel level) {
-        System.out.println("PASS: Compatibility check succeeded for "
-                + proposedFile + " (level: " + level + ")");
+    public void printBatch(String command, List<CheckResult> results) {
+        for (CheckResult result : results) {
+            print(result);
+        }
+        out.println(summary(command, results));
     }
 
+    /**
+     * Prints the versions numbered in order, then the matrix with Y (compatible), N (incompatible)
+     * or - (same version) cells.
+     */
     @Override
-    public void printCompatibilityFailure(Path proposedFile, CompatibilityLevel level,
-                                          Set<CompatibilityDifference> differences) {
-        System.err.println("FAIL: Compatibility check failed for "
-                + proposedFile + " (level: " + level + ")");
-
-        if (differences != null && !differences.isEmpty()) {
-            System.err.println("Incompatible differences:");
-            for (CompatibilityDifference diff : differences) {
-                RuleViolation rv = diff.asRuleViolation();
-                String context = rv.getContext() != null ? " [at: " + rv.getContext() + "]" : "";
-                System.err.println("  - " + rv.getDescription() + context);
+    public void printMatrix(CompatibilityMatrix matrix) {
+        List<String> versions = matrix.versions();
+        List<String> rows = matrix.rows();
+        List<String> columns = matrix.columns();
+        int firstRow = versions.size() - rows.size();
+        int width = String.valueOf(versions.size()).length() + 2;
+
+        out.println("Compatibility matrix (level: " + matrix.level() + "; rows: new version, columns: existing version)");
+        for (int i = 0; i < versions.size(); i++) {
+            out.println(pad(i + 1, width) + "  " + versions.get(i));
+        }
+        out.println();
+        StringBuilder header = new StringBuilder(" ".repeat(width));
+        for (int column = 0; column < columns.size(); column++) {
+            header.append(pad(column + 1, width));
+        }
+        out.println(header);
+        for (int row = 0; row < rows.size(); row++) {
+            StringBuilder line = new StringBuilder(pad(firstRow + row + 1, width));
+            for (int column = 0; column < columns.size(); column++) {
+                Boolean cell = matrix.cell(row, column);
+                line.append(pad(cell == null ? "-" : cell ? "Y" : "N", width));
             }
+            out.println(line);
+        }
+        out.println();
+
+        String proposed = rows.get(rows.size() - 1);
+        int earliest = matrix.earliestCompatible();
+        if (earliest < 0) {
+            out.println(proposed + " is not compatible with the latest existing version");
+        } else {
+            out.println("Earliest version " + proposed + " is compatible with, along with every later one: "
+                    + columns.get(earliest) + " (" + (earliest + 1) + ")");
+        }
+        out.println("Ran " + matrix.checks() + " compatibility check(s)");
+    }
+
+    private static String pad(Object value, int width) {
+        String text = String.valueOf(value);
+        return " ".repeat(Math.max(0, width - text.length())) + text;
+    }
+
+    static String summary(String command, List<CheckResult> results) {
+        long passed = results.stream().filter(r -> r.status() == CheckStatus.PASS).count();
+        long failed = results.stream().filter(r -> r.status() == CheckStatus.FAIL).count();
+        long errors = results.stream().filter(r -> r.status() == CheckStatus.ERROR).count();
+        long overLimit = results.stream().filter(r -> r.status() == CheckStatus.LIMIT).count();
+        String unit = CheckResult.AUDIT.equals(command) ? " artifact(s)" : " file(s)";
+        long levels = results.stream().map(CheckResult::level).distinct().count();
+        // Several levels per file: the counts that follow are of checks, not files
+        String checked = levels > 1 && CheckResult.COMPATIBILITY.equals(command)
+                ? results.stream().map(CheckResult::file).distinct().count() + unit + " at " + levels + " level(s): "
+                : results.size() + unit + ": ";
+        return "Checked " + checked + passed + " passed, "
+                + failed + " failed, " + errors + " error(s)"
+                + (overLimit > 0 ? ", " + overLimit + " over limit" : "");
+    }
+
+    private void printSkipped(CheckResult result, PrintWriter writer) {
+        if (!result.skipped().isEmpty()) {
+            writer.println("Skipped " + result.skipped().size() + " version(s) equivalent to the proposed schema: "
+                    + String.join(", ", result.skipped()));
+        }
+    }
+
+    private void printViolations(List<RuleViolation> violations) {
+        for (RuleViolation v : violations) {
+            String context = v.getContext() != null && !v.getContext().isEmpty()
+                    ? " [at: " + v.getContext() + "]" : "";
+            err.println("  - " + v.getDescription() + context);
         }
     }
 }
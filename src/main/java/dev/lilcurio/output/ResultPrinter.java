@@ -1,26 +1,50 @@
 package dev.lilcurio.output;
 
-import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
-import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
-import io.apicurio.registry.rules.validity.ValidityLevel;
-import io.apicurio.registry.rules.violation.RuleViolationException;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CompatibilityMatrix;
 
-import java.nio.file.Path;
-import java.util.Set;
+import java.io.PrintWriter;
+import java.util.List;
 
 public interface ResultPrinter {
 
-    void printValidationSuccess(Path schemaFile, ValidityLevel level);
+    void print(CheckResult result);
 
-    void printValidationFailure(Path schemaFile, ValidityLevel level,
-                                RuleViolationException exception);
+    /**
+     * Prints the results of a multi-file run as one aggregated report.
+     */
+    void printBatch(String command, List<CheckResult> results);
 
-    void printCompatibilitySuccess(Path proposedFile, CompatibilityLevel level);
+    /**
+     * Prints a pairwise compatibility matrix.
+     */
+    void printMatrix(CompatibilityMatrix matrix);
 
-    void printCompatibilityFailure(Path proposedFile, CompatibilityLevel level,
-                                   Set<CompatibilityDifference> differences);
+    /**
+     * Called as soon as each check of a run completes, possibly from several worker threads at once.
+     * Streaming printers emit the result immediately; the others wait for {@link #printReport}.
+     */
+    default void resultAvailable(CheckResult result) {
+    }
+
+    /**
+     * Prints the report for a finished run; {@code results} are in input order.
+     */
+    default void printReport(String command, List<CheckResult> results) {
+        if (results.size() == 1) {
+            print(results.get(0));
+        } else {
+            printBatch(command, results);
+        }
+    }
 
-    static ResultPrinter create(boolean jsonOutput) {
-        return jsonOutput ? new JsonResultPrinter() : new PlainTextResultPrinter();
+    static ResultPrinter create(String format, PrintWriter out, PrintWriter err) {
+        return switch (format.toLowerCase()) {
+            case "plain", "text" -> new PlainTextResultPrinter(out, err);
+            case "json" -> new JsonResultPrinter(out, err);
+            case "ndjson" -> new NdjsonResultPrinter(out);
+            default -> throw new IllegalArgumentException(
+                    "Invalid output format: " + format + ". Valid: plain, json, ndjson");
+        };
     }
 }
@@ -0,0 +1,145 @@
+package dev.lilcurio.refs;
+
+import io.apicurio.registry.content.TypedContent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Predicate;
+
+/**
+ * Referenced documents shared by every schema of a run, each read and scanned for its own
+ * references once. Concurrent requests for a document being loaded wait for that load instead of
+ * starting another. Least recently used documents are evicted once their total size exceeds the bound.
+ */
+public class ReferenceCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * A loaded document, its location and the references it makes in turn.
+     */
+    public record Document(String location, TypedContent content, Set<String> references) {
+
+        long size() {
+            return content.getContent().bytes().length;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Document load() throws IOException;
+    }
+
+    private final long maxBytes;
+    private final Map<String, FutureTask<Document>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private int loads;
+
+    public ReferenceCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public Document get(String key, Loader loader) throws IOException {
+        FutureTask<Document> task;
+        boolean owner = false;
+        synchronized (this) {
+            task = entries.get(key);
+            if (task == null) {
+                task = new FutureTask<>(() -> {
+                    try {
+                        return loader.load();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                entries.put(key, task);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            task.run();
+            synchronized (this) {
+                loads++;
+                Document document = completed(task);
+                if (document != null) {
+                    bytes += document.size();
+                    evict();
+                } else {
+                    // Failures are not cached; the next schema that needs the document tries again
+                    entries.remove(key, task);
+                }
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Drops the loaded documents whose key matches, e.g. after their files changed on disk.
+     */
+    public synchronized void invalidate(Predicate<String> key) {
+        Iterator<Map.Entry<String, FutureTask<Document>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, FutureTask<Document>> entry = it.next();
+            Document document = completed(entry.getValue());
+            if (document != null && key.test(entry.getKey())) {
+                bytes -= document.size();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Number of documents loaded so far, including reloads after eviction.
+     */
+    public synchronized int loads() {
+        return loads;
+    }
+
+    public synchronized long size() {
+        return bytes;
+    }
+
+    private void evict() {
+        Iterator<FutureTask<Document>> it = entries.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Document document = completed(it.next());
+            if (document != null) {
+                bytes -= document.size();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * The document of a successfully finished load, or {@code null} if it is still running or failed.
+     */
+    private static Document completed(Future<Document> task) {
+        if (!task.isDone()) {
+            return null;
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException | InterruptedException e) {
+            return null;
+        }
+    }
+}
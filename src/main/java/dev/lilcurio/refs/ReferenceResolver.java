@@ -0,0 +1,129 @@
+package dev.lilcurio.refs;
+
+import dev.lilcurio.refs.ReferenceCache.Document;
+import dev.lilcurio.schema.SchemaSupport;
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.content.TypedContent;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Builds the map of resolved references that Apicurio's validators and checkers take, keyed by
+ * each reference as it is written in the schema. References of referenced documents are followed
+ * too. Documents come from a {@link ReferenceCache} shared by the whole run.
+ */
+public class ReferenceResolver {
+
+    private final SchemaSupport support;
+    private final ReferenceCache cache;
+
+    public ReferenceResolver(SchemaSupport support, ReferenceCache cache) {
+        this.support = support;
+        this.cache = cache;
+    }
+
+    /**
+     * Resolves every reference made, directly or indirectly, by {@code content} found at {@code location}.
+     *
+     * @throws IOException if a referenced document does not exist or cannot be read
+     */
+    public Map<String, TypedContent> resolve(ReferenceSource source, String location, TypedContent content)
+            throws IOException {
+        Map<String, TypedContent> resolved = new LinkedHashMap<>();
+        resolve(source, location, support.findReferences(content), resolved);
+        return resolved;
+    }
+
+    /**
+     * Like {@link #resolve(ReferenceSource, String, TypedContent)}, but adds to {@code resolved} only
+     * the references it does not already hold.
+     */
+    public void resolveMissing(ReferenceSource source, String location, TypedContent content,
+                               Map<String, TypedContent> resolved) throws IOException {
+        resolve(source, location, support.findReferences(content), resolved);
+    }
+
+    /**
+     * The locations of every document {@code content} references, directly or indirectly.
+     *
+     * @throws IOException if a referenced document does not exist or cannot be read
+     */
+    public Set<String> locations(ReferenceSource source, String location, TypedContent content) throws IOException {
+        return documents(source, location, content).keySet();
+    }
+
+    /**
+     * Every document {@code content} references, directly or indirectly, keyed by its location rather
+     * than by the reference naming it, for validators that resolve references themselves.
+     *
+     * @throws IOException if a referenced document does not exist or cannot be read
+     */
+    public Map<String, TypedContent> documents(ReferenceSource source, String location, TypedContent content)
+            throws IOException {
+        Map<String, TypedContent> documents = new LinkedHashMap<>();
+        collectDocuments(source, location, support.findReferences(content), documents);
+        return documents;
+    }
+
+    /**
+     * Forgets the documents read from {@code source} at the matching locations, so they are read again.
+     */
+    public void invalidate(ReferenceSource source, Predicate<String> location) {
+        String prefix = source.id() + ":";
+        cache.invalidate(key -> key.startsWith(prefix) && location.test(key.substring(prefix.length())));
+    }
+
+    private void collectDocuments(ReferenceSource source, String location, Collection<String> references,
+                                  Map<String, TypedContent> documents) throws IOException {
+        for (String reference : references) {
+            Document document = find(source, location, reference);
+            if (documents.putIfAbsent(document.location(), document.content()) == null) {
+                collectDocuments(source, document.location(), document.references(), documents);
+            }
+        }
+    }
+
+    private void resolve(ReferenceSource source, String location, Collection<String> references,
+                         Map<String, TypedContent> resolved) throws IOException {
+        for (String reference : references) {
+            if (resolved.containsKey(reference)) {
+                continue;
+            }
+            Document document = find(source, location, reference);
+            resolved.put(reference, document.content());
+            resolve(source, document.location(), document.references(), resolved);
+        }
+    }
+
+    private Document find(ReferenceSource source, String location, String reference) throws IOException {
+        if (!support.resolvesFromImportRoot()) {
+            String target = source.locate(location, reference);
+            try {
+                return cache.get(source.id() + ":" + target, () -> load(source, target));
+            } catch (NoSuchFileException e) {
+                throw new IOException("Cannot resolve $ref '" + reference + "' in " + location
+                        + ": " + e.getMessage() + " not found");
+            }
+        }
+        for (String target : source.locateImport(location, reference)) {
+            try {
+                return cache.get(source.id() + ":" + target, () -> load(source, target));
+            } catch (NoSuchFileException e) {
+                // Try the next enclosing directory
+            }
+        }
+        throw new IOException("Cannot resolve import '" + reference + "' in " + location
+                + ": not found in its directory or any directory above it");
+    }
+
+    private Document load(ReferenceSource source, String location) throws IOException {
+        TypedContent content = TypedContent.create(ContentHandle.create(source.read(location)), support.getContentType());
+        return new Document(location, content, support.findReferences(content));
+    }
+}
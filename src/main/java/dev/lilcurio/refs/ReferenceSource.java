@@ -0,0 +1,106 @@
+package dev.lilcurio.refs;
+
+import dev.lilcurio.git.GitObjectReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where referenced documents are read from: the local filesystem, or a git ref in diff mode.
+ * Locations are opaque strings the source both produces and reads.
+ */
+public interface ReferenceSource {
+
+    /**
+     * Identifies the source in cache keys, so the same location read from two sources is kept apart.
+     */
+    String id();
+
+    /**
+     * The location of {@code ref} as written in the document at {@code baseLocation}.
+     */
+    String locate(String baseLocation, String ref);
+
+    /**
+     * The locations {@code ref} may stand for when it names a file relative to an import root, as
+     * protobuf imports do, rather than to the document at {@code baseLocation}: resolved against the
+     * document's directory and then against each of its ancestors, nearest first.
+     */
+    List<String> locateImport(String baseLocation, String ref);
+
+    /**
+     * Reads the document at {@code location}.
+     *
+     * @throws NoSuchFileException if there is none
+     */
+    byte[] read(String location) throws IOException;
+
+    static ReferenceSource files() {
+        return new ReferenceSource() {
+            @Override
+            public String id() {
+                return "file";
+            }
+
+            @Override
+            public String locate(String baseLocation, String ref) {
+                return Path.of(baseLocation).toAbsolutePath().resolveSibling(ref).normalize().toString();
+            }
+
+            @Override
+            public List<String> locateImport(String baseLocation, String ref) {
+                List<String> candidates = new ArrayList<>();
+                for (Path dir = Path.of(baseLocation).toAbsolutePath().getParent(); dir != null; dir = dir.getParent()) {
+                    candidates.add(dir.resolve(ref).normalize().toString());
+                }
+                return candidates;
+            }
+
+            @Override
+            public byte[] read(String location) throws IOException {
+                return Files.readAllBytes(Path.of(location));
+            }
+        };
+    }
+
+    /**
+     * Documents as of {@code ref}; locations are repo-relative paths.
+     */
+    static ReferenceSource git(GitObjectReader git, String ref) {
+        return new ReferenceSource() {
+            @Override
+            public String id() {
+                return "git:" + ref;
+            }
+
+            @Override
+            public String locate(String baseLocation, String target) {
+                return Path.of(baseLocation).resolveSibling(target).normalize().toString().replace('\\', '/');
+            }
+
+            @Override
+            public List<String> locateImport(String baseLocation, String target) {
+                // Up to the repo root, where the import is resolved as written
+                List<String> candidates = new ArrayList<>();
+                for (Path dir = Path.of(baseLocation).getParent(); dir != null; dir = dir.getParent()) {
+                    candidates.add(dir.resolve(target).normalize().toString().replace('\\', '/'));
+                }
+                candidates.add(Path.of(target).normalize().toString().replace('\\', '/'));
+                return candidates;
+            }
+
+            @Override
+            public byte[] read(String location) throws IOException {
+                byte[] content = location.startsWith("..") ? null : git.readObject(ref + ":" + location);
+                if (content == null) {
+                    throw new NoSuchFileException(ref + ":" + location);
+                }
+                return content;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package dev.lilcurio.schema;
+
+import org.apache.avro.Schema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed Avro schemas keyed by a SHA-256 of their content and of the references they were parsed
+ * against, so each distinct schema is parsed once per run however many pairs it takes part in.
+ * Parsed {@link Schema} instances are not mutated after parsing and are shared between threads.
+ */
+public class AvroSchemaCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+
+    public Schema parse(String content, Map<String, String> references) {
+        String key = key(content, references);
+        Schema schema = schemas.get(key);
+        if (schema != null) {
+            return schema;
+        }
+        if (schemas.size() >= MAX_ENTRIES) {
+            // A long-lived daemon sees an open-ended stream of schemas; start over rather than grow.
+            schemas.clear();
+        }
+        return schemas.computeIfAbsent(key, k -> {
+            Schema.Parser parser = new Schema.Parser();
+            references.values().forEach(parser::parse);
+            return parser.parse(content);
+        });
+    }
+
+    public int size() {
+        return schemas.size();
+    }
+
+    private static String key(String content, Map<String, String> references) {
+        MessageDigest digest = sha256();
+        for (Map.Entry<String, String> ref : new TreeMap<>(references).entrySet()) {
+            update(digest, ref.getKey());
+            update(digest, ref.getValue());
+        }
+        update(digest, content);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
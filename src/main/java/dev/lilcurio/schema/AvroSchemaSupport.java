@@ -0,0 +1,34 @@
+package dev.lilcurio.schema;
+
+import io.apicurio.registry.avro.content.canon.AvroContentCanonicalizer;
+import io.apicurio.registry.avro.rules.validity.AvroContentValidator;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.validity.ContentValidator;
+
+public class AvroSchemaSupport implements SchemaSupport {
+
+    private final ContentValidator validator = new AvroContentValidator();
+    private final CompatibilityChecker checker = new CachingAvroCompatibilityChecker(new AvroSchemaCache());
+    private final ContentCanonicalizer canonicalizer = new AvroContentCanonicalizer();
+
+    @Override
+    public ContentValidator getContentValidator() {
+        return validator;
+    }
+
+    @Override
+    public CompatibilityChecker getCompatibilityChecker() {
+        return checker;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public ContentCanonicalizer getCanonicalizer() {
+        return canonicalizer;
+    }
+}
@@ -0,0 +1,49 @@
+package dev.lilcurio.schema;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.AbstractCompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
+import io.apicurio.registry.rules.compatibility.SimpleCompatibilityDifference;
+import io.apicurio.registry.rules.violation.UnprocessableSchemaException;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.SchemaCompatibility.Incompatibility;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Avro reader/writer compatibility check, equivalent to Apicurio's Avro checker but resolving
+ * schemas through an {@link AvroSchemaCache} instead of re-parsing every version for every pair.
+ */
+public class CachingAvroCompatibilityChecker extends AbstractCompatibilityChecker<Incompatibility> {
+
+    private final AvroSchemaCache cache;
+
+    public CachingAvroCompatibilityChecker(AvroSchemaCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected Set<Incompatibility> isBackwardsCompatibleWith(String existing, String proposed,
+                                                             Map<String, TypedContent> resolvedReferences) {
+        Map<String, String> references = new LinkedHashMap<>();
+        resolvedReferences.forEach((name, content) -> references.put(name, content.getContent().content()));
+        try {
+            Schema existingSchema = cache.parse(existing, references);
+            Schema proposedSchema = cache.parse(proposed, references);
+            return new HashSet<>(SchemaCompatibility.checkReaderWriterCompatibility(proposedSchema, existingSchema)
+                    .getResult().getIncompatibilities());
+        } catch (AvroRuntimeException e) {
+            throw new UnprocessableSchemaException("Could not execute compatibility rule on invalid Avro schema", e);
+        }
+    }
+
+    @Override
+    protected CompatibilityDifference transform(Incompatibility original) {
+        return new SimpleCompatibilityDifference(original.getMessage(), original.getLocation());
+    }
+}
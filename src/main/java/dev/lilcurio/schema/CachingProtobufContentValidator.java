@@ -0,0 +1,76 @@
+package dev.lilcurio.schema;
+
+import com.squareup.wire.schema.Location;
+import com.squareup.wire.schema.internal.parser.ProtoParser;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.protobuf.rules.validity.ProtobufContentValidator;
+import io.apicurio.registry.rest.v3.beans.ArtifactReference;
+import io.apicurio.registry.rules.validity.ContentValidator;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import io.apicurio.registry.rules.violation.RuleViolationException;
+import io.apicurio.registry.types.RuleType;
+import io.apicurio.registry.utils.protobuf.schema.ProtobufFile;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Protobuf validity check, equivalent to Apicurio's protobuf validator but linking imported files
+ * through a {@link ProtobufSchemaCache} instead of re-linking every import for every schema. Unlike
+ * Apicurio's, it also accepts files that import others but declare no message of their own.
+ */
+public class CachingProtobufContentValidator implements ContentValidator {
+
+    private final ProtobufSchemaCache cache;
+    private final ContentValidator references = new ProtobufContentValidator();
+
+    public CachingProtobufContentValidator(ProtobufSchemaCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void validate(ValidityLevel level, TypedContent content, Map<String, TypedContent> resolvedReferences)
+            throws RuleViolationException {
+        if (level != ValidityLevel.SYNTAX_ONLY && level != ValidityLevel.FULL) {
+            return;
+        }
+        try {
+            if (resolvedReferences == null || resolvedReferences.isEmpty()) {
+                ProtobufFile.toProtoFileElement(content.getContent().content());
+            } else {
+                Map<String, String> imports = new LinkedHashMap<>();
+                resolvedReferences.forEach((name, imported) -> imports.put(name, imported.getContent().content()));
+                cache.link(content.getContent().content(), imports);
+            }
+        } catch (Exception e) {
+            throw new RuleViolationException("Syntax violation for Protobuf artifact.", RuleType.VALIDITY,
+                    level.name(), Set.of(new RuleViolation(describe(content.getContent().content(), e), null)), e);
+        }
+    }
+
+    /**
+     * Wire's own message for {@code failure}. Text that does not parse is retried as a base64 encoded
+     * descriptor, which hides the syntax error, so that is recovered by parsing the text again.
+     */
+    private static String describe(String content, Exception failure) {
+        try {
+            ProtoParser.Companion.parse(Location.get("schema.proto"), content);
+        } catch (RuntimeException e) {
+            return String.valueOf(e.getMessage());
+        }
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return String.valueOf(cause.getMessage());
+    }
+
+    @Override
+    public void validateReferences(TypedContent content, List<ArtifactReference> references)
+            throws RuleViolationException {
+        this.references.validateReferences(content, references);
+    }
+}
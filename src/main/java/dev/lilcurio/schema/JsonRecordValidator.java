@@ -0,0 +1,112 @@
+package dev.lilcurio.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.AbsoluteIri;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.PathType;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SchemaValidatorsConfig;
+import com.networknt.schema.SpecVersion.VersionFlag;
+import com.networknt.schema.SpecVersionDetector;
+import com.networknt.schema.ValidationMessage;
+import com.networknt.schema.resource.InputStreamSource;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON Schema compiled once with networknt's json-schema-validator. Documents it references are
+ * served from those {@link dev.lilcurio.refs.ReferenceResolver} read, under the file URIs of their
+ * locations, so relative {@code $ref}s resolve to the same files as for the other checks and nothing
+ * is fetched over the network. Schemas without {@code $schema} are read as draft-07.
+ */
+final class JsonRecordValidator implements RecordValidator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonSchema schema;
+
+    JsonRecordValidator(String location, TypedContent content, Map<String, TypedContent> documents) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(content.getContent().bytes());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Schema " + location + " is not valid JSON: "
+                    + e.getMessage(), e);
+        }
+        Map<Path, byte[]> byPath = new HashMap<>();
+        documents.forEach((documentLocation, document) -> byPath.put(path(documentLocation), document.getContent().bytes()));
+
+        URI uri = path(location).toUri();
+        VersionFlag version = SpecVersionDetector.detectOptionalVersion(root, false).orElse(VersionFlag.V7);
+        JsonSchemaFactory factory = JsonSchemaFactory.getInstance(version, builder -> {
+            builder.schemaLoaders(loaders -> loaders.add(iri -> load(iri, byPath)));
+            // Relative references resolve against an absolute $id; map its directory back to the file's
+            JsonNode id = root.get(version == VersionFlag.V4 ? "id" : "$id");
+            if (id != null && id.isTextual() && id.asText().contains("/")) {
+                String base = id.asText().substring(0, id.asText().lastIndexOf('/') + 1);
+                builder.schemaMappers(mappers -> mappers.mapPrefix(base, uri.resolve(".").toString()));
+            }
+        });
+        // Messages in English whatever the default locale, like the rest of the output
+        SchemaValidatorsConfig config = SchemaValidatorsConfig.builder()
+                .locale(Locale.ENGLISH)
+                .pathType(PathType.JSON_PATH)
+                .build();
+        schema = factory.getSchema(SchemaLocation.of(uri.toString()), root, config);
+        // Validators are otherwise created on first use, racing between threads
+        schema.initializeValidators();
+    }
+
+    @Override
+    public List<RuleViolation> validate(JsonNode record) {
+        Set<ValidationMessage> messages = schema.validate(record);
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        List<RuleViolation> violations = new ArrayList<>(messages.size());
+        for (ValidationMessage message : messages) {
+            violations.add(new RuleViolation(message.getError(), message.getInstanceLocation().toString()));
+        }
+        return violations;
+    }
+
+    private static InputStreamSource load(AbsoluteIri iri, Map<Path, byte[]> documents) {
+        String scheme = iri.getScheme();
+        if ("file".equals(scheme)) {
+            byte[] document = documents.get(path(URI.create(iri.toString())));
+            return () -> {
+                if (document == null) {
+                    throw new IOException(iri + " is not among the schema's resolved references");
+                }
+                return new ByteArrayInputStream(document);
+            };
+        }
+        if ("http".equals(scheme) || "https".equals(scheme)) {
+            return () -> {
+                throw new IOException("Remote reference " + iri + " is not fetched; checks run offline");
+            };
+        }
+        return null;
+    }
+
+    private static Path path(String location) {
+        return Path.of(location).toAbsolutePath().normalize();
+    }
+
+    private static Path path(URI uri) {
+        return Path.of(uri).toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,102 @@
+package dev.lilcurio.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.apicurio.registry.content.ContentHandle;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Canonical form of a JSON Schema for equivalence checks: compact, keys sorted, and annotation-only
+ * keywords ({@code description}, {@code title}, {@code $comment}) dropped wherever they appear as
+ * schema keywords. Property names and data values ({@code enum}, {@code const}, {@code default}, ...)
+ * are kept verbatim, so a property that happens to be called "description" is never removed.
+ */
+public class JsonSchemaCanonicalizer implements ContentCanonicalizer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Set<String> ANNOTATIONS = Set.of("description", "title", "$comment");
+
+    private static final Set<String> SCHEMA_KEYWORDS = Set.of(
+            "items", "additionalItems", "additionalProperties", "unevaluatedItems", "unevaluatedProperties",
+            "contains", "propertyNames", "not", "if", "then", "else");
+
+    private static final Set<String> SCHEMA_ARRAY_KEYWORDS = Set.of(
+            "allOf", "anyOf", "oneOf", "prefixItems", "items");
+
+    private static final Set<String> SCHEMA_MAP_KEYWORDS = Set.of(
+            "properties", "patternProperties", "definitions", "$defs", "dependentSchemas", "dependencies");
+
+    @Override
+    public TypedContent canonicalize(TypedContent content, Map<String, TypedContent> resolvedReferences) {
+        try {
+            JsonNode root = MAPPER.readTree(content.getContent().bytes());
+            byte[] canonical = MAPPER.writeValueAsBytes(schema(root));
+            return TypedContent.create(ContentHandle.create(canonical), content.getContentType());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonNode schema(JsonNode node) {
+        if (!node.isObject()) {
+            return data(node);
+        }
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        for (String key : sortedKeys(node)) {
+            if (ANNOTATIONS.contains(key)) {
+                continue;
+            }
+            JsonNode value = node.get(key);
+            if (SCHEMA_ARRAY_KEYWORDS.contains(key) && value.isArray()) {
+                ArrayNode items = result.putArray(key);
+                value.forEach(item -> items.add(schema(item)));
+            } else if (SCHEMA_KEYWORDS.contains(key)) {
+                result.set(key, schema(value));
+            } else if (SCHEMA_MAP_KEYWORDS.contains(key) && value.isObject()) {
+                ObjectNode map = result.putObject(key);
+                for (String name : sortedKeys(value)) {
+                    map.set(name, schema(value.get(name)));
+                }
+            } else {
+                result.set(key, data(value));
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode data(JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode result = JsonNodeFactory.instance.objectNode();
+            for (String key : sortedKeys(node)) {
+                result.set(key, data(node.get(key)));
+            }
+            return result;
+        }
+        if (node.isArray()) {
+            ArrayNode result = JsonNodeFactory.instance.arrayNode();
+            node.forEach(item -> result.add(data(item)));
+            return result;
+        }
+        return node;
+    }
+
+    private static List<String> sortedKeys(JsonNode node) {
+        List<String> keys = new ArrayList<>();
+        node.fieldNames().forEachRemaining(keys::add);
+        Collections.sort(keys);
+        return keys;
+    }
+}
@@ -1,14 +1,28 @@
 package dev.lilcurio.schema;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.apicurio.registry.content.TypedContent;
 import io.apicurio.registry.json.rules.compatibility.JsonSchemaCompatibilityChecker;
 import io.apicurio.registry.json.rules.validity.JsonSchemaContentValidator;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
 import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
 import io.apicurio.registry.rules.validity.ContentValidator;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
 public class JsonSchemaSupport implements SchemaSupport {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern URI_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*:");
+
     private final ContentValidator validator = new JsonSchemaContentValidator();
     private final CompatibilityChecker checker = new JsonSchemaCompatibilityChecker();
+    private final ContentCanonicalizer canonicalizer = new JsonSchemaCanonicalizer();
 
     @Override
     public ContentValidator getContentValidator() {
@@ -24,4 +38,51 @@ public class JsonSchemaSupport implements SchemaSupport {
     public String getContentType() {
         return "application/json";
     }
+
+    @Override
+    public ContentCanonicalizer getCanonicalizer() {
+        return canonicalizer;
+    }
+
+    @Override
+    public RecordValidator recordValidator(String location, TypedContent content,
+                                           Map<String, TypedContent> documents) {
+        return new JsonRecordValidator(location, content, documents);
+    }
+
+    /**
+     * Relative {@code $ref}s to other documents. Local ({@code #/...}) and absolute URI references
+     * are left to the validator. Content that does not parse has no references; validation reports it.
+     */
+    @Override
+    public Set<String> findReferences(TypedContent content) {
+        Set<String> references = new TreeSet<>();
+        try {
+            collectReferences(MAPPER.readTree(content.getContent().bytes()), references);
+        } catch (IOException e) {
+            return Set.of();
+        }
+        return references;
+    }
+
+    private static void collectReferences(JsonNode node, Set<String> references) {
+        if (node.isObject()) {
+            JsonNode ref = node.get("$ref");
+            if (ref != null && ref.isTextual()) {
+                String target = ref.asText();
+                int fragment = target.indexOf('#');
+                String document = fragment >= 0 ? target.substring(0, fragment) : target;
+                if (!document.isEmpty() && !URI_SCHEME.matcher(document).find()) {
+                    references.add(document);
+                }
+            }
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                collectReferences(field.getValue(), references);
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                collectReferences(element, references);
+            }
+        }
+    }
 }
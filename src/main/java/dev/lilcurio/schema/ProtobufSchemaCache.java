@@ -0,0 +1,169 @@
+package dev.lilcurio.schema;
+
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.squareup.wire.schema.internal.parser.MessageElement;
+import com.squareup.wire.schema.internal.parser.ProtoFileElement;
+import com.squareup.wire.schema.internal.parser.TypeElement;
+import io.apicurio.registry.utils.protobuf.schema.FileDescriptorUtils;
+import io.apicurio.registry.utils.protobuf.schema.ProtobufFile;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Linked descriptors of imported protobuf files, keyed by a SHA-256 of each file's name and content
+ * and of the keys of the files it imports in turn, so a file shared by many schemas is linked once
+ * per run rather than once per schema. Concurrent requests for a file being linked wait for that
+ * link. {@link FileDescriptor}s are immutable and shared between threads.
+ * <p>
+ * The schema being checked is linked against the cached descriptors every time, and not cached
+ * itself: each version of it is typically seen once.
+ */
+public class ProtobufSchemaCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Map<String, FutureTask<FileDescriptor>> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Links {@code content} against {@code references}, the texts of the files it imports, directly
+     * or indirectly, keyed by import name. Imports missing from {@code references} must be bundled
+     * with Apicurio, such as {@code google/protobuf/timestamp.proto}.
+     *
+     * @throws DescriptorValidationException if a type cannot be resolved or a definition is invalid
+     * @throws IllegalStateException         if the files import each other in a cycle
+     * @throws RuntimeException              if a file cannot be parsed
+     */
+    public FileDescriptor link(String content, Map<String, String> references) throws DescriptorValidationException {
+        ProtoFileElement element = ProtobufFile.toProtoFileElement(content);
+        Map<String, String> sources = new LinkedHashMap<>();
+        Map<String, Linked> imports = linkImports(element, references, sources, new HashSet<>());
+        return link(content, fileName(element), element, sources, imports);
+    }
+
+    public int size() {
+        return descriptors.size();
+    }
+
+    /**
+     * A linked import, its cache key, and the texts of the files it imports directly or indirectly.
+     */
+    private record Linked(String key, FileDescriptor descriptor, Map<String, String> sources) {
+    }
+
+    private Map<String, Linked> linkImports(ProtoFileElement element, Map<String, String> references,
+                                            Map<String, String> sources, Set<String> visiting)
+            throws DescriptorValidationException {
+        Map<String, Linked> imports = new LinkedHashMap<>();
+        for (String name : element.getImports()) {
+            if (references.containsKey(name)) {
+                Linked linked = linkImport(name, references, visiting);
+                imports.put(name, linked);
+                sources.put(name, references.get(name));
+                sources.putAll(linked.sources());
+            }
+        }
+        return imports;
+    }
+
+    private Linked linkImport(String name, Map<String, String> references, Set<String> visiting)
+            throws DescriptorValidationException {
+        if (!visiting.add(name)) {
+            throw new IllegalStateException("Import cycle through " + name);
+        }
+        String content = references.get(name);
+        ProtoFileElement element = ProtobufFile.toProtoFileElement(content);
+        Map<String, String> sources = new LinkedHashMap<>();
+        Map<String, Linked> imports = linkImports(element, references, sources, visiting);
+        visiting.remove(name);
+
+        MessageDigest digest = sha256();
+        update(digest, name);
+        update(digest, content);
+        imports.values().forEach(linked -> update(digest, linked.key()));
+        String key = HexFormat.of().formatHex(digest.digest());
+
+        FutureTask<FileDescriptor> task = descriptors.get(key);
+        if (task == null) {
+            if (descriptors.size() >= MAX_ENTRIES) {
+                // A long-lived daemon sees an open-ended stream of schemas; start over rather than grow.
+                descriptors.clear();
+            }
+            FutureTask<FileDescriptor> created = new FutureTask<>(() -> link(content, name, element, sources, imports));
+            task = descriptors.putIfAbsent(key, created);
+            if (task == null) {
+                task = created;
+                task.run();
+            }
+        }
+        try {
+            return new Linked(key, task.get(), sources);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while linking " + name, e);
+        } catch (ExecutionException e) {
+            // Failures are not cached; the next schema that imports the file tries again
+            descriptors.remove(key, task);
+            if (e.getCause() instanceof DescriptorValidationException invalid) {
+                throw invalid;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static FileDescriptor link(String content, String name, ProtoFileElement element,
+                                       Map<String, String> sources, Map<String, Linked> imports)
+            throws DescriptorValidationException {
+        // Wire links from source, so every file imported directly or indirectly is passed as text too
+        Map<String, FileDescriptor> dependencies = new LinkedHashMap<>();
+        imports.forEach((importName, linked) -> dependencies.put(importName, linked.descriptor()));
+        return FileDescriptorUtils.protoFileToFileDescriptor(content, name,
+                Optional.ofNullable(element.getPackageName()), sources, dependencies);
+    }
+
+    /**
+     * The name Apicurio gives a schema file it links: its package as a path, then its first message.
+     */
+    private static String fileName(ProtoFileElement element) {
+        String message = "schema";
+        for (TypeElement type : element.getTypes()) {
+            if (type instanceof MessageElement) {
+                message = type.getName();
+                break;
+            }
+        }
+        String pkg = element.getPackageName();
+        return (pkg == null ? "" : pkg.replace('.', '/') + "/") + message + ".proto";
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.lilcurio.schema;
+
+import com.google.protobuf.Descriptors.FileDescriptor;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
+import io.apicurio.registry.content.refs.ExternalReference;
+import io.apicurio.registry.protobuf.content.canon.ProtobufContentCanonicalizer;
+import io.apicurio.registry.protobuf.content.refs.ProtobufReferenceFinder;
+import io.apicurio.registry.protobuf.rules.compatibility.ProtobufCompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.validity.ContentValidator;
+import io.apicurio.registry.utils.protobuf.schema.FileDescriptorUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ProtobufSchemaSupport implements SchemaSupport {
+
+    private final ContentValidator validator = new CachingProtobufContentValidator(new ProtobufSchemaCache());
+    private final CompatibilityChecker checker = new ProtobufCompatibilityChecker();
+    private final ContentCanonicalizer canonicalizer = new ProtobufContentCanonicalizer();
+    private final ProtobufReferenceFinder referenceFinder = new ProtobufReferenceFinder();
+
+    /**
+     * Imports Apicurio bundles, such as the well-known types, which are never read from disk.
+     */
+    private static final class Bundled {
+        static final Set<String> NAMES = Arrays.stream(FileDescriptorUtils.baseDependencies())
+                .map(FileDescriptor::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public ContentValidator getContentValidator() {
+        return validator;
+    }
+
+    @Override
+    public CompatibilityChecker getCompatibilityChecker() {
+        return checker;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-protobuf";
+    }
+
+    @Override
+    public ContentCanonicalizer getCanonicalizer() {
+        return canonicalizer;
+    }
+
+    /**
+     * Imported files, as named in their import statements, except those bundled with Apicurio. Content
+     * that does not parse has no references; validation reports it.
+     */
+    @Override
+    public Set<String> findReferences(TypedContent content) {
+        Set<String> references = new LinkedHashSet<>();
+        try {
+            for (ExternalReference reference : referenceFinder.findExternalReferences(content)) {
+                if (!Bundled.NAMES.contains(reference.getFullReference())) {
+                    references.add(reference.getFullReference());
+                }
+            }
+        } catch (RuntimeException e) {
+            return Set.of();
+        }
+        return references;
+    }
+
+    @Override
+    public boolean resolvesFromImportRoot() {
+        return true;
+    }
+}
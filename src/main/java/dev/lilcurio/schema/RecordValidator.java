@@ -0,0 +1,19 @@
+package dev.lilcurio.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.apicurio.registry.rules.violation.RuleViolation;
+
+import java.util.List;
+
+/**
+ * A schema compiled for checking data records against it, e.g. sample message payloads.
+ * Thread-safe: one instance checks records on all threads.
+ */
+public interface RecordValidator {
+
+    /**
+     * How {@code record} violates the schema, with the location in the record as each violation's
+     * context; empty if it conforms.
+     */
+    List<RuleViolation> validate(JsonNode record);
+}
@@ -0,0 +1,55 @@
+package dev.lilcurio.schema;
+
+import io.apicurio.registry.content.TypedContent;
+
+import java.util.Collections;
+import java.util.OptionalLong;
+
+/**
+ * 64-bit fingerprint of a schema's canonical form, computed with the CRC-64-AVRO Rabin polynomial
+ * that Avro uses for its parsing canonical form. Schemas with equal fingerprints are treated as
+ * equivalent, and so trivially compatible with each other.
+ */
+public final class SchemaFingerprint {
+
+    private static final long EMPTY = 0xc15d213aa4d7a795L;
+    private static final long[] TABLE = new long[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            long fp = i;
+            for (int j = 0; j < 8; j++) {
+                fp = (fp >>> 1) ^ (EMPTY & -(fp & 1L));
+            }
+            TABLE[i] = fp;
+        }
+    }
+
+    private SchemaFingerprint() {
+    }
+
+    /**
+     * Fingerprints {@code content} in the canonical form of its schema type, or returns empty if it
+     * cannot be canonicalized (e.g. it does not parse); such content is never considered equivalent.
+     */
+    public static OptionalLong of(SchemaSupport support, TypedContent content) {
+        try {
+            TypedContent canonical = support.getCanonicalizer().canonicalize(content, Collections.emptyMap());
+            return OptionalLong.of(rabin64(canonical.getContent().bytes()));
+        } catch (RuntimeException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    public static boolean equivalent(OptionalLong a, OptionalLong b) {
+        return a.isPresent() && b.isPresent() && a.getAsLong() == b.getAsLong();
+    }
+
+    public static long rabin64(byte[] bytes) {
+        long fp = EMPTY;
+        for (byte b : bytes) {
+            fp = (fp >>> 8) ^ TABLE[(int) (fp ^ b) & 0xff];
+        }
+        return fp;
+    }
+}
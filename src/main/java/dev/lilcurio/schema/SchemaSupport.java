@@ -1,10 +1,44 @@
 package dev.lilcurio.schema;
 
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.content.canon.ContentCanonicalizer;
 import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
 import io.apicurio.registry.rules.validity.ContentValidator;
 
+import java.util.Map;
+import java.util.Set;
+
 public interface SchemaSupport {
     ContentValidator getContentValidator();
     CompatibilityChecker getCompatibilityChecker();
     String getContentType();
+    ContentCanonicalizer getCanonicalizer();
+
+    /**
+     * External documents referenced by {@code content}, as written in it, without fragments.
+     */
+    default Set<String> findReferences(TypedContent content) {
+        return Set.of();
+    }
+
+    /**
+     * Whether references name files relative to an import root, as protobuf imports do, rather than
+     * relative to the referencing document. Such references are looked up in the document's
+     * directory and then in each of its ancestors.
+     */
+    default boolean resolvesFromImportRoot() {
+        return false;
+    }
+
+    /**
+     * Compiles {@code content}, the schema found at {@code location}, for checking data records.
+     * {@code documents} holds every document it references, keyed by location, as
+     * {@link dev.lilcurio.refs.ReferenceResolver#documents} returns them.
+     *
+     * @throws UnsupportedOperationException if records of this type cannot be checked
+     */
+    default RecordValidator recordValidator(String location, TypedContent content,
+                                            Map<String, TypedContent> documents) {
+        throw new UnsupportedOperationException("Records can only be validated against JSON schemas");
+    }
 }
@@ -1,16 +1,18 @@
 package dev.lilcurio.schema;
 
 public enum SchemaType {
-    JSON("json", "application/json"),
-    AVRO("avro", "application/avro+json"),
-    PROTOBUF("protobuf", "application/x-protobuf");
+    JSON("json", "application/json", ".json"),
+    AVRO("avro", "application/avro+json", ".avsc"),
+    PROTOBUF("protobuf", "application/x-protobuf", ".proto");
 
     private final String cliName;
     private final String contentType;
+    private final String fileExtension;
 
-    SchemaType(String cliName, String contentType) {
+    SchemaType(String cliName, String contentType, String fileExtension) {
         this.cliName = cliName;
         this.contentType = contentType;
+        this.fileExtension = fileExtension;
     }
 
     public String getCliName() {
@@ -21,6 +23,10 @@ public enum SchemaType {
         return contentType;
     }
 
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
     public static SchemaType fromCliName(String name) {
         for (SchemaType t : values()) {
             if (t.cliName.equalsIgnoreCase(name)) {
@@ -28,6 +34,6 @@ public enum SchemaType {
             }
         }
         throw new IllegalArgumentException(
-                "Unsupported schema type: " + name + ". Supported: json");
+                "Unsupported schema type: " + name + ". Supported: json, avro, protobuf");
     }
 }
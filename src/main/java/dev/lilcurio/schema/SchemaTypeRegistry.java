@@ -1,22 +1,52 @@
 package dev.lilcurio.schema;
 
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * Schema support per type, each created on first use. Every type lives in its own holder class,
+ * so a JSON-only run never loads the Avro or protobuf stacks; the JVM's class initialization makes creation
+ * lazy and thread-safe without locking on later lookups.
+ */
 public class SchemaTypeRegistry {
 
-    private static final Map<SchemaType, SchemaSupport> REGISTRY = new EnumMap<>(SchemaType.class);
+    private static final Set<SchemaType> SUPPORTED = EnumSet.of(SchemaType.JSON, SchemaType.AVRO, SchemaType.PROTOBUF);
 
-    static {
-        REGISTRY.put(SchemaType.JSON, new JsonSchemaSupport());
+    private static final class Json {
+        static final SchemaSupport INSTANCE = new JsonSchemaSupport();
+    }
+
+    private static final class Avro {
+        static final SchemaSupport INSTANCE = new AvroSchemaSupport();
+    }
+
+    private static final class Protobuf {
+        static final SchemaSupport INSTANCE = new ProtobufSchemaSupport();
     }
 
     public static SchemaSupport get(SchemaType type) {
-        SchemaSupport support = REGISTRY.get(type);
-        if (support == null) {
-            throw new IllegalArgumentException(
-                    "No support registered for schema type: " + type.getCliName());
+        return switch (type) {
+            case JSON -> Json.INSTANCE;
+            case AVRO -> Avro.INSTANCE;
+            case PROTOBUF -> Protobuf.INSTANCE;
+        };
+    }
+
+    public static boolean isSupported(SchemaType type) {
+        return SUPPORTED.contains(type);
+    }
+
+    /**
+     * Creates every supported type's support, e.g. to warm up a long-running daemon.
+     */
+    public static Collection<SchemaSupport> all() {
+        List<SchemaSupport> all = new ArrayList<>();
+        for (SchemaType type : SUPPORTED) {
+            all.add(get(type));
         }
-        return support;
+        return all;
     }
 }
@@ -0,0 +1,119 @@
+package dev.lilcurio.watch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for files to change in a set of directories through a {@link WatchService}. Events are
+ * debounced: a batch ends once no further event arrives for the debounce interval, so an editor's
+ * save (often a temp file write plus a rename) or a {@code git checkout} is reported as one batch.
+ * Directories created under a watched tree are watched too. Paths are absolute and normalized.
+ */
+public class FileWatcher implements Closeable {
+
+    private final WatchService service;
+    private final Duration debounce;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<Path> watched = new HashSet<>();
+    private final Set<Path> trees = new LinkedHashSet<>();
+
+    public FileWatcher(Duration debounce) throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.debounce = debounce;
+    }
+
+    /**
+     * Watches the files directly inside {@code directory}.
+     */
+    public void watch(Path directory) throws IOException {
+        Path dir = directory.toAbsolutePath().normalize();
+        if (Files.isDirectory(dir) && watched.add(dir)) {
+            WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            directories.put(key, dir);
+        }
+    }
+
+    /**
+     * Watches every directory under {@code root}, including ones created later; {@code .git} is skipped.
+     */
+    public void watchTree(Path root) throws IOException {
+        Path dir = root.toAbsolutePath().normalize();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        trees.add(dir);
+        register(dir);
+    }
+
+    private void register(Path tree) throws IOException {
+        Files.walkFileTree(tree, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.getFileName() != null && dir.getFileName().toString().equals(".git")) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                watch(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Blocks until something changes, then collects changes until the debounce interval passes
+     * quietly. If events were lost, the affected directory itself is among the returned paths.
+     */
+    public Set<Path> awaitChanges() throws IOException, InterruptedException {
+        Set<Path> changed = new LinkedHashSet<>();
+        WatchKey key = service.take();
+        while (key != null) {
+            collect(key, changed);
+            key = service.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return changed;
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) throws IOException {
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.add(dir);
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context()).normalize();
+            changed.add(path);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)
+                    && trees.stream().anyMatch(path::startsWith)) {
+                register(path);
+            }
+        }
+        if (!key.reset()) {
+            watched.remove(directories.remove(key));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
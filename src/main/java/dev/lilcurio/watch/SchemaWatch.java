@@ -0,0 +1,159 @@
+package dev.lilcurio.watch;
+
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.io.SchemaFileCollector;
+import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.refs.ReferenceResolver;
+import dev.lilcurio.refs.ReferenceSource;
+import dev.lilcurio.schema.SchemaSupport;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a command's schemas checked while they are edited. After each debounced batch of changes,
+ * only the schemas that changed, appeared, or reference (directly or indirectly) a changed file are
+ * checked again. Everything else the command set up stays warm between rounds: schema supports,
+ * parsed schemas, referenced documents (minus the changed ones) and the result cache.
+ */
+public class SchemaWatch {
+
+    /**
+     * Lists the schemas to keep checked; called again after every change, so new files are picked up.
+     */
+    @FunctionalInterface
+    public interface Schemas {
+        List<Path> list() throws Exception;
+    }
+
+    /**
+     * Checks the given schemas and prints their results.
+     */
+    @FunctionalInterface
+    public interface Check {
+        List<CheckResult> run(List<Path> schemas) throws Exception;
+    }
+
+    private final FileWatcher watcher;
+    private final SchemaSupport support;
+    private final ReferenceResolver resolver;
+    private final PrintWriter err;
+    private final Map<Path, Set<Path>> dependencies = new HashMap<>();
+
+    public SchemaWatch(Duration debounce, SchemaSupport support, ReferenceResolver resolver, PrintWriter err)
+            throws IOException {
+        this.watcher = new FileWatcher(debounce);
+        this.support = support;
+        this.resolver = resolver;
+        this.err = err;
+    }
+
+    /**
+     * Watches the files {@code inputs} can match and the documents {@code checked} schemas reference,
+     * then re-checks affected schemas after every change. Runs until the thread is interrupted.
+     */
+    public void run(List<String> inputs, List<Path> checked, Schemas schemas, Check check) throws Exception {
+        try (watcher) {
+            for (String input : inputs) {
+                Path root = SchemaFileCollector.root(input);
+                if (Files.isDirectory(Path.of(input)) || SchemaFileCollector.isGlob(input)) {
+                    watcher.watchTree(root);
+                } else {
+                    watcher.watch(root);
+                }
+            }
+            track(checked);
+            err.println("Watching for changes. Press Ctrl+C to stop.");
+            err.flush();
+
+            List<Path> known = new ArrayList<>(checked);
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = watcher.awaitChanges();
+                resolver.invalidate(ReferenceSource.files(), location -> isChanged(Path.of(location), changed));
+
+                try {
+                    List<Path> current = schemas.list();
+                    List<Path> affected = affected(current, known, changed);
+                    known = current;
+                    if (affected.isEmpty()) {
+                        continue;
+                    }
+                    err.println();
+                    err.println("Changed: " + String.join(", ", changed.stream().map(Path::toString).toList()));
+                    err.flush();
+                    check.run(affected);
+                    track(affected);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // E.g. a file removed mid-edit: report it and wait for the next change
+                    err.println("Error: " + e.getMessage());
+                    err.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schemas among {@code current} that are new since the last round, changed, or depend on a change.
+     */
+    List<Path> affected(List<Path> current, List<Path> known, Set<Path> changed) {
+        Set<Path> before = new HashSet<>();
+        known.forEach(schema -> before.add(absolute(schema)));
+        List<Path> affected = new ArrayList<>();
+        for (Path schema : current) {
+            Path path = absolute(schema);
+            if (!before.contains(path) || isChanged(path, changed)
+                    || dependencies.getOrDefault(path, Set.of()).stream().anyMatch(dep -> isChanged(dep, changed))) {
+                affected.add(schema);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Records what each schema references, and watches the referenced files' directories.
+     */
+    private void track(List<Path> schemas) throws IOException {
+        for (Path schema : schemas) {
+            Set<Path> deps = new HashSet<>();
+            try {
+                for (String location : resolver.locations(ReferenceSource.files(), schema.toString(),
+                        SchemaFileReader.read(schema, support.getContentType()))) {
+                    deps.add(absolute(Path.of(location)));
+                }
+            } catch (IOException e) {
+                // Unreadable or broken: the check already reported it, and any change retriggers it
+            }
+            dependencies.put(absolute(schema), deps);
+            for (Path dep : deps) {
+                watcher.watch(dep.getParent());
+            }
+        }
+    }
+
+    /**
+     * A path counts as changed if it changed itself, or if its directory lost events.
+     */
+    private static boolean isChanged(Path path, Set<Path> changed) {
+        for (Path change : changed) {
+            if (path.equals(change) || (path.startsWith(change) && Files.isDirectory(change))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path absolute(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
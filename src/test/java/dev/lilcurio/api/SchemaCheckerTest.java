@@ -0,0 +1,137 @@
+package dev.lilcurio.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lilcurio.cache.ResultCache;
+import dev.lilcurio.check.CheckLimits;
+import dev.lilcurio.check.CheckResult;
+import dev.lilcurio.check.CheckStatus;
+import dev.lilcurio.schema.RecordValidator;
+import dev.lilcurio.schema.SchemaType;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.validity.ValidityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaCheckerTest {
+
+    private static final Path AVRO = Path.of("src/test/resources/schemas/avro");
+    private static final Path JSON_REFS = Path.of("src/test/resources/schemas/json-refs");
+
+    @Test
+    void validatesFilesInOrder() throws Exception {
+        SchemaChecker checker = new SchemaChecker(SchemaType.AVRO, CheckLimits.defaults(), ResultCache.disabled(), 4);
+        List<Path> files = List.of(AVRO.resolve("user-v1.avsc"), AVRO.resolve("invalid-syntax.avsc"),
+                AVRO.resolve("user-v2-compatible.avsc"));
+
+        List<CheckResult> results = checker.validate(files, ValidityLevel.FULL);
+
+        assertThat(results).extracting(CheckResult::file).containsExactlyElementsOf(files);
+        assertThat(results).extracting(CheckResult::status)
+                .containsExactly(CheckStatus.PASS, CheckStatus.FAIL, CheckStatus.PASS);
+    }
+
+    @Test
+    void checksCompatibilityAtEachLevel() throws Exception {
+        SchemaChecker checker = SchemaChecker.of(SchemaType.AVRO);
+        List<Path> versions = List.of(AVRO.resolve("user-v1.avsc"), AVRO.resolve("user-v2-incompatible.avsc"));
+
+        List<CheckResult> results = checker.compatibility(versions,
+                SchemaChecker.parseCompatibilityLevels("forward,backward"));
+
+        assertThat(results).extracting(CheckResult::level).containsExactly("FORWARD", "BACKWARD");
+        assertThat(results.get(1).status()).isEqualTo(CheckStatus.FAIL);
+        assertThat(results.get(1).violations()).isNotEmpty();
+    }
+
+    @Test
+    void nonTransitiveLevelSkipsAnEquivalentLatestVersion(@TempDir Path dir) throws Exception {
+        SchemaChecker checker = SchemaChecker.of(SchemaType.AVRO);
+        Path latest = AVRO.resolve("user-v2-incompatible.avsc");
+        // The latest version reformatted: equivalent to it, but not backward compatible with user-v1
+        Path proposed = Files.writeString(dir.resolve("user-v3.avsc"), Files.readString(latest).replaceAll("\\s+", " "));
+        List<Path> versions = List.of(AVRO.resolve("user-v1.avsc"), latest, proposed);
+
+        CheckResult result = checker.compatibility(versions, List.of(CompatibilityLevel.BACKWARD)).get(0);
+
+        assertThat(result.status()).isEqualTo(CheckStatus.PASS);
+        assertThat(result.skipped()).containsExactly(latest.toString());
+    }
+
+    @Test
+    void sharedCheckerGivesTheSameResultsOnEveryThread() throws Exception {
+        SchemaChecker checker = SchemaChecker.of(SchemaType.AVRO);
+        List<Path> versions = List.of(AVRO.resolve("user-v1.avsc"), AVRO.resolve("user-v2-compatible.avsc"),
+                AVRO.resolve("user-v2-incompatible.avsc"));
+        List<CompatibilityLevel> levels = List.of(CompatibilityLevel.BACKWARD_TRANSITIVE, CompatibilityLevel.FULL);
+        List<CheckResult> expected = checker.compatibility(versions, levels);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<CheckResult>>> runs = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                runs.add(pool.submit(() -> checker.compatibility(versions, levels)));
+            }
+            for (Future<List<CheckResult>> run : runs) {
+                List<CheckResult> results = run.get();
+                assertThat(results).extracting(CheckResult::status)
+                        .containsExactlyElementsOf(expected.stream().map(CheckResult::status).toList());
+                for (int i = 0; i < expected.size(); i++) {
+                    // Transitive checks collect violations from concurrent comparisons, in no set order
+                    assertThat(results.get(i).violations()).extracting(RuleViolation::getDescription)
+                            .containsExactlyInAnyOrderElementsOf(expected.get(i).violations().stream()
+                                    .map(RuleViolation::getDescription).toList());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void inputsIncludeReferencedFiles() throws Exception {
+        SchemaChecker checker = SchemaChecker.of(SchemaType.JSON);
+
+        assertThat(checker.inputs(JSON_REFS.resolve("customer.json")))
+                .map(path -> path.normalize().toString().replace('\\', '/'))
+                .contains(JSON_REFS.resolve("customer.json").toString().replace('\\', '/'))
+                .anyMatch(path -> path.endsWith("common/address.json"));
+    }
+
+    @Test
+    void recordValidatorFollowsReferences() throws Exception {
+        RecordValidator validator = SchemaChecker.of(SchemaType.JSON).recordValidator(JSON_REFS.resolve("customer.json"));
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertThat(validator.validate(mapper.readTree(
+                "{\"id\": 1, \"billing\": {\"street\": \"Main St\", \"city\": \"Berlin\", \"country\": \"DE\"}}")))
+                .isEmpty();
+        assertThat(validator.validate(mapper.readTree(
+                "{\"id\": 1, \"billing\": {\"street\": \"Main St\", \"country\": \"Germany\"}}")))
+                .extracting(RuleViolation::getContext)
+                .containsExactlyInAnyOrder("$.billing", "$.billing.country");
+        assertThatThrownBy(() -> SchemaChecker.of(SchemaType.AVRO).recordValidator(AVRO.resolve("user-v1.avsc")))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void diffOptionsRejectConflictingModes() {
+        assertThatThrownBy(() -> new DiffOptions("HEAD", 3, "v1", null, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot be combined");
+        assertThatThrownBy(() -> new DiffOptions("HEAD", 0, null, null, false))
+                .hasMessageContaining("at least 1");
+        assertThat(DiffOptions.against("main").baseRef()).isEqualTo("main");
+    }
+}
@@ -0,0 +1,75 @@
+package dev.lilcurio.audit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes registry export zips laid out like the registry's own exports, for tests.
+ */
+public class ExportZip implements AutoCloseable {
+
+    private final ZipOutputStream zip;
+    private long nextContentId = 1;
+    private long nextGlobalId = 1;
+
+    public ExportZip(Path file) throws IOException {
+        this.zip = new ZipOutputStream(Files.newOutputStream(file));
+    }
+
+    public ExportZip artifact(String groupId, String artifactId, String type) throws IOException {
+        return entry("groups/" + groupId + "/artifacts/" + artifactId + ".Artifact.json",
+                "{\"groupId\":\"" + groupId + "\",\"artifactId\":\"" + artifactId + "\",\"artifactType\":\"" + type + "\"}");
+    }
+
+    public ExportZip version(String groupId, String artifactId, String version, String content) throws IOException {
+        return version(groupId, artifactId, version, content, "[]");
+    }
+
+    /**
+     * @param references JSON array of {@code {name, groupId, artifactId, version}} references
+     */
+    public ExportZip version(String groupId, String artifactId, String version, String content, String references)
+            throws IOException {
+        long contentId = nextContentId++;
+        long globalId = nextGlobalId++;
+        entry("content/" + contentId + ".Content.json", "{\"contentId\":" + contentId
+                + ",\"serializedReferences\":" + quote(references) + "}");
+        entry("content/" + contentId + ".Content.data", content);
+        return entry("groups/" + groupId + "/artifacts/" + artifactId + "/versions/" + version + ".ArtifactVersion.json",
+                "{\"groupId\":\"" + groupId + "\",\"artifactId\":\"" + artifactId + "\",\"version\":\"" + version
+                        + "\",\"versionOrder\":" + globalId + ",\"globalId\":" + globalId + ",\"contentId\":" + contentId
+                        + ",\"state\":\"ENABLED\"}");
+    }
+
+    public ExportZip artifactRule(String groupId, String artifactId, String type, String configuration) throws IOException {
+        return entry("groups/" + groupId + "/artifacts/" + artifactId + "/rules/" + type + ".ArtifactRule.json",
+                "{\"groupId\":\"" + groupId + "\",\"artifactId\":\"" + artifactId + "\",\"type\":\"" + type
+                        + "\",\"configuration\":\"" + configuration + "\"}");
+    }
+
+    public ExportZip globalRule(String type, String configuration) throws IOException {
+        return entry("rules/" + type + ".GlobalRule.json",
+                "{\"ruleType\":\"" + type + "\",\"configuration\":\"" + configuration + "\"}");
+    }
+
+    @Override
+    public void close() throws IOException {
+        entry("manifest.Manifest.json", "{\"exportVersion\":\"3\"}");
+        zip.close();
+    }
+
+    private ExportZip entry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+        return this;
+    }
+
+    private static String quote(String json) {
+        return "\"" + json.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
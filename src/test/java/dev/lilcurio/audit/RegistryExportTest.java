@@ -0,0 +1,48 @@
+package dev.lilcurio.audit;
+
+import dev.lilcurio.audit.RegistryExport.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistryExportTest {
+
+    @Test
+    void indexesArtifactsWithEffectiveRulesAndReadsContentOnDemand(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("export.zip");
+        try (ExportZip zip = new ExportZip(file)) {
+            zip.globalRule("VALIDITY", "FULL")
+                    .globalRule("COMPATIBILITY", "BACKWARD")
+                    .artifact("shop", "orders", "AVRO")
+                    .version("shop", "orders", "1", "{\"type\":\"string\"}")
+                    .version("shop", "orders", "2", "{\"type\":\"int\"}",
+                            "[{\"name\":\"common.avsc\",\"groupId\":\"shop\",\"artifactId\":\"common\",\"version\":\"1\"}]")
+                    .artifactRule("shop", "orders", "COMPATIBILITY", "FULL_TRANSITIVE")
+                    .artifact("shop", "common", "AVRO")
+                    .version("shop", "common", "1", "{\"type\":\"long\"}");
+        }
+
+        try (RegistryExport export = RegistryExport.open(file)) {
+            List<Artifact> artifacts = export.artifacts();
+            assertThat(artifacts).extracting(Artifact::name).containsExactly("shop/common", "shop/orders");
+
+            Artifact orders = artifacts.get(1);
+            assertThat(orders.type()).isEqualTo("AVRO");
+            assertThat(orders.rules()).isEqualTo(Map.of("VALIDITY", "FULL", "COMPATIBILITY", "FULL_TRANSITIVE"));
+            assertThat(orders.versions()).extracting(RegistryExport.Version::version).containsExactly("1", "2");
+
+            long second = orders.versions().get(1).contentId();
+            assertThat(export.content(second)).isEqualTo("{\"type\":\"int\"}");
+            assertThat(export.references(second)).singleElement()
+                    .satisfies(reference -> assertThat(export.content(
+                            export.contentId(reference.groupId(), reference.artifactId(), reference.version())))
+                            .isEqualTo("{\"type\":\"long\"}"));
+        }
+    }
+}
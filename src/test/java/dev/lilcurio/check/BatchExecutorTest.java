@@ -0,0 +1,99 @@
+package dev.lilcurio.check;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchExecutorTest {
+
+    @Test
+    void nestedMapSharesTheOuterPool() throws InterruptedException {
+        Set<ForkJoinPool> outerPools = ConcurrentHashMap.newKeySet();
+        Set<ForkJoinPool> innerPools = ConcurrentHashMap.newKeySet();
+
+        List<List<Integer>> results = BatchExecutor.map(List.of(0, 1, 2, 3), 2, i -> {
+            outerPools.add(ForkJoinTask.getPool());
+            try {
+                return BatchExecutor.map(List.of(i, i + 1, i + 2), 4, j -> {
+                    innerPools.add(ForkJoinTask.getPool());
+                    return j * 10;
+                });
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(results).containsExactly(List.of(0, 10, 20), List.of(10, 20, 30), List.of(20, 30, 40),
+                List.of(30, 40, 50));
+        assertThat(outerPools).hasSize(1);
+        assertThat(innerPools).isEqualTo(outerPools);
+    }
+
+    @Test
+    void streamKeepsInputOrderAndBoundsReadAhead() throws InterruptedException {
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        Iterator<Integer> items = IntStream.range(0, 200).peek(i -> {
+            read.incrementAndGet();
+            maxAhead.accumulateAndGet(read.get() - written.get(), Math::max);
+        }).iterator();
+        List<Integer> results = new ArrayList<>();
+
+        BatchExecutor.stream(items, 4, 8, true, i -> {
+            // Later items finish first, so ordering must come from the executor
+            sleep((200 - i) % 3);
+            return i * 2;
+        }, result -> {
+            results.add(result);
+            written.incrementAndGet();
+        }, () -> {
+        });
+
+        assertThat(results).isEqualTo(IntStream.range(0, 200).map(i -> i * 2).boxed().toList());
+        assertThat(maxAhead.get()).isLessThanOrEqualTo(9);
+    }
+
+    @Test
+    void streamUnorderedDeliversEveryResult() throws InterruptedException {
+        List<Integer> results = new ArrayList<>();
+        AtomicInteger idle = new AtomicInteger();
+
+        BatchExecutor.stream(IntStream.range(0, 100).iterator(), 4, 4, false, i -> i, results::add,
+                idle::incrementAndGet);
+
+        assertThat(results).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(idle.get()).isPositive();
+    }
+
+    @Test
+    void streamRethrowsTaskFailure() {
+        assertThatThrownBy(() -> BatchExecutor.stream(IntStream.range(0, 50).iterator(), 2, 4, true, i -> {
+            if (i == 10) {
+                throw new IllegalStateException("boom");
+            }
+            return i;
+        }, result -> {
+        }, () -> {
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.lilcurio.check;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckLimitsTest {
+
+    private static TypedContent nested(int depth) {
+        return TypedContent.create("{\"allOf\":[".repeat(depth) + "{}" + "]}".repeat(depth), "application/json");
+    }
+
+    @Test
+    void rejectsSchemasNestedTooDeeply() {
+        CheckLimits limits = new CheckLimits(0, 10, Duration.ZERO);
+
+        // Each level is an object plus an array
+        assertThatCode(() -> limits.checkContent(nested(4))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limits.checkContent(nested(5)))
+                .isInstanceOf(LimitExceededException.class)
+                .hasMessageContaining("--max-depth");
+        TypedContent avro = TypedContent.create(nested(5).getContent(), "application/avro+json");
+        assertThatThrownBy(() -> limits.checkContent(avro)).isInstanceOf(LimitExceededException.class);
+        // Malformed content is left to the validator
+        assertThatCode(() -> limits.checkContent(TypedContent.create("{\"a\":[[[[[[", "application/json")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsOversizedSchemas() {
+        CheckLimits limits = new CheckLimits(16, 0, Duration.ZERO);
+
+        assertThatThrownBy(() -> limits.checkContent(nested(4)))
+                .isInstanceOf(LimitExceededException.class)
+                .hasMessageContaining("--max-schema-size");
+    }
+
+    @Test
+    void abandonsChecksThatRunPastTheTimeout() {
+        CompatibilityChecker spinning = (level, existing, proposed, references) -> {
+            long end = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            return CompatibilityExecutionResult.compatible();
+        };
+        CompatibilityChecker guarded = new CheckLimits(0, 0, Duration.ofMillis(50)).guard(spinning);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> guarded.testCompatibility(CompatibilityLevel.BACKWARD, List.of(), nested(1), Map.of()))
+                .isInstanceOf(LimitExceededException.class)
+                .hasMessageContaining("50ms");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void reportsBreachesWithTheirOwnStatus() {
+        CheckResult result = CheckResult.error(CheckResult.VALIDATE, Path.of("deep.json"), "FULL",
+                new LimitExceededException("too deep"));
+
+        assertThat(result.status()).isEqualTo(CheckStatus.LIMIT);
+        assertThat(result.exitCode()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,78 @@
+package dev.lilcurio.check;
+
+import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.schema.SchemaSupport;
+import dev.lilcurio.schema.SchemaType;
+import dev.lilcurio.schema.SchemaTypeRegistry;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompatibilityLevelsTest {
+
+    private static final Path SCHEMAS = Path.of("src/test/resources/schemas/avro");
+
+    private final SchemaSupport support = SchemaTypeRegistry.get(SchemaType.AVRO);
+    private final CompatibilityChecker checker = support.getCompatibilityChecker();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"user-v2-compatible.avsc", "user-v2-incompatible.avsc"})
+    void derivedFullMatchesApicurio(String proposedName) throws Exception {
+        List<TypedContent> existing = List.of(read("user-v1.avsc"), read("user-v2-compatible.avsc"));
+        TypedContent proposed = read(proposedName);
+        Path file = SCHEMAS.resolve(proposedName);
+
+        List<CheckResult> derived = CompatibilityLevels.check(
+                List.of(CompatibilityLevel.FULL, CompatibilityLevel.FULL_TRANSITIVE), true,
+                level -> result(file, level, checker.testCompatibility(level, existing, proposed, Map.of())));
+
+        assertThat(CompatibilityLevels.derivesFull(checker)).isTrue();
+        for (CheckResult result : derived) {
+            CompatibilityLevel level = CompatibilityLevel.valueOf(result.level());
+            CheckResult direct = result(file, level, checker.testCompatibility(level, existing, proposed, Map.of()));
+            assertThat(result.status()).isEqualTo(direct.status());
+            assertThat(result.violations()).containsExactlyInAnyOrderElementsOf(direct.violations());
+        }
+    }
+
+    @Test
+    void checksEachLevelOnceAndKeepsTheRequestedOrder() throws Exception {
+        List<CompatibilityLevel> checked = new ArrayList<>();
+        Path file = Path.of("v2.avsc");
+
+        List<CheckResult> results = CompatibilityLevels.check(
+                List.of(CompatibilityLevel.FULL, CompatibilityLevel.BACKWARD, CompatibilityLevel.FORWARD), true,
+                level -> {
+                    checked.add(level);
+                    return level == CompatibilityLevel.FORWARD
+                            ? CheckResult.error(CheckResult.COMPATIBILITY, file, level.toString(), new IllegalStateException("boom"))
+                            : CheckResult.compatibilitySuccess(file, level);
+                });
+
+        assertThat(checked).containsExactly(CompatibilityLevel.BACKWARD, CompatibilityLevel.FORWARD);
+        assertThat(results).extracting(CheckResult::level).containsExactly("FULL", "BACKWARD", "FORWARD");
+        assertThat(results).extracting(CheckResult::status)
+                .containsExactly(CheckStatus.ERROR, CheckStatus.PASS, CheckStatus.ERROR);
+    }
+
+    private static CheckResult result(Path file, CompatibilityLevel level, CompatibilityExecutionResult result) {
+        return result.isCompatible()
+                ? CheckResult.compatibilitySuccess(file, level)
+                : CheckResult.compatibilityFailure(file, level, result.getIncompatibleDifferences());
+    }
+
+    private TypedContent read(String name) throws Exception {
+        return SchemaFileReader.read(SCHEMAS.resolve(name), support.getContentType());
+    }
+}
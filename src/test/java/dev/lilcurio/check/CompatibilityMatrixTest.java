@@ -0,0 +1,96 @@
+package dev.lilcurio.check;
+
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompatibilityMatrixTest {
+
+    private static final List<String> VERSIONS = List.of("v1", "v2", "v3", "v4");
+    // v3 republished v1's content
+    private static final List<TypedContent> CONTENTS = List.of(content("a"), content("b"), content("a"), content("c"));
+
+    private static TypedContent content(String content) {
+        return TypedContent.create(content, "application/json");
+    }
+
+    @Test
+    void memoizesByContentAndDerivesForwardFromBackward() throws Exception {
+        // b can read a; c can read b, and a (so v1 and v3) can read c
+        Set<String> canRead = Set.of("b<a", "c<b", "a<c");
+        AtomicInteger calls = new AtomicInteger();
+        CompatibilityMatrix.Direction direction = (reader, writer) -> {
+            calls.incrementAndGet();
+            return canRead.contains(name(reader) + "<" + name(writer));
+        };
+
+        CompatibilityMatrix backward = CompatibilityMatrix.compute(VERSIONS, CONTENTS, true,
+                CompatibilityLevel.BACKWARD_TRANSITIVE, 4, direction);
+
+        assertThat(backward.level()).isEqualTo(CompatibilityLevel.BACKWARD);
+        assertThat(row(backward, 0)).containsExactly(null, false, true, true);
+        assertThat(row(backward, 1)).containsExactly(true, null, true, false);
+        assertThat(row(backward, 3)).containsExactly(false, true, false, null);
+        // Three distinct contents give six ordered pairs; v1 and v3 share theirs
+        assertThat(calls.get()).isEqualTo(6);
+        assertThat(backward.checks()).isEqualTo(6);
+
+        CompatibilityMatrix forward = CompatibilityMatrix.compute(VERSIONS, CONTENTS, true,
+                CompatibilityLevel.FORWARD, 4, direction);
+        for (int row = 0; row < VERSIONS.size(); row++) {
+            for (int column = 0; column < VERSIONS.size(); column++) {
+                assertThat(forward.cell(row, column)).isEqualTo(backward.cell(column, row));
+            }
+        }
+    }
+
+    @Test
+    void fullSkipsTheSecondDirectionOnceTheFirstFails() throws Exception {
+        Set<String> asked = ConcurrentHashMap.newKeySet();
+        CompatibilityMatrix full = CompatibilityMatrix.compute(List.of("v1", "v2"),
+                List.of(content("a"), content("b")), false, CompatibilityLevel.FULL, 1, (reader, writer) -> {
+                    asked.add(reader + "<" + writer);
+                    return false;
+                });
+
+        assertThat(full.rows()).containsExactly("v2");
+        assertThat(full.columns()).containsExactly("v1");
+        assertThat(full.cell(0, 0)).isFalse();
+        assertThat(asked).containsExactly("1<0");
+    }
+
+    @Test
+    void findsTheEarliestVersionTheProposedOneIsCompatibleWith() throws Exception {
+        // The proposed version (v4) can read v2 and v3 but not v1
+        CompatibilityMatrix matrix = CompatibilityMatrix.compute(VERSIONS,
+                List.of(content("a"), content("b"), content("c"), content("d")), false,
+                CompatibilityLevel.BACKWARD, 2, (reader, writer) -> writer > 0);
+
+        assertThat(matrix.earliestCompatible()).isEqualTo(1);
+        assertThat(matrix.isCompatible()).isFalse();
+
+        CompatibilityMatrix none = CompatibilityMatrix.compute(VERSIONS,
+                List.of(content("a"), content("b"), content("c"), content("d")), false,
+                CompatibilityLevel.BACKWARD, 2, (reader, writer) -> writer != 2);
+        assertThat(none.earliestCompatible()).isEqualTo(-1);
+    }
+
+    private static String name(int version) {
+        return CONTENTS.get(version).getContent().content();
+    }
+
+    private static Boolean[] row(CompatibilityMatrix matrix, int row) {
+        Boolean[] cells = new Boolean[matrix.columns().size()];
+        for (int column = 0; column < cells.length; column++) {
+            cells[column] = matrix.cell(row, column);
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.lilcurio.check;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void splitsFilesIntoDisjointPartsOfSimilarSize() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // A few large schemas among many small ones
+            files.add(Files.writeString(dir.resolve("schema-" + i + ".json"), "x".repeat(i % 10 == 0 ? 50_000 : 500 + i)));
+        }
+
+        List<Path> all = new ArrayList<>();
+        List<Long> loads = new ArrayList<>();
+        for (int index = 1; index <= 4; index++) {
+            List<Path> part = new Shard(index, 4).select(files);
+            all.addAll(part);
+            long load = 0;
+            for (Path file : part) {
+                load += Files.size(file);
+            }
+            loads.add(load);
+        }
+
+        assertThat(all).containsExactlyInAnyOrderElementsOf(files);
+        assertThat(Collections.max(loads) - Collections.min(loads)).isLessThan(5_000);
+    }
+
+    @Test
+    void splitDoesNotDependOnInputOrder() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            files.add(Files.writeString(dir.resolve(i + ".avsc"), "{}"));
+        }
+        List<Path> reversed = new ArrayList<>(files);
+        Collections.reverse(reversed);
+
+        List<Path> part = new Shard(2, 3).select(files);
+        assertThat(part).hasSizeBetween(3, 4);
+        assertThat(new Shard(2, 3).select(reversed)).containsExactlyInAnyOrderElementsOf(part);
+        // Selected files keep their input order
+        assertThat(part).isSortedAccordingTo((a, b) -> Integer.compare(files.indexOf(a), files.indexOf(b)));
+    }
+
+    @Test
+    void parsesOneBasedIndexes() {
+        assertThat(Shard.parse("3/8")).isEqualTo(new Shard(3, 8));
+        assertThatThrownBy(() -> Shard.parse("0/8")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Shard.parse("9/8")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Shard.parse("3")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.lilcurio.check;
+
+import dev.lilcurio.io.SchemaFileReader;
+import dev.lilcurio.schema.SchemaSupport;
+import dev.lilcurio.schema.SchemaType;
+import dev.lilcurio.schema.SchemaTypeRegistry;
+import io.apicurio.registry.content.TypedContent;
+import io.apicurio.registry.rules.compatibility.CompatibilityChecker;
+import io.apicurio.registry.rules.compatibility.CompatibilityDifference;
+import io.apicurio.registry.rules.compatibility.CompatibilityExecutionResult;
+import io.apicurio.registry.rules.compatibility.CompatibilityLevel;
+import io.apicurio.registry.rules.violation.RuleViolation;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransitiveCompatibilityTest {
+
+    private static final Path SCHEMAS = Path.of("src/test/resources/schemas/json");
+
+    private final SchemaSupport support = SchemaTypeRegistry.get(SchemaType.JSON);
+    private final CompatibilityChecker checker = support.getCompatibilityChecker();
+
+    @ParameterizedTest
+    @EnumSource(CompatibilityLevel.class)
+    void parallelMatchesSequential(CompatibilityLevel level) throws Exception {
+        List<TypedContent> existing = read("schema-v1.json", "schema-v2-incompatible.json", "schema-v1.json");
+        TypedContent proposed = read("schema-v2-compatible.json").get(0);
+
+        CompatibilityExecutionResult sequential = checker.testCompatibility(
+                level, existing, proposed, Collections.emptyMap());
+        CompatibilityExecutionResult parallel = TransitiveCompatibility.testParallel(
+                checker, level, existing, proposed, Collections.emptyMap(), 4, false);
+
+        assertThat(parallel.isCompatible()).isEqualTo(sequential.isCompatible());
+        assertThat(violations(parallel)).isEqualTo(violations(sequential));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompatibilityLevel.class, names = ".*_TRANSITIVE", mode = EnumSource.Mode.MATCH_ALL)
+    void streamingMatchesSequential(CompatibilityLevel level) throws Exception {
+        List<TypedContent> existing = read("schema-v1.json", "schema-v2-incompatible.json");
+        TypedContent proposed = read("schema-v2-compatible.json").get(0);
+
+        CompatibilityExecutionResult sequential = checker.testCompatibility(
+                level, existing, proposed, Collections.emptyMap());
+        List<TypedContent> newestFirst = new ArrayList<>(existing);
+        Collections.reverse(newestFirst);
+        CompatibilityExecutionResult streamed = TransitiveCompatibility.test(
+                checker, level, newestFirst.stream(), proposed, Collections.emptyMap(), false);
+
+        assertThat(violations(streamed)).isEqualTo(violations(sequential));
+    }
+
+    private List<TypedContent> read(String... names) throws IOException {
+        List<TypedContent> contents = new ArrayList<>();
+        for (String name : names) {
+            contents.add(SchemaFileReader.read(SCHEMAS.resolve(name), support.getContentType()));
+        }
+        return contents;
+    }
+
+    private static Set<RuleViolation> violations(CompatibilityExecutionResult result) {
+        return result.getIncompatibleDifferences().stream()
+                .map(CompatibilityDifference::asRuleViolation)
+                .collect(Collectors.toSet());
+    }
+}
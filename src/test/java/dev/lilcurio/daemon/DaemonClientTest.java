@@ -0,0 +1,53 @@
+package dev.lilcurio.daemon;
+
+import dev.lilcurio.LilCurio;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DaemonClientTest {
+
+    @Test
+    void onlyChangedSinceDefaultsToTheWorkingDirectory() {
+        String cwd = Path.of("").toAbsolutePath().toString();
+
+        assertThat(DaemonClient.absolutizePaths(new String[]{"diff", "--type", "json"}, LilCurio.commandLine()))
+                .containsExactly("diff", "--type", "json");
+        assertThat(DaemonClient.absolutizePaths(new String[]{"diff", "--type", "json", "--changed-since", "main"},
+                LilCurio.commandLine()))
+                .containsExactly("diff", "--type", "json", "--changed-since", "main", cwd);
+    }
+
+    @Test
+    void onlyPathArgumentsAreRewritten() {
+        String cwd = Path.of("").toAbsolutePath().toString();
+
+        assertThat(DaemonClient.absolutizePaths(new String[]{"validate", "-t", "json", "json"}, LilCurio.commandLine()))
+                .containsExactly("validate", "-t", "json", cwd + File.separator + "json");
+        assertThat(DaemonClient.absolutizePaths(
+                new String[]{"validate", "-tjson", "--cache-dir=json", "--metrics-file", "json", "--", "-json"},
+                LilCurio.commandLine()))
+                .containsExactly("validate", "-tjson", "--cache-dir=" + cwd + File.separator + "json",
+                        "--metrics-file", cwd + File.separator + "json", "--", cwd + File.separator + "-json");
+    }
+
+    @Test
+    void pathsUnderTheWorkingDirectoryAreReportedRelative() {
+        String output = "FAIL: Schema validation failed for /home/dev/schemas/a.json (level: FULL)\n"
+                + "{\"file\":\"/home/dev/schemas/b.json\"}\n";
+
+        assertThat(DaemonClient.relativizePaths(output, "/home/dev/schemas"))
+                .isEqualTo("FAIL: Schema validation failed for a.json (level: FULL)\n{\"file\":\"b.json\"}\n");
+    }
+
+    @Test
+    void pathsElsewhereAreLeftAlone() {
+        String output = "/home/dev/other/a.json /mnt/home/dev/a.json /home/devices/a.json\n";
+
+        assertThat(DaemonClient.relativizePaths(output, "/home/dev")).isEqualTo("other/a.json /mnt/home/dev/a.json /home/devices/a.json\n");
+        assertThat(DaemonClient.relativizePaths(output, "/")).isEqualTo(output);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.lilcurio.git;
+
+import dev.lilcurio.git.GitChanges.Change;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitChangesTest {
+
+    @Test
+    void parsesAddedModifiedAndRenamedFiles() {
+        String output = "M\0schemas/a.json\0A\0schemas/new file.json\0R087\0schemas/old.json\0schemas/moved.json\0";
+
+        assertThat(GitChanges.parse(output)).containsExactly(
+                new Change("schemas/a.json", "schemas/a.json"),
+                new Change("schemas/new file.json", null),
+                new Change("schemas/moved.json", "schemas/old.json"));
+    }
+
+    @Test
+    void parsesEmptyOutput() {
+        assertThat(GitChanges.parse("")).isEmpty();
+    }
+}
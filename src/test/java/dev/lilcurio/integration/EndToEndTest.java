@@ -1,9 +1,21 @@
 package dev.lilcurio.integration;
 
 import dev.lilcurio.LilCurio;
+import dev.lilcurio.audit.ExportZip;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class EndToEndTest {
@@ -30,6 +42,17 @@ class EndToEndTest {
         assertThat(exitCode).isEqualTo(1);
     }
 
+    @Test
+    void schemasOverLimitsGetTheirOwnExitCode() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json/schema-v1.json",
+                "src/test/resources/schemas/json/valid-schema.json",
+                "--type", "json", "--max-depth", "2", "--no-cache");
+        assertThat(exitCode).isEqualTo(3);
+        assertThat(execute("validate", "src/test/resources/schemas/avro/user-v1.avsc",
+                "--type", "avro", "--max-depth", "2", "--no-cache")).isEqualTo(3);
+    }
+
     @Test
     void compatibilityBackwardPass() {
         int exitCode = execute("compatibility",
@@ -48,6 +71,118 @@ class EndToEndTest {
         assertThat(exitCode).isEqualTo(1);
     }
 
+    @Test
+    void validateAvroSchemas() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/avro/user-v1.avsc",
+                "src/test/resources/schemas/avro/user-v2-compatible.avsc",
+                "--type", "avro", "--no-cache");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void validateInvalidAvroSchema() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/avro/invalid-syntax.avsc",
+                "--type", "avro", "--no-cache");
+        assertThat(exitCode).isEqualTo(1);
+    }
+
+    @Test
+    void compatibilityAvroBackwardTransitive() {
+        int exitCode = execute("compatibility",
+                "src/test/resources/schemas/avro/user-v1.avsc",
+                "src/test/resources/schemas/avro/user-v2-compatible.avsc",
+                "src/test/resources/schemas/avro/user-v2-incompatible.avsc",
+                "--type", "avro", "--level", "backward-transitive", "--no-cache");
+        assertThat(exitCode).isEqualTo(1);
+    }
+
+    @Test
+    void compatibilityAvroBackwardPass() {
+        int exitCode = execute("compatibility",
+                "src/test/resources/schemas/avro/user-v1.avsc",
+                "src/test/resources/schemas/avro/user-v2-compatible.avsc",
+                "--type", "avro", "--level", "backward", "--no-cache");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void compatibilityChecksSeveralLevelsInOnePass() {
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setOut(new PrintWriter(out))
+                .setErr(new PrintWriter(new StringWriter()))
+                .execute("compatibility",
+                        "src/test/resources/schemas/avro/user-v1.avsc",
+                        "src/test/resources/schemas/avro/user-v2-incompatible.avsc",
+                        "--type", "avro", "--level", "backward,forward,full", "--json", "--no-cache");
+
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(out.toString())
+                .contains("\"total\" : 3")
+                .containsPattern("\"status\" : \"FAIL\",\\s+\"command\" : \"compatibility\",[^}]+\"level\" : \"BACKWARD\"")
+                .containsPattern("\"status\" : \"PASS\",\\s+\"command\" : \"compatibility\",[^}]+\"level\" : \"FORWARD\"")
+                .containsPattern("\"status\" : \"FAIL\",\\s+\"command\" : \"compatibility\",[^}]+\"level\" : \"FULL\"");
+    }
+
+    @Test
+    void validateWritesPrometheusMetrics(@TempDir Path dir) throws IOException {
+        Path metricsFile = dir.resolve("lilcurio.prom");
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json/schema-v1.json",
+                "src/test/resources/schemas/json/schema-v2-compatible.json",
+                "--type", "json", "--no-cache",
+                "--metrics-format", "prometheus", "--metrics-file", metricsFile.toString());
+
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(Files.readString(metricsFile))
+                .contains("lilcurio_files{command=\"validate\"} 2")
+                .contains("lilcurio_phase_duration_seconds{command=\"validate\",phase=\"check\",quantile=\"0.99\"}");
+    }
+
+    @Test
+    void validateResolvesCrossFileReferences() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json-refs/customer.json",
+                "--type", "json", "--no-cache");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void validateUnresolvableReferenceIsError() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json-refs/broken-ref.json",
+                "--type", "json", "--no-cache");
+        assertThat(exitCode).isEqualTo(2);
+    }
+
+    @Test
+    void validateProtobufResolvesImportsFromEnclosingDirectories() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/protobuf/shop/order-v1.proto",
+                "src/test/resources/schemas/protobuf/shop/order-v2-compatible.proto",
+                "--type", "protobuf", "--no-cache");
+        assertThat(exitCode).isEqualTo(0);
+
+        assertThat(execute("validate", "src/test/resources/schemas/protobuf/shop/unknown-type.proto",
+                "--type", "protobuf", "--no-cache")).isEqualTo(1);
+        assertThat(execute("validate", "src/test/resources/schemas/protobuf/shop/broken-import.proto",
+                "--type", "protobuf", "--no-cache")).isEqualTo(2);
+    }
+
+    @Test
+    void compatibilityProtobufBackward() {
+        assertThat(execute("compatibility",
+                "src/test/resources/schemas/protobuf/shop/order-v1.proto",
+                "src/test/resources/schemas/protobuf/shop/order-v2-compatible.proto",
+                "--type", "protobuf", "--level", "backward", "--no-cache")).isEqualTo(0);
+        assertThat(execute("compatibility",
+                "src/test/resources/schemas/protobuf/shop/order-v1.proto",
+                "src/test/resources/schemas/protobuf/shop/order-v2-incompatible.proto",
+                "--type", "protobuf", "--level", "backward", "--no-cache")).isEqualTo(1);
+    }
+
     @Test
     void validateWithJsonOutput() {
         int exitCode = execute("validate",
@@ -56,6 +191,314 @@ class EndToEndTest {
         assertThat(exitCode).isEqualTo(0);
     }
 
+    @Test
+    void validateMultipleFiles() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json/schema-v1.json",
+                "src/test/resources/schemas/json/schema-v2-compatible.json",
+                "--type", "json", "--parallelism", "2");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void validateGlobPattern() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json/schema-v*.json",
+                "--type", "json");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void validateDirectoryReportsWorstExitCode() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json",
+                "--type", "json", "--level", "syntax_only", "--json");
+        assertThat(exitCode).isEqualTo(1);
+    }
+
+    @Test
+    void validateMissingFileIsError() {
+        int exitCode = execute("validate",
+                "src/test/resources/schemas/json/valid-schema.json",
+                "src/test/resources/schemas/json/does-not-exist.json",
+                "--type", "json");
+        assertThat(exitCode).isEqualTo(2);
+    }
+
+    @Test
+    void diffMultipleFilesAgainstHead() {
+        int exitCode = execute("diff",
+                "src/test/resources/schemas/json/schema-v1.json",
+                "src/test/resources/schemas/json/valid-schema.json",
+                "--type", "json", "--level", "backward");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void diffAgainstCommittedHistory() {
+        int exitCode = execute("diff",
+                "src/test/resources/schemas/json/schema-v1.json",
+                "--type", "json", "--level", "backward-transitive", "--history", "3");
+        assertThat(exitCode).isEqualTo(0);
+    }
+
+    @Test
+    void diffChangedSinceChecksOnlyChangedFiles(@TempDir Path repo) throws Exception {
+        Path schemas = Files.createDirectories(repo.resolve("schemas"));
+        Path v1 = Path.of("src/test/resources/schemas/json/schema-v1.json");
+        Files.copy(v1, schemas.resolve("changed.json"));
+        Files.copy(v1, schemas.resolve("renamed.json"));
+        Files.writeString(schemas.resolve("untouched.json"), "not even json");
+        git(repo, "init", "-q", "-b", "main");
+        git(repo, "add", "-A");
+        git(repo, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "base");
+        git(repo, "checkout", "-q", "-b", "pr");
+        Files.copy(Path.of("src/test/resources/schemas/json/schema-v2-incompatible.json"),
+                schemas.resolve("changed.json"), StandardCopyOption.REPLACE_EXISTING);
+        git(repo, "mv", "schemas/renamed.json", "schemas/moved.json");
+        git(repo, "add", "-A");
+        git(repo, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "pr");
+
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setExitCodeExceptionMapper(exception -> 2)
+                .setOut(new PrintWriter(out))
+                .execute("diff", schemas.toString(), "--type", "json", "--changed-since", "main",
+                        "--format", "ndjson", "--no-cache");
+
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(out.toString())
+                .contains("changed.json\",\"level\":\"BACKWARD\",\"violations\"")
+                .contains("moved.json")
+                .doesNotContain("untouched.json");
+    }
+
+    @Test
+    void diffHistoryReportsVersionsItCannotRead(@TempDir Path repo) throws Exception {
+        Path schema = repo.resolve("order.proto");
+        Files.writeString(schema, "syntax = \"proto3\";\nmessage Order { string id = 1; }\n");
+        git(repo, "init", "-q", "-b", "main");
+        git(repo, "add", "-A");
+        git(repo, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "v1");
+        Files.writeString(schema, "syntax = \"proto3\";\nmessage Order { string id = 1; string name = 2; }\n");
+        git(repo, "add", "-A");
+        git(repo, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "v2");
+        // Lose the first version's content, as in a partial clone or a damaged repository
+        String blob = new String(new ProcessBuilder("git", "rev-parse", "HEAD~1:order.proto")
+                .directory(repo.toFile()).start().getInputStream().readAllBytes()).trim();
+        Files.delete(repo.resolve(".git/objects/" + blob.substring(0, 2) + "/" + blob.substring(2)));
+
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setExitCodeExceptionMapper(exception -> 2)
+                .setOut(new PrintWriter(out))
+                .execute("diff", schema.toString(), "--type", "protobuf", "--level", "backward-transitive",
+                        "--history", "5", "--format", "ndjson", "--no-cache");
+
+        assertThat(exitCode).isEqualTo(2);
+        assertThat(out.toString()).contains("\"status\":\"ERROR\"").contains("Cannot read order.proto at commit");
+    }
+
+    private static void git(Path dir, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).directory(dir.toFile()).inheritIO().start();
+        assertThat(process.waitFor()).isZero();
+    }
+
+    @Test
+    void compatibilityResultIsServedFromCache(@TempDir Path cacheDir) throws IOException {
+        String[] args = {"compatibility",
+                "src/test/resources/schemas/json/schema-v1.json",
+                "src/test/resources/schemas/json/schema-v2-incompatible.json",
+                "--type", "json", "--level", "backward", "--cache-dir", cacheDir.toString()};
+
+        assertThat(execute(args)).isEqualTo(1);
+        try (Stream<Path> entries = Files.walk(cacheDir)) {
+            assertThat(entries.filter(p -> p.toString().endsWith(".json"))).hasSize(1);
+        }
+        assertThat(execute(args)).isEqualTo(1);
+    }
+
+    @Test
+    void daemonStopWithoutDaemonIsError(@TempDir Path dir) {
+        int exitCode = execute("daemon", "--stop", "--socket", dir.resolve("none.sock").toString());
+        assertThat(exitCode).isEqualTo(2);
+    }
+
+    @Test
+    void validateDirectoryWithNdjsonOutput() {
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setExitCodeExceptionMapper(exception -> 2)
+                .setOut(new PrintWriter(out))
+                .execute("validate", "src/test/resources/schemas/json",
+                        "--type", "json", "--format", "ndjson", "--no-cache");
+
+        assertThat(exitCode).isEqualTo(1);
+        List<String> lines = out.toString().lines().toList();
+        assertThat(lines).hasSize(6);
+        assertThat(lines).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(lines.get(5)).contains("\"type\":\"summary\"");
+    }
+
+    @Test
+    void compatibilityMatrixReportsEveryPair() {
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setOut(new PrintWriter(out))
+                .execute("compatibility", "--type", "avro", "--level", "forward", "--no-cache", "--matrix",
+                        "--format", "ndjson",
+                        "src/test/resources/schemas/avro/user-v2-incompatible.avsc",
+                        "src/test/resources/schemas/avro/user-v1.avsc",
+                        "src/test/resources/schemas/avro/user-v2-compatible.avsc");
+
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(out.toString()).contains("\"type\":\"matrix\"", "\"matrix\":[[false,true]]",
+                "\"earliestCompatible\":\"src/test/resources/schemas/avro/user-v1.avsc\"");
+    }
+
+    @Test
+    void shardReportsMergeIntoTheWholeRun(@TempDir Path dir) throws IOException {
+        List<String> reports = new ArrayList<>();
+        for (String shard : List.of("1/3", "2/3", "3/3")) {
+            StringWriter out = new StringWriter();
+            new CommandLine(new LilCurio())
+                    .setOut(new PrintWriter(out))
+                    .execute("validate", "src/test/resources/schemas/json", "--type", "json",
+                            "--level", "syntax_only", "--no-cache", "--json", "--shard", shard);
+            Path report = dir.resolve("shard-" + reports.size() + ".json");
+            Files.writeString(report, out.toString());
+            reports.add(report.toString());
+        }
+
+        StringWriter merged = new StringWriter();
+        List<String> args = new ArrayList<>(List.of("merge-reports", "--json"));
+        args.addAll(reports);
+        int exitCode = new CommandLine(new LilCurio())
+                .setOut(new PrintWriter(merged))
+                .execute(args.toArray(String[]::new));
+
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(merged.toString()).contains("\"total\" : 5", "\"failed\" : 1", "invalid-syntax.json");
+
+        args.add(reports.get(0));
+        assertThat(execute(args.toArray(String[]::new))).isEqualTo(2);
+    }
+
+    @Test
+    void mergedNdjsonReportListsEveryResult(@TempDir Path dir) throws IOException {
+        List<String> args = new ArrayList<>(List.of("merge-reports", "--format", "ndjson"));
+        for (String shard : List.of("1/2", "2/2")) {
+            StringWriter out = new StringWriter();
+            new CommandLine(new LilCurio())
+                    .setOut(new PrintWriter(out))
+                    .execute("validate", "src/test/resources/schemas/json", "--type", "json",
+                            "--level", "syntax_only", "--no-cache", "--format", "ndjson", "--shard", shard);
+            Path report = dir.resolve("shard-" + args.size() + ".ndjson");
+            Files.writeString(report, out.toString());
+            args.add(report.toString());
+        }
+
+        StringWriter merged = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setOut(new PrintWriter(merged))
+                .execute(args.toArray(String[]::new));
+
+        assertThat(exitCode).isEqualTo(1);
+        List<String> lines = merged.toString().lines().toList();
+        assertThat(lines).hasSize(6);
+        try (Stream<Path> schemas = Files.list(Path.of("src/test/resources/schemas/json"))) {
+            for (Path schema : schemas.toList()) {
+                assertThat(lines.subList(0, 5)).anyMatch(line -> line.contains("\"file\":\"" + schema + "\""));
+            }
+        }
+        assertThat(lines.get(5)).contains("\"type\":\"summary\"", "\"total\":5");
+    }
+
+    @Test
+    void pipeAnswersRequestsInOrder(@TempDir Path dir) throws IOException {
+        Path requests = dir.resolve("requests.ndjson");
+        Files.writeString(requests, String.join("\n",
+                "{\"id\":\"v1\",\"command\":\"validate\",\"schema\":{\"path\":\"src/test/resources/schemas/json/schema-v1.json\"}}",
+                "{\"id\":\"v2\",\"command\":\"compatibility\",\"existing\":[{\"path\":\"src/test/resources/schemas/json/schema-v1.json\"}],"
+                        + "\"schema\":{\"path\":\"src/test/resources/schemas/json/schema-v2-incompatible.json\"}}",
+                "",
+                "{\"command\":\"validate\",\"type\":\"avro\",\"schema\":{\"content\":{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\"]}}}",
+                "not json"));
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setExitCodeExceptionMapper(exception -> 2)
+                .setOut(new PrintWriter(out))
+                .execute("pipe", "--input", requests.toString(), "--type", "json", "--no-cache",
+                        "--parallelism", "4", "--max-in-flight", "2");
+
+        assertThat(exitCode).isEqualTo(2);
+        List<String> lines = out.toString().lines().toList();
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(0)).startsWith("{\"id\":\"v1\",\"status\":\"PASS\"");
+        assertThat(lines.get(1)).startsWith("{\"id\":\"v2\",\"status\":\"FAIL\"");
+        assertThat(lines.get(2)).startsWith("{\"id\":\"4\",\"status\":\"PASS\"");
+        assertThat(lines.get(3)).startsWith("{\"id\":\"5\",\"status\":\"ERROR\"").contains("not valid JSON");
+        assertThat(lines.get(4)).contains("\"type\":\"summary\"", "\"total\":4");
+    }
+
+    @Test
+    void validateDataListsTheFirstInvalidRecords(@TempDir Path dir) throws IOException {
+        Path records = dir.resolve("customers.ndjson");
+        Files.writeString(records, String.join("\n",
+                "{\"id\": 1}",
+                "{\"id\": \"two\"}",
+                "",
+                "{\"id\": 3, \"billing\": {\"street\": \"Main St\", \"city\": \"Berlin\", \"country\": \"de\"}}",
+                "{\"id\": \"four\"}",
+                ""));
+        StringWriter out = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setOut(new PrintWriter(out))
+                .execute("validate-data", "--schema", "src/test/resources/schemas/json-refs/customer.json",
+                        records.toString(), "--show-failures", "2", "--parallelism", "3", "--json");
+
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(out.toString()).contains("\"records\" : 4", "\"invalid\" : 3",
+                "\"$.id: string found, integer expected\" : 2", "\"line\" : 2", "\"line\" : 4");
+        assertThat(out.toString()).doesNotContain("\"line\" : 5");
+
+        Files.writeString(records, "{\"id\": 1}\n{\"id\": \n");
+        assertThat(execute("validate-data", "--schema", "src/test/resources/schemas/json-refs/customer.json",
+                records.toString())).isEqualTo(2);
+    }
+
+    @Test
+    void auditReportsArtifactsViolatingTheirRules(@TempDir Path dir) throws IOException {
+        Path export = dir.resolve("export.zip");
+        try (ExportZip zip = new ExportZip(export)) {
+            zip.globalRule("COMPATIBILITY", "BACKWARD")
+                    .artifact("default", "users", "AVRO")
+                    .version("default", "users", "1", Files.readString(Path.of("src/test/resources/schemas/avro/user-v1.avsc")))
+                    .version("default", "users", "2", Files.readString(Path.of("src/test/resources/schemas/avro/user-v2-compatible.avsc")))
+                    .artifact("default", "people", "JSON")
+                    .version("default", "people", "1", Files.readString(Path.of("src/test/resources/schemas/json/schema-v1.json")))
+                    .version("default", "people", "2", Files.readString(Path.of("src/test/resources/schemas/json/schema-v2-incompatible.json")))
+                    .artifact("default", "api", "OPENAPI")
+                    .version("default", "api", "1", "{}");
+        }
+        StringWriter out = new StringWriter();
+        StringWriter err = new StringWriter();
+        int exitCode = new CommandLine(new LilCurio())
+                .setExitCodeExceptionMapper(exception -> 2)
+                .setOut(new PrintWriter(out))
+                .setErr(new PrintWriter(err))
+                .execute("audit", export.toString(), "--format", "ndjson");
+
+        assertThat(exitCode).isEqualTo(1);
+        List<String> lines = out.toString().lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"status\":\"FAIL\"", "\"file\":\"default/people\"", "version 2: ");
+        assertThat(lines.get(1)).contains("\"status\":\"PASS\"", "\"file\":\"default/users\"");
+        assertThat(err.toString()).contains("OPENAPI=1");
+    }
+
     @Test
     void noSubcommandShowsHelp() {
         int exitCode = execute();
@@ -0,0 +1,81 @@
+package dev.lilcurio.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MetricsTest {
+
+    @Test
+    void nestedSpansAreNotCountedTwice() throws InterruptedException {
+        Metrics metrics = Metrics.start("test");
+        Path file = Path.of("a.json");
+        try (Metrics.Span check = metrics.span(Phase.CHECK, file)) {
+            try (Metrics.Span git = metrics.span(Phase.GIT, file)) {
+                Thread.sleep(50);
+            }
+        }
+
+        MetricsReport report = metrics.report();
+        assertThat(report.phases().get(Phase.GIT).totalNanos()).isGreaterThanOrEqualTo(50_000_000L);
+        assertThat(report.phases().get(Phase.CHECK).totalNanos()).isLessThan(50_000_000L);
+    }
+
+    @Test
+    void allocationElsewhereCountsOnceForTheInnermostSpan() {
+        assumeTrue(Metrics.allocatedBytes() > 0, "thread allocation is not measured on this JVM");
+        Metrics metrics = Metrics.start("test");
+        Path file = Path.of("a.json");
+        try (Metrics.Span read = metrics.span(Phase.READ, file)) {
+            try (Metrics.Span check = metrics.span(Phase.CHECK, file)) {
+                Metrics.allocatedElsewhere(64L * 1024 * 1024);
+            }
+        }
+
+        MetricsReport report = metrics.report();
+        assertThat(report.phases().get(Phase.CHECK).allocatedBytes()).isGreaterThanOrEqualTo(64L * 1024 * 1024);
+        assertThat(report.phases().get(Phase.READ).allocatedBytes()).isLessThan(64L * 1024 * 1024);
+    }
+
+    @Test
+    void phaseDistributionIsOverFiles() {
+        Metrics metrics = Metrics.start("test");
+        for (int i = 0; i < 100; i++) {
+            try (Metrics.Span span = metrics.span(Phase.READ, Path.of("schema-" + i + ".json"))) {
+                span.schemaBytes(10);
+            }
+        }
+
+        MetricsReport report = metrics.report();
+        MetricsReport.PhaseStats read = report.phases().get(Phase.READ);
+        assertThat(read.count()).isEqualTo(100);
+        assertThat(read.p50Nanos()).isLessThanOrEqualTo(read.p95Nanos());
+        assertThat(read.p95Nanos()).isLessThanOrEqualTo(read.p99Nanos());
+        assertThat(read.p99Nanos()).isLessThanOrEqualTo(read.maxNanos());
+        assertThat(report.files()).hasSize(100).allMatch(f -> f.schemaBytes() == 10);
+    }
+
+    @Test
+    void percentileUsesNearestRank() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+        assertThat(MetricsReport.percentile(sorted, 0.50)).isEqualTo(50);
+        assertThat(MetricsReport.percentile(sorted, 0.95)).isEqualTo(95);
+        assertThat(MetricsReport.percentile(sorted, 0.99)).isEqualTo(99);
+        assertThat(MetricsReport.percentile(new long[]{7}, 0.99)).isEqualTo(7);
+    }
+
+    @Test
+    void disabledMetricsRecordNothing() {
+        Metrics metrics = Metrics.disabled();
+        try (Metrics.Span span = metrics.span(Phase.READ, Path.of("a.json"))) {
+            span.schemaBytes(10);
+        }
+        assertThat(metrics.report().files()).isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package dev.lilcurio.refs;
+
+import dev.lilcurio.schema.JsonSchemaSupport;
+import io.apicurio.registry.content.TypedContent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReferenceResolverTest {
+
+    private static final Map<String, String> COMMON = Map.of(
+            "/repo/common/address.json", "{\"type\":\"object\",\"properties\":{\"country\":{\"$ref\":\"country.json\"}}}",
+            "/repo/common/country.json", "{\"type\":\"string\"}",
+            "/repo/common/money.json", "{\"type\":\"number\"}");
+
+    private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+
+    private final ReferenceSource source = new ReferenceSource() {
+        @Override
+        public String id() {
+            return "test";
+        }
+
+        @Override
+        public String locate(String baseLocation, String ref) {
+            return Path.of(baseLocation).resolveSibling(ref).normalize().toString();
+        }
+
+        @Override
+        public List<String> locateImport(String baseLocation, String ref) {
+            List<String> candidates = new ArrayList<>();
+            for (Path dir = Path.of(baseLocation).getParent(); dir != null; dir = dir.getParent()) {
+                candidates.add(dir.resolve(ref).normalize().toString());
+            }
+            return candidates;
+        }
+
+        @Override
+        public byte[] read(String location) throws IOException {
+            reads.computeIfAbsent(location, l -> new AtomicInteger()).incrementAndGet();
+            String content = COMMON.get(location);
+            if (content == null) {
+                throw new NoSuchFileException(location);
+            }
+            return content.getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    private static TypedContent schema(String... refs) {
+        StringBuilder properties = new StringBuilder();
+        for (int i = 0; i < refs.length; i++) {
+            properties.append(i == 0 ? "" : ",").append("\"p").append(i).append("\":{\"$ref\":\"").append(refs[i]).append("\"}");
+        }
+        return TypedContent.create("{\"type\":\"object\",\"properties\":{" + properties + "}}", "application/json");
+    }
+
+    @Test
+    void resolvesReferencesTransitivelyKeyedAsWritten() throws IOException {
+        ReferenceResolver resolver = new ReferenceResolver(new JsonSchemaSupport(), new ReferenceCache(1024 * 1024));
+
+        Map<String, TypedContent> resolved = resolver.resolve(source, "/repo/orders/order.json",
+                schema("../common/address.json#/properties", "#/definitions/local", "https://example.com/x.json"));
+
+        assertThat(resolved).containsOnlyKeys("../common/address.json", "country.json");
+    }
+
+    @Test
+    void sharedDocumentsAreReadOnceAcrossConcurrentSchemas() {
+        ReferenceCache cache = new ReferenceCache(1024 * 1024);
+        ReferenceResolver resolver = new ReferenceResolver(new JsonSchemaSupport(), cache);
+
+        IntStream.range(0, 500).parallel().forEach(i -> {
+            try {
+                Map<String, TypedContent> resolved = resolver.resolve(source, "/repo/schema-" + i + ".json",
+                        schema("common/address.json", "common/money.json"));
+                assertThat(resolved).hasSize(3);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThat(cache.loads()).isEqualTo(3);
+        assertThat(reads.values()).allMatch(count -> count.get() == 1);
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() throws IOException {
+        ReferenceCache cache = new ReferenceCache(60);
+        ReferenceResolver resolver = new ReferenceResolver(new JsonSchemaSupport(), cache);
+
+        for (int i = 0; i < 10; i++) {
+            resolver.resolve(source, "/repo/a.json", schema("common/address.json"));
+            resolver.resolve(source, "/repo/b.json", schema("common/money.json"));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(60);
+        assertThat(cache.loads()).isGreaterThan(3);
+    }
+
+    @Test
+    void missingDocumentIsReportedWithItsReference() {
+        ReferenceResolver resolver = new ReferenceResolver(new JsonSchemaSupport(), new ReferenceCache(1024));
+
+        assertThatThrownBy(() -> resolver.resolve(source, "/repo/a.json", schema("common/missing.json")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("common/missing.json");
+    }
+}
@@ -0,0 +1,38 @@
+package dev.lilcurio.schema;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvroSchemaCacheTest {
+
+    private static final String USER = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"}]}";
+
+    @Test
+    void parsesEachDistinctSchemaOnce() {
+        AvroSchemaCache cache = new AvroSchemaCache();
+
+        Schema first = cache.parse(USER, Map.of());
+        Schema second = cache.parse(new String(USER), Map.of());
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keysIncludeReferences() {
+        AvroSchemaCache cache = new AvroSchemaCache();
+        String address = "{\"type\":\"record\",\"name\":\"Address\",\"fields\":[{\"name\":\"city\",\"type\":\"string\"}]}";
+        String withAddress = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"home\",\"type\":\"Address\"}]}";
+
+        Schema schema = cache.parse(withAddress, Map.of("Address", address));
+
+        assertThat(schema.getField("home").schema().getName()).isEqualTo("Address");
+        assertThatThrownBy(() -> cache.parse(withAddress, Map.of())).isInstanceOf(RuntimeException.class);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
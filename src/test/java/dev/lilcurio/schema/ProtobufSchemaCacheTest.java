@@ -0,0 +1,45 @@
+package dev.lilcurio.schema;
+
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProtobufSchemaCacheTest {
+
+    private static final Map<String, String> IMPORTS = Map.of(
+            "common/country.proto", "syntax = \"proto3\";\npackage common;\nmessage Country { string code = 1; }\n",
+            "common/address.proto", "syntax = \"proto3\";\npackage common;\nimport \"common/country.proto\";\n"
+                    + "message Address { string city = 1; common.Country country = 2; }\n");
+
+    private static String order(String message, String addressType) {
+        return "syntax = \"proto3\";\npackage shop;\nimport \"common/address.proto\";\n"
+                + "message " + message + " { string id = 1; " + addressType + " shipping = 2; }\n";
+    }
+
+    @Test
+    void linksEachImportOnceAcrossSchemas() throws DescriptorValidationException {
+        ProtobufSchemaCache cache = new ProtobufSchemaCache();
+
+        FileDescriptor order = cache.link(order("Order", "common.Address"), IMPORTS);
+        FileDescriptor invoice = cache.link(order("Invoice", "common.Address"), IMPORTS);
+
+        assertThat(order.findMessageTypeByName("Order").findFieldByName("shipping").getMessageType().getFullName())
+                .isEqualTo("common.Address");
+        assertThat(invoice.getDependencies()).containsExactlyElementsOf(order.getDependencies());
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTypesNoImportDefines() {
+        ProtobufSchemaCache cache = new ProtobufSchemaCache();
+
+        assertThatThrownBy(() -> cache.link(order("Order", "common.PostalAddress"), IMPORTS))
+                .isInstanceOf(Exception.class)
+                .hasMessageContaining("PostalAddress");
+    }
+}
@@ -0,0 +1,61 @@
+package dev.lilcurio.schema;
+
+import io.apicurio.registry.content.TypedContent;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaFingerprintTest {
+
+    private final SchemaSupport support = SchemaTypeRegistry.get(SchemaType.JSON);
+
+    @Test
+    void ignoresWhitespaceKeyOrderAndAnnotations() {
+        OptionalLong a = fingerprint("""
+                {"type": "object", "properties": {"name": {"type": "string"}}}""");
+        OptionalLong b = fingerprint("""
+                {
+                  "description": "A person",
+                  "properties": {
+                    "name": {"title": "Name", "type": "string"}
+                  },
+                  "type": "object"
+                }""");
+
+        assertThat(SchemaFingerprint.equivalent(a, b)).isTrue();
+    }
+
+    @Test
+    void keepsPropertiesNamedLikeAnnotations() {
+        OptionalLong a = fingerprint("""
+                {"type": "object", "properties": {"description": {"type": "string"}}}""");
+        OptionalLong b = fingerprint("""
+                {"type": "object", "properties": {}}""");
+
+        assertThat(SchemaFingerprint.equivalent(a, b)).isFalse();
+    }
+
+    @Test
+    void detectsTypeChanges() {
+        OptionalLong a = fingerprint("""
+                {"type": "object", "properties": {"name": {"type": "string"}}}""");
+        OptionalLong b = fingerprint("""
+                {"type": "object", "properties": {"name": {"type": "integer"}}}""");
+
+        assertThat(SchemaFingerprint.equivalent(a, b)).isFalse();
+    }
+
+    @Test
+    void unparseableContentIsNeverEquivalent() {
+        OptionalLong a = fingerprint("{ not json");
+
+        assertThat(a).isEmpty();
+        assertThat(SchemaFingerprint.equivalent(a, a)).isFalse();
+    }
+
+    private OptionalLong fingerprint(String schema) {
+        return SchemaFingerprint.of(support, TypedContent.create(schema, support.getContentType()));
+    }
+}
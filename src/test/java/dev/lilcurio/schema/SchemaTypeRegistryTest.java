@@ -0,0 +1,42 @@
+package dev.lilcurio.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaTypeRegistryTest {
+
+    @Test
+    void concurrentLookupsShareOneInstance() {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<SchemaSupport>> lookups = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return SchemaTypeRegistry.get(i % 2 == 0 ? SchemaType.JSON : SchemaType.AVRO);
+                }))
+                .toList();
+        start.countDown();
+
+        assertThat(lookups.stream().map(CompletableFuture::join).distinct()).hasSize(2);
+        assertThat(SchemaTypeRegistry.all())
+                .containsExactlyInAnyOrder(SchemaTypeRegistry.get(SchemaType.JSON), SchemaTypeRegistry.get(SchemaType.AVRO),
+                        SchemaTypeRegistry.get(SchemaType.PROTOBUF));
+    }
+
+    @Test
+    void supportsEveryType() {
+        for (SchemaType type : SchemaType.values()) {
+            assertThat(SchemaTypeRegistry.isSupported(type)).isTrue();
+        }
+        assertThat(SchemaTypeRegistry.get(SchemaType.PROTOBUF)).isInstanceOf(ProtobufSchemaSupport.class);
+    }
+}
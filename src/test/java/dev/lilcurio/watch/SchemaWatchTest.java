@@ -0,0 +1,63 @@
+package dev.lilcurio.watch;
+
+import dev.lilcurio.refs.ReferenceCache;
+import dev.lilcurio.refs.ReferenceResolver;
+import dev.lilcurio.schema.JsonSchemaSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaWatchTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rechecksOnlySchemasReferencingTheChangedFile() throws Exception {
+        Path common = Files.createDirectories(dir.resolve("common"));
+        Path address = Files.writeString(common.resolve("address.json"), "{\"type\":\"string\"}");
+        Path order = Files.writeString(dir.resolve("order.json"),
+                "{\"type\":\"object\",\"properties\":{\"address\":{\"$ref\":\"common/address.json\"}}}");
+        Path customer = Files.writeString(dir.resolve("customer.json"), "{\"type\":\"object\"}");
+        List<Path> schemas = List.of(order, customer);
+
+        JsonSchemaSupport support = new JsonSchemaSupport();
+        SchemaWatch watch = new SchemaWatch(Duration.ofMillis(20), support,
+                new ReferenceResolver(support, new ReferenceCache(1024 * 1024)), new PrintWriter(new StringWriter()));
+        BlockingQueue<List<Path>> rounds = new LinkedBlockingQueue<>();
+        Thread thread = new Thread(() -> {
+            try {
+                watch.run(List.of(order.toString(), customer.toString()), schemas, () -> schemas, checked -> {
+                    rounds.add(checked);
+                    return List.of();
+                });
+            } catch (Exception e) {
+                // Interrupted
+            }
+        });
+        thread.start();
+        try {
+            // Keep editing until the watch, which registers asynchronously, sees it
+            List<Path> round = null;
+            for (int i = 0; i < 100 && round == null; i++) {
+                Files.writeString(address, "{\"type\":\"string\",\"maxLength\":" + i + "}");
+                round = rounds.poll(100, TimeUnit.MILLISECONDS);
+            }
+            assertThat(round).containsExactly(order);
+        } finally {
+            thread.interrupt();
+            thread.join(5000);
+        }
+    }
+}